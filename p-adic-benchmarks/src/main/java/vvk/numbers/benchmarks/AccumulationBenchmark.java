@@ -0,0 +1,146 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vvk.numbers.PAdic;
+import vvk.numbers.PAdicAccumulator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums and sums of products of many terms, folded through immutable {@link PAdic} operations,
+ * through in-place {@link PAdicAccumulator} operations and through bulk {@link PAdic#sum(PAdic[])}
+ * and fused {@link PAdic#dot(PAdic[], PAdic[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccumulationBenchmark {
+
+    private static final int TERMS = 64;
+
+    @Param({"2", "257", "65521"})
+    public int base;
+
+    @Param({"8", "32", "84"})
+    public int digits;
+
+    private PAdic[] first;
+    private PAdic[] second;
+    private PAdicAccumulator accumulator;
+
+    @Setup
+    public void setUp() {
+        final Operands operands = new Operands(base);
+
+        first = new PAdic[TERMS];
+        second = new PAdic[TERMS];
+
+        for (int i = 0; i < TERMS; ++i) {
+            first[i] = operands.number(digits, 0);
+            second[i] = operands.number(digits, 0);
+        }
+
+        accumulator = new PAdicAccumulator(base, PAdic.DEFAULT_PRECISION);
+    }
+
+    @Benchmark
+    public PAdic sumFolded() {
+        PAdic sum = first[0];
+
+        for (int i = 1; i < TERMS; ++i) {
+            sum = sum.add(first[i]);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public PAdic sumAccumulated() {
+        accumulator.set(first[0]);
+
+        for (int i = 1; i < TERMS; ++i) {
+            accumulator.addInPlace(first[i]);
+        }
+
+        return accumulator.toPAdic();
+    }
+
+    @Benchmark
+    public PAdic sumBulk() {
+        return PAdic.sum(first);
+    }
+
+    @Benchmark
+    public PAdic dotProductFolded() {
+        PAdic sum = first[0].multiply(second[0]);
+
+        for (int i = 1; i < TERMS; ++i) {
+            sum = sum.add(first[i].multiply(second[i]));
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public PAdic dotProductAccumulated() {
+        accumulator.clear();
+
+        for (int i = 0; i < TERMS; ++i) {
+            accumulator.multiplyAddInPlace(first[i], second[i]);
+        }
+
+        return accumulator.toPAdic();
+    }
+
+    @Benchmark
+    public PAdic dotProductFused() {
+        return PAdic.dot(first, second);
+    }
+
+    @Benchmark
+    public PAdic multiplyThenAdd() {
+        return first[0].multiply(second[0]).add(first[1]);
+    }
+
+    @Benchmark
+    public PAdic multiplyAdd() {
+        return first[0].multiplyAdd(second[0], first[1]);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vvk.numbers.PAdic;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arithmetic operations of {@link PAdic}.
+ * Operands are units with <code>digits</code> significant digits that carry <code>precision</code> digits in total.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArithmeticBenchmark {
+
+    @Param({"2", "257", "65521"})
+    public int base;
+
+    @Param({"8", "32", "84"})
+    public int digits;
+
+    @Param({"128", "2048"})
+    public int precision;
+
+    private PAdic first;
+    private PAdic second;
+    private PAdic fraction;
+
+    @Setup
+    public void setUp() {
+        final Operands operands = new Operands(base);
+
+        first = operands.number(digits, 0, precision);
+        second = operands.number(digits, 0, precision);
+        fraction = operands.number(digits, -digits / 2, precision);
+    }
+
+    @Benchmark
+    public PAdic add() {
+        return first.add(second);
+    }
+
+    @Benchmark
+    public PAdic addFraction() {
+        return first.add(fraction);
+    }
+
+    @Benchmark
+    public PAdic subtract() {
+        return first.subtract(second);
+    }
+
+    @Benchmark
+    public PAdic subtractFraction() {
+        return first.subtract(fraction);
+    }
+
+    @Benchmark
+    public PAdic multiply() {
+        return first.multiply(second);
+    }
+
+    @Benchmark
+    public PAdic multiplyFraction() {
+        return first.multiply(fraction);
+    }
+
+    @Benchmark
+    public PAdic divide() {
+        return first.divide(second);
+    }
+
+    @Benchmark
+    public PAdic divideFraction() {
+        return first.divide(fraction);
+    }
+
+    @Benchmark
+    public PAdic negative() {
+        return first.negative();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vvk.numbers.PAdic;
+import vvk.numbers.PAdicBatch;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expansion of one value into all prime bases below 1000, by {@link PAdicBatch} and by constructors of {@link PAdic}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+
+    @Param({"64", "4096", "65536"})
+    public int bits;
+
+    private int[] bases;
+    private PAdicBatch batch;
+    private BigInteger value;
+    private BigInteger denominator;
+
+    @Setup
+    public void setUp() {
+        int count = 0;
+        final int[] primes = new int[1000];
+
+        for (int n = 2; n < 1000; ++n) {
+            if (BigInteger.valueOf(n).isProbablePrime(20)) {
+                primes[count++] = n;
+            }
+        }
+
+        final Random random = new Random(16);
+
+        bases = Arrays.copyOf(primes, count);
+        batch = new PAdicBatch(bases);
+        value = new BigInteger(bits, random).negate();
+        denominator = new BigInteger(64, random).setBit(0);
+    }
+
+    @Benchmark
+    public PAdic[] integerBatch() {
+        return batch.expand(value);
+    }
+
+    @Benchmark
+    public PAdic[] integerOneByOne() {
+        final PAdic[] result = new PAdic[bases.length];
+
+        for (int i = 0; i < bases.length; ++i) {
+            result[i] = new PAdic(value, bases[i]);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public PAdic[] fractionBatch() {
+        return batch.expand(value, denominator);
+    }
+
+    @Benchmark
+    public PAdic[] fractionOneByOne() {
+        final PAdic[] result = new PAdic[bases.length];
+
+        for (int i = 0; i < bases.length; ++i) {
+            result[i] = new PAdic(value, denominator, bases[i]);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vvk.numbers.PAdic;
+import vvk.numbers.PeriodicPAdic;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Constructors of {@link PAdic} that take integer, rational and sequence representations,
+ * and exact periodic expansion of the same rationals by {@link PeriodicPAdic}.
+ * Canonical string form is benchmarked separately by {@link CanonicalFormBenchmark}
+ * since it is restricted to bases that are not larger than 7.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    @Param({"2", "257", "65521"})
+    public int base;
+
+    @Param({"8", "32", "84"})
+    public int digits;
+
+    private BigInteger integer;
+    private BigInteger negativeInteger;
+    private BigInteger numerator;
+    private BigInteger denominator;
+    private int[] sequence;
+
+    @Setup
+    public void setUp() {
+        final Operands operands = new Operands(base);
+
+        integer = operands.integer(digits);
+        negativeInteger = operands.integer(digits).negate();
+        numerator = operands.integer(Math.max(digits / 2, 1));
+        denominator = operands.integer(Math.max(digits / 2, 1));
+        sequence = operands.sequence(digits);
+    }
+
+    @Benchmark
+    public PAdic fromInteger() {
+        return new PAdic(integer, base);
+    }
+
+    @Benchmark
+    public PAdic fromNegativeInteger() {
+        return new PAdic(negativeInteger, base);
+    }
+
+    @Benchmark
+    public PAdic fromRational() {
+        return new PAdic(numerator, denominator, base);
+    }
+
+    @Benchmark
+    public PeriodicPAdic fromRationalPeriodic() {
+        return new PeriodicPAdic(numerator, denominator, base);
+    }
+
+    @Benchmark
+    public PAdic fromSequence() {
+        return new PAdic(sequence, 0, base);
+    }
+}
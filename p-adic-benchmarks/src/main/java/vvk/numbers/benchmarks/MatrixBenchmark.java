@@ -0,0 +1,118 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vvk.numbers.PAdic;
+import vvk.numbers.PAdicMatrix;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product of square matrices by loops over {@link PAdic} entries and by {@link PAdicMatrix},
+ * and determinant and inverse of a matrix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixBenchmark {
+
+    @Param({"3", "257"})
+    public int base;
+
+    @Param({"16", "64"})
+    public int size;
+
+    private PAdic[][] first;
+    private PAdic[][] second;
+    private PAdicMatrix firstMatrix;
+    private PAdicMatrix secondMatrix;
+
+    @Setup
+    public void setUp() {
+        final Operands operands = new Operands(base);
+
+        first = new PAdic[size][size];
+        second = new PAdic[size][size];
+
+        for (int i = 0; i < size; ++i) {
+            for (int j = 0; j < size; ++j) {
+                first[i][j] = operands.number(PAdic.DEFAULT_PRECISION, 0);
+                second[i][j] = operands.number(PAdic.DEFAULT_PRECISION, 0);
+            }
+        }
+
+        firstMatrix = new PAdicMatrix(first);
+        secondMatrix = new PAdicMatrix(second);
+    }
+
+    @Benchmark
+    public PAdic[][] multiplyByLoops() {
+        final PAdic[][] product = new PAdic[size][size];
+
+        for (int i = 0; i < size; ++i) {
+            for (int j = 0; j < size; ++j) {
+                PAdic sum = new PAdic(BigInteger.ZERO, base, PAdic.DEFAULT_PRECISION);
+
+                for (int k = 0; k < size; ++k) {
+                    sum = sum.add(first[i][k].multiply(second[k][j]));
+                }
+
+                product[i][j] = sum;
+            }
+        }
+
+        return product;
+    }
+
+    @Benchmark
+    public PAdicMatrix multiply() {
+        return firstMatrix.multiply(secondMatrix);
+    }
+
+    @Benchmark
+    public PAdic determinant() {
+        return firstMatrix.determinant();
+    }
+
+    @Benchmark
+    public PAdicMatrix inverse() {
+        return firstMatrix.inverse();
+    }
+}
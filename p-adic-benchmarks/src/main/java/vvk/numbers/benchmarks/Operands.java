@@ -0,0 +1,110 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers.benchmarks;
+
+import vvk.numbers.PAdic;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Deterministic generator of benchmark operands.
+ * Every benchmark state seeds its own generator so consecutive runs work on the same numbers.
+ */
+final class Operands {
+
+    private static final long SEED = 0x5EEDL;
+
+    private final Random random;
+    private final int base;
+
+    Operands(final int base) {
+        this.random = new Random(SEED ^ base);
+        this.base = base;
+    }
+
+    /**
+     * Returns sequence of <code>count</code> random digits whose lowest digit is non-zero,
+     * so the number built from it is a unit.
+     */
+    int[] sequence(final int count) {
+        final int[] sequence = new int[count];
+
+        for (int i = 0; i < count; ++i) {
+            sequence[i] = random.nextInt(base);
+        }
+
+        sequence[0] = 1 + random.nextInt(base - 1);
+
+        return sequence;
+    }
+
+    /**
+     * Returns p-adic unit that has exactly <code>count</code> significant digits and given order.
+     */
+    PAdic number(final int count, final int order) {
+        return number(count, order, PAdic.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Returns p-adic unit of given precision that has exactly <code>count</code> significant digits and given order.
+     */
+    PAdic number(final int count, final int order, final int precision) {
+        return new PAdic(sequence(count), order, base, precision);
+    }
+
+    /**
+     * Returns positive integer that has at most <code>count</code> digits in base p.
+     */
+    BigInteger integer(final int count) {
+        final BigInteger bound = BigInteger.valueOf(base).pow(count);
+        BigInteger value;
+
+        do {
+            value = new BigInteger(bound.bitLength(), random);
+        } while (value.signum() == 0 || value.compareTo(bound) >= 0);
+
+        return value;
+    }
+
+    /**
+     * Returns canonical string form of number with <code>count</code> digits,
+     * <code>fraction</code> of them placed after the point.
+     */
+    String canonical(final int count, final int fraction) {
+        final int[] sequence = sequence(count);
+        final StringBuilder result = new StringBuilder(count + 1);
+
+        for (int i = count - 1; i >= 0; --i) {
+            result.append(sequence[i]);
+
+            if (i == fraction && i != 0) {
+                result.append('.');
+            }
+        }
+
+        return result.toString();
+    }
+}
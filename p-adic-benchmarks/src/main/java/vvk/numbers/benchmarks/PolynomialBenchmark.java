@@ -0,0 +1,122 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vvk.numbers.PAdic;
+import vvk.numbers.PAdicPolynomial;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of a polynomial by chained {@link PAdic} operations and by {@link PAdicPolynomial#evaluate(PAdic)},
+ * and roots of many polynomials one by one and in a batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolynomialBenchmark {
+
+    private static final int DEGREE = 8;
+    private static final int POLYNOMIALS = 256;
+
+    @Param({"3", "257"})
+    public int base;
+
+    private PAdic[] coefficients;
+    private PAdicPolynomial polynomial;
+    private PAdic point;
+    private PAdicPolynomial[] polynomials;
+
+    @Setup
+    public void setUp() {
+        final Operands operands = new Operands(base);
+
+        coefficients = new PAdic[DEGREE + 1];
+
+        for (int i = 0; i < coefficients.length; ++i) {
+            coefficients[i] = operands.number(PAdic.DEFAULT_PRECISION, 0);
+        }
+
+        polynomial = new PAdicPolynomial(coefficients);
+        point = operands.number(PAdic.DEFAULT_PRECISION, 0);
+        polynomials = new PAdicPolynomial[POLYNOMIALS];
+
+        for (int i = 0; i < polynomials.length; ++i) {
+            final PAdic[] small = new PAdic[4];
+
+            for (int j = 0; j < small.length; ++j) {
+                small[j] = new PAdic(operands.integer(3), base, PAdic.DEFAULT_PRECISION);
+            }
+
+            polynomials[i] = new PAdicPolynomial(small);
+        }
+    }
+
+    @Benchmark
+    public PAdic evaluateByOperations() {
+        PAdic value = coefficients[DEGREE];
+
+        for (int i = DEGREE - 1; i >= 0; --i) {
+            value = value.multiply(point).add(coefficients[i]);
+        }
+
+        return value;
+    }
+
+    @Benchmark
+    public PAdic evaluate() {
+        return polynomial.evaluate(point);
+    }
+
+    @Benchmark
+    public PAdic[][] rootsOneByOne() {
+        final PAdic[][] roots = new PAdic[polynomials.length][];
+
+        for (int i = 0; i < polynomials.length; ++i) {
+            roots[i] = polynomials[i].roots();
+        }
+
+        return roots;
+    }
+
+    @Benchmark
+    public PAdic[][] rootsInBatch() {
+        return PAdicPolynomial.roots(polynomials);
+    }
+}
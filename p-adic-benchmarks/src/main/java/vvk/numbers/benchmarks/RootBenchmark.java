@@ -0,0 +1,92 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vvk.numbers.PAdic;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Square roots of a unit by digit-by-digit trial search and by {@link PAdic#sqrt()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RootBenchmark {
+
+    @Param({"3", "257"})
+    public int base;
+
+    private PAdic square;
+
+    @Setup
+    public void setUp() {
+        final PAdic number = new Operands(base).number(PAdic.DEFAULT_PRECISION, 0);
+        square = number.multiply(number);
+    }
+
+    /**
+     * Finds one square root digit by digit: every candidate digit is tried by squaring the root found so far.
+     */
+    @Benchmark
+    public PAdic squareRootByTrial() {
+        final int len = square.getPrecision();
+        final int[] digits = new int[len];
+        PAdic root = null;
+
+        for (int i = 0; i < len; ++i) {
+            for (int digit = i == 0 ? 1 : 0; digit < base; ++digit) {
+                digits[i] = digit;
+                final PAdic candidate = new PAdic(digits, 0, base, len);
+
+                if (candidate.multiply(candidate).getDigit(i) == square.getDigit(i)) {
+                    root = candidate;
+                    break;
+                }
+            }
+        }
+
+        return root;
+    }
+
+    @Benchmark
+    public PAdic[] squareRoot() {
+        return square.sqrt();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vvk.numbers.PAdic;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exponent and logarithm by series whose terms are divided one by one, and by {@link PAdic#exp()} and {@link PAdic#log()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeriesBenchmark {
+
+    @Param({"3", "257"})
+    public int base;
+
+    private PAdic multiple;
+    private PAdic unit;
+    private PAdic[] integers;
+
+    @Setup
+    public void setUp() {
+        final int precision = PAdic.DEFAULT_PRECISION;
+        final Operands operands = new Operands(base);
+
+        multiple = operands.number(precision, 1);
+        unit = multiple.add(new PAdic(BigInteger.ONE, base, precision));
+        integers = new PAdic[4 * precision + 1];
+
+        for (int n = 1; n < integers.length; ++n) {
+            integers[n] = new PAdic(BigInteger.valueOf(n), base, precision);
+        }
+    }
+
+    /**
+     * Sums terms x^n / n! until the term is zero, dividing every term by n.
+     */
+    @Benchmark
+    public PAdic expByDivision() {
+        PAdic term = unit.subtract(multiple);
+        PAdic sum = term;
+
+        for (int n = 1; n < integers.length && term.getOrder() < PAdic.DEFAULT_PRECISION; ++n) {
+            term = term.multiply(multiple).divide(integers[n]);
+            sum = sum.add(term);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public PAdic exp() {
+        return multiple.exp();
+    }
+
+    /**
+     * Sums terms (-1)^(n + 1) * y^n / n for y = u - 1, dividing every term by n.
+     */
+    @Benchmark
+    public PAdic logByDivision() {
+        PAdic power = multiple;
+        PAdic sum = multiple;
+
+        for (int n = 2; n < integers.length && power.getOrder() < PAdic.DEFAULT_PRECISION; ++n) {
+            power = power.multiply(multiple);
+
+            final PAdic term = power.divide(integers[n]);
+            sum = (n & 1) == 0 ? sum.subtract(term) : sum.add(term);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public PAdic log() {
+        return unit.log();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vvk.numbers.PAdic;
+import vvk.numbers.PAdicVector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Element-wise operations on arrays of {@link PAdic} and on {@link PAdicVector}, and conversion between them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorBenchmark {
+
+    private static final int SIZE = (1 << 16);
+
+    @Param({"3", "257"})
+    public int base;
+
+    private PAdic[] first;
+    private PAdic[] second;
+    private PAdicVector firstVector;
+    private PAdicVector secondVector;
+
+    @Setup
+    public void setUp() {
+        final Operands operands = new Operands(base);
+
+        first = new PAdic[SIZE];
+        second = new PAdic[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            first[i] = operands.number(PAdic.DEFAULT_PRECISION, 0);
+            second[i] = operands.number(PAdic.DEFAULT_PRECISION, 0);
+        }
+
+        firstVector = new PAdicVector(first);
+        secondVector = new PAdicVector(second);
+    }
+
+    @Benchmark
+    public PAdic[] addByObjects() {
+        final PAdic[] result = new PAdic[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            result[i] = first[i].add(second[i]);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public PAdicVector add() {
+        return firstVector.add(secondVector);
+    }
+
+    @Benchmark
+    public PAdic[] multiplyByObjects() {
+        final PAdic[] result = new PAdic[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            result[i] = first[i].multiply(second[i]);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public PAdicVector multiply() {
+        return firstVector.multiply(secondVector);
+    }
+
+    @Benchmark
+    public PAdicVector fromArray() {
+        return new PAdicVector(first);
+    }
+
+    @Benchmark
+    public PAdic[] toArray() {
+        return firstVector.toArray();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vvk.numbers.PAdic;
+import vvk.numbers.PAdicLong;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arithmetic of numbers whose precision fits into one word, as {@link PAdic} and as {@link PAdicLong}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordBenchmark {
+
+    @Param({"2", "3", "7", "257"})
+    public int base;
+
+    private PAdic first;
+    private PAdic second;
+    private PAdicLong longFirst;
+    private PAdicLong longSecond;
+
+    @Setup
+    public void setUp() {
+        final Operands operands = new Operands(base);
+        final int precision = PAdicLong.maxPrecision(base);
+
+        first = operands.number(precision, 0, precision);
+        second = operands.number(precision, 0, precision);
+        longFirst = new PAdicLong(first);
+        longSecond = new PAdicLong(second);
+    }
+
+    @Benchmark
+    public PAdic addDigits() {
+        return first.add(second);
+    }
+
+    @Benchmark
+    public PAdicLong addWord() {
+        return longFirst.add(longSecond);
+    }
+
+    @Benchmark
+    public PAdic multiplyDigits() {
+        return first.multiply(second);
+    }
+
+    @Benchmark
+    public PAdicLong multiplyWord() {
+        return longFirst.multiply(longSecond);
+    }
+
+    @Benchmark
+    public PAdic divideDigits() {
+        return first.divide(second);
+    }
+
+    @Benchmark
+    public PAdicLong divideWord() {
+        return longFirst.divide(longSecond);
+    }
+}
@@ -0,0 +1,447 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+
+/**
+ * P-adic number stored as a single integer instead of a sequence of digits.
+ * Digits of the number form integer <i>x</i> modulo p^precision, and arithmetic is done on <i>x</i>
+ * with multiplication, remainder and modular inverse of {@link BigInteger}.
+ * Digits are extracted only when they are requested.
+ * Every operation gives exactly the same digits and order as corresponding operation of {@link PAdic},
+ * so numbers can be converted from one representation to another at any moment.
+ * <pre>
+ *     final BigPAdic x = new BigPAdic(new PAdic(BigInteger.ONE, BigInteger.valueOf(3), 5, 10000));
+ *     final PAdic y = x.multiply(x).add(x).toPAdic();
+ * </pre>
+ * Instances are immutable and may be shared between threads.
+ */
+public final class BigPAdic {
+
+    private final int base;
+    private final int precision;
+    private final BigInteger modulus;
+    private final BigInteger value;
+    private final int order;
+
+    /**
+     * Constructs p-adic number from integer value.
+     * @param value integer value in base 10.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     */
+    public BigPAdic(final BigInteger value, final int base) {
+        this(value, base, PAdic.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs p-adic number from integer value.
+     * @param value integer value in base 10.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     */
+    public BigPAdic(final BigInteger value, final int base, final int precision) {
+        PAdic.checkForPrecision(precision);
+
+        this.base = base;
+        this.precision = precision;
+        this.modulus = PAdicContext.of(base).power(precision);
+        this.value = value.mod(modulus);
+
+        final int order = BigPAdic.valuation(this.value, base, precision);
+
+        this.order = order < precision ? order : 0;
+    }
+
+    /**
+     * Constructs p-adic number from rational fraction.
+     * @param numerator numerator of the fraction in base 10. Must be integer value.
+     * @param denominator denominator of the fracture in base 10. Denominator must be positive.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     */
+    public BigPAdic(final BigInteger numerator, final BigInteger denominator, final int base) {
+        this(numerator, denominator, base, PAdic.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs p-adic number from rational fraction.
+     * @param numerator numerator of the fraction in base 10. Must be integer value.
+     * @param denominator denominator of the fracture in base 10. Denominator must be positive.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     */
+    public BigPAdic(final BigInteger numerator, final BigInteger denominator, final int base, final int precision) {
+        this(BigPAdic.fraction(numerator, denominator, base, precision));
+    }
+
+    /**
+     * Constructs p-adic number that has the same base, precision, digits and order as given one.
+     * @param number p-adic number.
+     */
+    public BigPAdic(final PAdic number) {
+        this.base = number.getBase();
+        this.precision = number.getPrecision();
+        this.modulus = PAdicContext.cached(base).power(precision);
+        this.value = Limbs.toBigInteger(number.limbs(), base, precision);
+        this.order = number.getOrder();
+    }
+
+    private BigPAdic(final BigPAdic number) {
+        this(number.value, number.order, number.base, number.precision, number.modulus);
+    }
+
+    private BigPAdic(final BigInteger value, final int order, final int base, final int precision, final BigInteger modulus) {
+        this.base = base;
+        this.precision = precision;
+        this.modulus = modulus;
+        this.value = value;
+        this.order = order;
+    }
+
+    /**
+     * Returns value that gives zero in addition with this number.
+     * @return number that is opposite to this one.
+     * @see PAdic#negative()
+     */
+    public BigPAdic negative() {
+        return new BigPAdic(value.signum() == 0 ? value : modulus.subtract(value), order, base, precision, modulus);
+    }
+
+    /**
+     * Returns result of sum this p-adic number with <code>added</code>.
+     * Precision of the result is the least of precisions of the operands.
+     * @param added p-adic number to be added.
+     * @return p-adic number that is result of sum.
+     * @see PAdic#add(PAdic)
+     */
+    public BigPAdic add(final BigPAdic added) {
+        return this.addOrSubtract(added, false);
+    }
+
+    /**
+     * Returns difference of p-adic number and <code>subtracted</code> value.
+     * Precision of the result is the least of precisions of the operands.
+     * @param subtracted p-adic number to be subtracted.
+     * @return p-adic number that is result of subtraction.
+     * @see PAdic#subtract(PAdic)
+     */
+    public BigPAdic subtract(final BigPAdic subtracted) {
+        return this.addOrSubtract(subtracted, true);
+    }
+
+    private BigPAdic addOrSubtract(final BigPAdic other, final boolean subtract) {
+        this.checkForBaseEquality(other);
+
+        final BigPAdic narrower = this.narrower(other);
+        final int diff = PAdic.pointShift(this.order, other.order);
+        BigInteger first = this.value;
+        BigInteger second = other.value;
+
+        if (diff < 0) {
+            second = second.multiply(this.power(-diff));
+        } else if (diff > 0) {
+            first = first.multiply(this.power(diff));
+        }
+
+        final BigInteger result = narrower.reduce(subtract ? first.subtract(second) : first.add(second));
+
+        return narrower.normalize(result, Math.min(this.order, other.order));
+    }
+
+    /**
+     * Returns result of multiplication of this p-adic number by <code>multiplier</code> value.
+     * Precision of the result is the least of precisions of the operands.
+     * @param multiplier value to multiply this p-adic number by.
+     * @return p-adic number that is result of multiplication.
+     * @see PAdic#multiply(PAdic)
+     */
+    public BigPAdic multiply(final BigPAdic multiplier) {
+        this.checkForBaseEquality(multiplier);
+
+        final BigPAdic narrower = this.narrower(multiplier);
+        final int len = narrower.precision;
+        BigInteger result = narrower.reduce(this.value.multiply(multiplier.value));
+
+        // Product of numbers with orders of different signs may have zeros below the point, see PAdic.
+        final int minOrder = Math.min(this.order, multiplier.order);
+        final int maxOrder = Math.max(this.order, multiplier.order);
+
+        if (minOrder < 0 && 0 < maxOrder && result.signum() != 0) {
+            final int pos = Math.min(BigPAdic.valuation(result, base, len), Math.min(-minOrder, len));
+            result = result.divide(this.power(pos));
+        }
+
+        return narrower.normalize(result, this.order + multiplier.order);
+    }
+
+    /**
+     * Returns result of division of this p-adic number by <code>divisor</code> value.
+     * Precision of the result is the least of precisions of the operands.
+     * @param divisor value to divide this p-adic number by.
+     * @return p-adic number that is result of division.
+     * @see PAdic#divide(PAdic)
+     */
+    public BigPAdic divide(final BigPAdic divisor) {
+        this.checkForBaseEquality(divisor);
+
+        final BigPAdic narrower = this.narrower(divisor);
+        final int len = narrower.precision;
+        BigInteger divided = narrower.reduce(this.value);
+        BigInteger divisorValue = narrower.reduce(divisor.value);
+
+        int pos = Math.min(BigPAdic.valuation(divided, base, len), BigPAdic.valuation(divisorValue, base, len));
+        divided = divided.divide(this.power(pos));
+        divisorValue = divisorValue.divide(this.power(pos));
+
+        int dividedOrder = this.order - pos;
+        int divisorOrder = divisor.order - pos;
+
+        pos = BigPAdic.valuation(divisorValue, base, len);
+        divisorValue = divisorValue.divide(this.power(pos));
+        dividedOrder -= pos;
+        divisorOrder -= pos;
+
+        if (divisorOrder < 0 && divisorOrder < dividedOrder) {
+            final int diff = Math.min(dividedOrder, 0) - divisorOrder;
+            divided = narrower.reduce(divided.multiply(this.power(diff)));
+            dividedOrder += diff;
+            divisorOrder = 0;
+        }
+
+        final BigInteger result;
+
+        if (divisorValue.signum() == 0) {
+            // Divisor is zero, so the only number that can be divided by it is zero.
+            if (divided.signum() != 0) {
+                final BigInteger digit = divided.divide(this.power(BigPAdic.valuation(divided, base, len))).mod(BigInteger.valueOf(base));
+                throw new RuntimeException("CALCULATION FAILED. Couldn't find multiplier x satisfying " + digit + " = x0 (mod " + this.base + ").");
+            }
+
+            result = BigInteger.ZERO;
+        } else {
+            result = narrower.reduce(divided.multiply(this.inverse(divisorValue, len)));
+        }
+
+        return narrower.normalize(result, dividedOrder - divisorOrder);
+    }
+
+    /**
+     * Returns order of p-adic number.
+     * @return order of the number.
+     * @see PAdic#getOrder()
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns base of p-adic number.
+     * @return base of the number.
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Returns precision of p-adic number.
+     * @return precision of the number.
+     * @see PAdic#getPrecision()
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns digit of p-adic number that stands at <i>p</i> in power <code>position</code>.
+     * @param position power of <i>p</i> the digit stands at.
+     * @return digit at the position. Digits at positions that are less than order are zero.
+     * @see PAdic#getDigit(int)
+     */
+    public int getDigit(final int position) {
+        final int index = position - Math.min(order, 0);
+
+        if (index < 0) {
+            return 0;
+        }
+
+        if (index >= precision) {
+            throw new RuntimeException("Digit at position " + position + " is beyond precision of the number.");
+        }
+
+        return value.divide(this.power(index)).mod(BigInteger.valueOf(base)).intValue();
+    }
+
+    /**
+     * Returns p-adic number with digit sequence representation that has the same digits.
+     * @return p-adic number equal to this one.
+     */
+    public PAdic toPAdic() {
+        return PAdic.valueOf(Limbs.fromBigInteger(value, base, precision), order, base, precision);
+    }
+
+    @Override
+    public String toString() {
+        return this.toPAdic().toString();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof BigPAdic)) {
+            return false;
+        }
+
+        final BigPAdic number = (BigPAdic) obj;
+
+        if (this.base != number.base || this.order != number.order || this.precision != number.precision) {
+            return false;
+        }
+
+        final BigInteger shown = this.power(this.limit());
+
+        return this.value.mod(shown).equals(number.value.mod(shown));
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int hash = value.mod(this.power(this.limit())).hashCode();
+
+        hash = hash * prime + order;
+        hash = hash * prime + base;
+
+        return hash;
+    }
+
+    // Only the lower two thirds of digits are shown and compared, like in PAdic.
+    private int limit() {
+        return Math.max((precision / 3) << 1, 1);
+    }
+
+    private static BigPAdic fraction(final BigInteger numerator, final BigInteger denominator, final int base, final int precision) {
+        final BigInteger gcd = numerator.abs().gcd(denominator.abs());
+
+        return new BigPAdic(numerator.divide(gcd), base, precision).divide(new BigPAdic(denominator.divide(gcd), base, precision));
+    }
+
+    // Normalizes order of result of this precision like PAdic.calculateOrder does for digits.
+    private BigPAdic normalize(final BigInteger result, final int order) {
+        final int pos = BigPAdic.valuation(result, base, precision);
+
+        if (pos == precision) {
+            return new BigPAdic(BigInteger.ZERO, 0, base, precision, modulus);
+        }
+
+        int actualOrder = order;
+        BigInteger actualValue = result;
+
+        if (0 <= actualOrder && actualOrder < pos) {
+            actualOrder = pos;
+        }
+
+        if (actualOrder < 0) {
+            actualValue = actualValue.divide(this.power(Math.min(-actualOrder, pos)));
+            actualOrder += pos;
+        }
+
+        return new BigPAdic(actualValue, actualOrder, base, precision, modulus);
+    }
+
+    // Inverse of the unit modulo p^len lifted by Newton iteration x = x * (2 - unit * x), see Division.
+    private BigInteger inverse(final BigInteger unit, final int len) {
+        final BigInteger bigBase = BigInteger.valueOf(base);
+        final BigInteger two = BigInteger.valueOf(2);
+        BigInteger result = BigInteger.valueOf(PAdicContext.cached(base).inverses()[unit.mod(bigBase).intValue()]);
+
+        for (int precision = 1; precision < len; ) {
+            precision = Math.min(precision << 1, len);
+
+            final BigInteger modulus = this.power(precision);
+            final BigInteger correction = two.subtract(unit.mod(modulus).multiply(result)).mod(modulus);
+            result = result.multiply(correction).mod(modulus);
+        }
+
+        return result;
+    }
+
+    // Residue modulo p^precision. Powers of two are reduced by masking.
+    private BigInteger reduce(final BigInteger x) {
+        if (base == 2) {
+            return x.signum() >= 0 && x.bitLength() <= precision ? x : x.and(modulus.subtract(BigInteger.ONE));
+        }
+
+        return x.mod(modulus);
+    }
+
+    // Operand whose precision is the precision of the result.
+    private BigPAdic narrower(final BigPAdic other) {
+        return this.precision <= other.precision ? this : other;
+    }
+
+    private BigInteger power(final int exponent) {
+        return PAdicContext.cached(base).power(exponent);
+    }
+
+    private void checkForBaseEquality(final BigPAdic other) {
+        if (this.base != other.base) {
+            throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+        }
+    }
+
+    // Number of lowest zero digits of value among len digits, len for zero.
+    private static int valuation(final BigInteger value, final int base, final int len) {
+        if (value.signum() == 0) {
+            return len;
+        }
+
+        if (base == 2) {
+            return Math.min(value.getLowestSetBit(), len);
+        }
+
+        final BigInteger bigBase = BigInteger.valueOf(base);
+        BigInteger current = value;
+        int valuation = 0;
+
+        while (valuation < len) {
+            final BigInteger[] quotientAndRemainder = current.divideAndRemainder(bigBase);
+
+            if (quotientAndRemainder[1].signum() != 0) {
+                break;
+            }
+
+            current = quotientAndRemainder[0];
+            ++valuation;
+        }
+
+        return valuation;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+/**
+ * Division of p-adic digit sequences modulo p^len.
+ * Divisor must be a unit, i.e. its lowest digit must be non-zero.
+ * Inverse of the divisor is lifted from its lowest digit by Newton (Hensel) iteration
+ * <code>x = x * (2 - d * x)</code> that doubles number of correct digits on every step,
+ * so division costs a few multiplications instead of a digit-by-digit long division.
+ */
+final class Division {
+
+    private Division() {
+    }
+
+    /**
+     * Returns quotient of two digit sequences modulo p^len.
+     * @param dividend digits of the dividend, lowest digit first. At least <code>len</code> digits are required.
+     * @param divisor digits of the divisor, lowest digit first. At least <code>len</code> digits are required
+     *                and the lowest one must be non-zero.
+     * @param base base of the digits.
+     * @param len number of digits in the result.
+     * @return <code>len</code> lowest digits of the quotient.
+     */
+    static int[] divide(final int[] dividend, final int[] divisor, final int base, final int len) {
+        return Multiplication.multiply(dividend, inverse(divisor, base, len), base, len);
+    }
+
+    /**
+     * Returns inverse of the unit modulo p^len.
+     * @param unit digits of the unit, lowest digit first. Its lowest digit must be non-zero.
+     * @param base base of the digits.
+     * @param len number of digits in the result.
+     * @return <code>len</code> lowest digits of the inverse.
+     */
+    static int[] inverse(final int[] unit, final int base, final int len) {
+        final int[] result = new int[len];
+        result[0] = PAdicContext.cached(base).inverses()[unit[0]];
+
+        for (int precision = 1; precision < len; ) {
+            precision = Math.min(precision << 1, len);
+
+            final int[] correction = Multiplication.multiply(unit, result, base, precision);
+            subtractFromTwo(correction, base);
+
+            final int[] next = Multiplication.multiply(result, correction, base, precision);
+            System.arraycopy(next, 0, result, 0, precision);
+        }
+
+        return result;
+    }
+
+    // Replaces digits of x with digits of 2 - x modulo p^digits.length.
+    private static void subtractFromTwo(final int[] digits, final int base) {
+        int pos = 0;
+
+        while (pos < digits.length && digits[pos] == 0) {
+            ++pos;
+        }
+
+        if (pos < digits.length) {
+            digits[pos] = base - digits[pos];
+        }
+
+        for (int i = pos + 1; i < digits.length; ++i) {
+            digits[i] = base - digits[i] - 1;
+        }
+
+        int toNext = 2;
+
+        for (int i = 0; i < digits.length && toNext != 0; ++i) {
+            final int next = digits[i] + toNext;
+            toNext = next / base;
+            digits[i] = next % base;
+        }
+    }
+}
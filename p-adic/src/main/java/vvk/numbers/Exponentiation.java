@@ -0,0 +1,131 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+
+/**
+ * Powers of p-adic units modulo p^len by left-to-right square-and-multiply.
+ * Squares and products are written into buffers that are allocated once, so exponentiation costs
+ * O(log e) multiplications and no allocations per step.
+ * Exponents that are not less than (p - 1) * p^(len - 1), the order of the group of units modulo p^len,
+ * are reduced modulo it first.
+ */
+final class Exponentiation {
+
+    private Exponentiation() {
+    }
+
+    /**
+     * Returns limbs of unit^exponent modulo p^len.
+     * @param unit limbs of the unit, its lowest digit must be non-zero.
+     * @param exponent non-negative exponent.
+     * @param base base of the digits.
+     * @param len number of digits in the result.
+     * @return limbs of <code>len</code> lowest digits of the power.
+     */
+    static long[] power(final long[] unit, final BigInteger exponent, final int base, final int len) {
+        final BigInteger reduced = reduce(exponent, base, len);
+
+        if (base == 2 && TwoAdic.wordCount(len) <= TwoAdic.MULTIPLICATION_WORD_LIMIT) {
+            return power(Limbs.truncate(unit, base, len), reduced, len);
+        }
+
+        final int[] digits = new int[len];
+        Limbs.unpack(unit, base, len, digits);
+
+        return Limbs.pack(power(digits, reduced, base, len), base, len);
+    }
+
+    /**
+     * Returns unit^exponent modulo p^len.
+     * @param unit digits of the unit, lowest digit first. Its lowest digit must be non-zero.
+     * @param exponent non-negative exponent.
+     * @param base base of the digits.
+     * @param len number of digits in the result.
+     * @return <code>len</code> lowest digits of the power.
+     */
+    static int[] power(final int[] unit, final BigInteger exponent, final int base, final int len) {
+        final int[] result = new int[len];
+
+        if (exponent.signum() == 0) {
+            result[0] = 1;
+
+            return result;
+        }
+
+        final long[] workspace = new long[Multiplication.workspaceSize(len)];
+        System.arraycopy(unit, 0, result, 0, len);
+
+        for (int bit = exponent.bitLength() - 2; bit >= 0; --bit) {
+            Multiplication.multiply(result, result, base, len, workspace, result);
+
+            if (exponent.testBit(bit)) {
+                Multiplication.multiply(result, unit, base, len, workspace, result);
+            }
+        }
+
+        return result;
+    }
+
+    // Word counterpart for base 2. Word multiplication cannot write into its operands, so two buffers are swapped.
+    private static long[] power(final long[] unit, final BigInteger exponent, final int len) {
+        long[] result = new long[TwoAdic.wordCount(len)];
+
+        if (exponent.signum() == 0) {
+            result[0] = 1;
+
+            return result;
+        }
+
+        long[] next = new long[result.length];
+        System.arraycopy(unit, 0, result, 0, result.length);
+
+        for (int bit = exponent.bitLength() - 2; bit >= 0; --bit) {
+            TwoAdic.multiply(result, result, len, next);
+
+            if (exponent.testBit(bit)) {
+                TwoAdic.multiply(next, unit, len, result);
+            } else {
+                final long[] swap = result;
+                result = next;
+                next = swap;
+            }
+        }
+
+        return result;
+    }
+
+    // Exponent modulo order of the group of units modulo p^len, if it is not less than the order.
+    private static BigInteger reduce(final BigInteger exponent, final int base, final int len) {
+        if (exponent.bitLength() < Integer.SIZE) {
+            return exponent;
+        }
+
+        final BigInteger order = PAdicContext.cached(base).power(len - 1).multiply(BigInteger.valueOf(base - 1));
+
+        return exponent.compareTo(order) < 0 ? exponent : exponent.mod(order);
+    }
+}
@@ -0,0 +1,416 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * P-adic number whose digits are calculated only when they are requested.
+ * Arithmetic operations build an expression instead of calculating digits,
+ * and every digit of the expression is calculated online: digit <i>k</i> of a result
+ * needs only digits 0..<i>k</i> of its operands.
+ * Calculated digits are cached, so requesting more digits later continues from the cached prefix.
+ * <pre>
+ *     final LazyPAdic third = LazyPAdic.valueOf(BigInteger.ONE, new BigInteger("3"), 7);
+ *     final LazyPAdic x = third.multiply(third).add(third);
+ *     final int digit = x.getDigit(5); // only six digits of every operand are calculated
+ * </pre>
+ * Instances are safe to share between threads.
+ */
+public abstract class LazyPAdic {
+
+    /**
+     * Number of zero digits after which divisor is considered to be zero.
+     */
+    public static final int VALUATION_LIMIT = (1 << 12);
+
+    private final int base;
+    private final int shift;
+    private int[] digits;
+    private int calculated;
+
+    LazyPAdic(final int base, final int shift) {
+        this.base = base;
+        this.shift = shift;
+        this.digits = new int[16];
+        this.calculated = 0;
+    }
+
+    /**
+     * Returns lazy representation of p-adic number.
+     * Digits that lie beyond precision of the number are taken to be zero.
+     * @param number p-adic number.
+     * @return lazy number that has the same digits.
+     */
+    public static LazyPAdic valueOf(final PAdic number) {
+        return new Digits(number);
+    }
+
+    /**
+     * Returns lazy p-adic number that represents integer value exactly.
+     * @param value integer value in base 10.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     * @return lazy number that is equal to the value.
+     */
+    public static LazyPAdic valueOf(final BigInteger value, final int base) {
+        PAdic.checkForPrime(base);
+
+        final LazyPAdic absolute = new Natural(value.abs(), base);
+
+        return value.signum() < 0 ? absolute.negative() : absolute;
+    }
+
+    /**
+     * Returns lazy p-adic number that represents rational fraction exactly.
+     * @param numerator numerator of the fraction in base 10. Must be integer value.
+     * @param denominator denominator of the fracture in base 10. Must be non-zero.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     * @return lazy number that is equal to the fraction.
+     */
+    public static LazyPAdic valueOf(final BigInteger numerator, final BigInteger denominator, final int base) {
+        final BigInteger gcd = numerator.gcd(denominator);
+        final BigInteger actualNumerator = gcd.signum() == 0 ? numerator : numerator.divide(gcd);
+        final BigInteger actualDenominator = gcd.signum() == 0 ? denominator : denominator.divide(gcd);
+
+        return valueOf(actualNumerator, base).divide(valueOf(actualDenominator, base));
+    }
+
+    /**
+     * Returns value that gives zero in addition with this number.
+     * @return lazy number that is opposite to this one.
+     */
+    public LazyPAdic negative() {
+        return new Difference(new Natural(BigInteger.ZERO, base), this);
+    }
+
+    /**
+     * Returns lazy sum of this number and <code>added</code>.
+     * @param added lazy p-adic number to be added.
+     * @return lazy number that is result of sum.
+     */
+    public LazyPAdic add(final LazyPAdic added) {
+        LazyPAdic.checkForBaseEquality(this, added);
+        return new Sum(this, added);
+    }
+
+    /**
+     * Returns lazy difference of this number and <code>subtracted</code>.
+     * @param subtracted lazy p-adic number to be subtracted.
+     * @return lazy number that is result of subtraction.
+     */
+    public LazyPAdic subtract(final LazyPAdic subtracted) {
+        LazyPAdic.checkForBaseEquality(this, subtracted);
+        return new Difference(this, subtracted);
+    }
+
+    /**
+     * Returns lazy product of this number and <code>multiplier</code>.
+     * @param multiplier lazy p-adic number to multiply this number by.
+     * @return lazy number that is result of multiplication.
+     */
+    public LazyPAdic multiply(final LazyPAdic multiplier) {
+        LazyPAdic.checkForBaseEquality(this, multiplier);
+        return new Product(this, multiplier);
+    }
+
+    /**
+     * Returns lazy quotient of this number and <code>divisor</code>.
+     * Order of the divisor is found as soon as the quotient is used in another operation or its digits are requested.
+     * If first {@link #VALUATION_LIMIT} digits of the divisor are zero, the divisor is considered to be zero
+     * and the request fails.
+     * @param divisor lazy p-adic number to divide this number by.
+     * @return lazy number that is result of division.
+     */
+    public LazyPAdic divide(final LazyPAdic divisor) {
+        LazyPAdic.checkForBaseEquality(this, divisor);
+        return new Quotient(this, divisor);
+    }
+
+    /**
+     * Returns base of the number.
+     * @return base of the number.
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Returns digit that stands at <i>p</i> in power <code>position</code>.
+     * Only the digits that precede requested one and have not been requested before are calculated.
+     * @param position power of <i>p</i> the digit stands at.
+     * @return digit at the position.
+     */
+    public int getDigit(final int position) {
+        return position < this.getShift() ? 0 : digit(position - this.getShift());
+    }
+
+    /**
+     * Returns p-adic number that has the same digits as this lazy number.
+     * @param precision number of digits to calculate, starting from the order of the number.
+     * @return p-adic number of given precision.
+     */
+    public PAdic toPAdic(final int precision) {
+        int order = this.getShift();
+
+        while (order < precision && this.getDigit(order) == 0) {
+            ++order;
+        }
+
+        if (order == precision) {
+            return new PAdic(new int[] {0}, 0, base, precision);
+        }
+
+        final int start = Math.min(order, 0);
+        final int[] sequence = new int[precision];
+
+        for (int i = 0; i < precision; ++i) {
+            sequence[i] = this.getDigit(start + i);
+        }
+
+        return new PAdic(sequence, order, base, precision);
+    }
+
+    /**
+     * Returns string representation of the number with {@link PAdic#DEFAULT_PRECISION} digits.
+     */
+    @Override
+    public String toString() {
+        return toPAdic(PAdic.DEFAULT_PRECISION).toString();
+    }
+
+    // Power of p that the digit with index 0 stands at.
+    int getShift() {
+        return shift;
+    }
+
+    // Number of digits calculated so far.
+    synchronized int getCalculated() {
+        return calculated;
+    }
+
+    synchronized int digit(final int index) {
+        while (calculated <= index) {
+            if (calculated == digits.length) {
+                digits = Arrays.copyOf(digits, digits.length << 1);
+            }
+
+            digits[calculated] = calculate(calculated);
+            ++calculated;
+        }
+
+        return digits[index];
+    }
+
+    /**
+     * Calculates digit with given index.
+     * Digits are calculated one by one starting from index 0, so implementations may keep carries between calls.
+     */
+    abstract int calculate(final int index);
+
+    private static void checkForBaseEquality(final LazyPAdic first, final LazyPAdic second) {
+        if (first.base != second.base) {
+            throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+        }
+    }
+
+    private static final class Digits extends LazyPAdic {
+
+        private final PAdic number;
+
+        Digits(final PAdic number) {
+            super(number.getBase(), Math.min(number.getOrder(), 0));
+            this.number = number;
+        }
+
+        @Override
+        int calculate(final int index) {
+            return index < number.getPrecision() ? number.getDigit(index + this.getShift()) : 0;
+        }
+    }
+
+    private static final class Natural extends LazyPAdic {
+
+        private final BigInteger bigBase;
+        private BigInteger rest;
+
+        Natural(final BigInteger value, final int base) {
+            super(base, 0);
+            this.bigBase = BigInteger.valueOf(base);
+            this.rest = value;
+        }
+
+        @Override
+        int calculate(final int index) {
+            if (rest.signum() == 0) {
+                return 0;
+            }
+
+            final BigInteger[] quotientAndRemainder = rest.divideAndRemainder(bigBase);
+            rest = quotientAndRemainder[0];
+
+            return quotientAndRemainder[1].intValue();
+        }
+    }
+
+    private static final class Sum extends LazyPAdic {
+
+        private final LazyPAdic first;
+        private final LazyPAdic second;
+        private int toNext;
+
+        Sum(final LazyPAdic first, final LazyPAdic second) {
+            super(first.getBase(), Math.min(first.getShift(), second.getShift()));
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        int calculate(final int index) {
+            final int position = index + this.getShift();
+            final int next = first.getDigit(position) + second.getDigit(position) + toNext;
+            toNext = next / this.getBase();
+
+            return next % this.getBase();
+        }
+    }
+
+    private static final class Difference extends LazyPAdic {
+
+        private final LazyPAdic first;
+        private final LazyPAdic second;
+        private int borrowed;
+
+        Difference(final LazyPAdic first, final LazyPAdic second) {
+            super(first.getBase(), Math.min(first.getShift(), second.getShift()));
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        int calculate(final int index) {
+            final int position = index + this.getShift();
+            int next = first.getDigit(position) - second.getDigit(position) - borrowed;
+            borrowed = 0;
+
+            if (next < 0) {
+                next += this.getBase();
+                borrowed = 1;
+            }
+
+            return next;
+        }
+    }
+
+    private static final class Product extends LazyPAdic {
+
+        private final LazyPAdic first;
+        private final LazyPAdic second;
+        private long toNext;
+
+        Product(final LazyPAdic first, final LazyPAdic second) {
+            super(first.getBase(), first.getShift() + second.getShift());
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        int calculate(final int index) {
+            long next = toNext;
+
+            for (int i = 0; i <= index; ++i) {
+                next += (long) first.digit(i) * second.digit(index - i);
+            }
+
+            toNext = next / this.getBase();
+
+            return (int) (next - toNext * this.getBase());
+        }
+    }
+
+    private static final class Quotient extends LazyPAdic {
+
+        private final LazyPAdic dividend;
+        private final LazyPAdic divisor;
+        private int valuation = -1;
+        private int inverse;
+        private long toNext;
+
+        Quotient(final LazyPAdic dividend, final LazyPAdic divisor) {
+            super(dividend.getBase(), dividend.getShift() - divisor.getShift());
+            this.dividend = dividend;
+            this.divisor = divisor;
+        }
+
+        @Override
+        int getShift() {
+            return super.getShift() - valuation();
+        }
+
+        // Number of leading zero digits of the divisor.
+        private synchronized int valuation() {
+            if (valuation == -1) {
+                int pos = 0;
+
+                while (pos < VALUATION_LIMIT && divisor.digit(pos) == 0) {
+                    ++pos;
+                }
+
+                if (pos == VALUATION_LIMIT) {
+                    throw new RuntimeException("Division by zero: first " + VALUATION_LIMIT + " digits of the divisor are zero.");
+                }
+
+                valuation = pos;
+                inverse = PAdicContext.cached(this.getBase()).inverses()[divisor.digit(pos)];
+            }
+
+            return valuation;
+        }
+
+        // Digits of quotient q are chosen so that digits of divisor * q coincide with digits of dividend.
+        // Column sum of the product without its last term is accumulated in next,
+        // so the last term is defined by the dividend digit.
+        @Override
+        int calculate(final int index) {
+            final int base = this.getBase();
+            final int valuation = valuation();
+            long next = toNext;
+
+            for (int i = 1; i <= index; ++i) {
+                next += (long) divisor.digit(valuation + i) * this.digit(index - i);
+            }
+
+            final int required = dividend.digit(index);
+            final int digit = (int) (((required - next % base + base) % base) * inverse % base);
+
+            next += (long) divisor.digit(valuation) * digit;
+            toNext = (next - required) / base;
+
+            return digit;
+        }
+    }
+}
@@ -0,0 +1,490 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Limb-packed p-adic digits.
+ * Every <code>long</code> limb holds k consecutive base-p digits as a number below p^k, lowest digit first,
+ * where k is the largest power for which sum of two limbs still fits into a <code>long</code>.
+ * Sequence of <code>len</code> digits takes <code>ceil(len / k)</code> limbs and the last limb holds the rest.
+ * Addition and subtraction carry whole limbs, so they need one comparison per k digits instead of
+ * a division and a remainder per digit.
+ * Base 2 uses all 64 bits of a limb and is delegated to {@link TwoAdic}.
+ */
+final class Limbs {
+
+    static final long LIMB_BOUND = 1L << 62;
+    // Number of limbs below which conversion to and from BigInteger goes limb by limb.
+    private static final int CONVERSION_THRESHOLD = (1 << 4);
+
+    private Limbs() {
+    }
+
+    /**
+     * Returns number of digits that one limb holds for given base.
+     */
+    static int digitsPerLimb(final int base) {
+        if (base == 2) {
+            return TwoAdic.WORD_SIZE;
+        }
+
+        return powers(base).length - 1;
+    }
+
+    /**
+     * Returns number of limbs that <code>len</code> digits take.
+     */
+    static int limbCount(final int len, final int base) {
+        final int k = Limbs.digitsPerLimb(base);
+
+        return (len + k - 1) / k;
+    }
+
+    /**
+     * Packs <code>len</code> lowest digits into new array of limbs.
+     */
+    static long[] pack(final int[] digits, final int base, final int len) {
+        if (base == 2) {
+            return TwoAdic.pack(digits, len);
+        }
+
+        final int k = Limbs.digitsPerLimb(base);
+        final long[] limbs = new long[(len + k - 1) / k];
+
+        for (int l = 0; l < limbs.length; ++l) {
+            final int from = l * k;
+            long limb = 0;
+
+            for (int i = Math.min(from + k, len) - 1; i >= from; --i) {
+                limb = limb * base + digits[i];
+            }
+
+            limbs[l] = limb;
+        }
+
+        return limbs;
+    }
+
+    /**
+     * Writes <code>len</code> lowest digits of limbs into <code>digits</code>.
+     */
+    static void unpack(final long[] limbs, final int base, final int len, final int[] digits) {
+        if (base == 2) {
+            TwoAdic.unpack(limbs, len, digits);
+            return;
+        }
+
+        final int k = Limbs.digitsPerLimb(base);
+
+        for (int l = 0, from = 0; from < len; ++l, from += k) {
+            long limb = limbs[l];
+
+            for (int i = from; i < from + k && i < len; ++i) {
+                final long next = limb / base;
+                digits[i] = (int) (limb - next * base);
+                limb = next;
+            }
+        }
+    }
+
+    /**
+     * Returns limbs of <code>len</code> lowest digits of non-negative integer.
+     */
+    static long[] fromBigInteger(final BigInteger value, final int base, final int len) {
+        if (base == 2) {
+            return TwoAdic.fromBigInteger(value, len);
+        }
+
+        final PAdicContext context = PAdicContext.cached(base);
+        final long[] powers = context.limbPowers();
+        final int k = powers.length - 1;
+        final long[] limbs = new long[(len + k - 1) / k];
+
+        Limbs.split(value, context, limbs, 0, limbs.length);
+
+        limbs[limbs.length - 1] %= powers[len - (limbs.length - 1) * k];
+
+        return limbs;
+    }
+
+    /**
+     * Returns non-negative integer whose digits are <code>len</code> lowest digits of limbs.
+     */
+    static BigInteger toBigInteger(final long[] limbs, final int base, final int len) {
+        if (base == 2) {
+            return TwoAdic.toBigInteger(limbs, len);
+        }
+
+        final PAdicContext context = PAdicContext.cached(base);
+        final long[] powers = context.limbPowers();
+        final int k = powers.length - 1;
+        final int top = (len - 1) / k;
+        final long[] lowest = Arrays.copyOf(limbs, top + 1);
+        lowest[top] %= powers[len - top * k];
+
+        return Limbs.join(lowest, context, 0, top + 1);
+    }
+
+    // Writes count lowest limbs of the value into limbs[from, from + count).
+    // Value is split by the largest square R^(2^j) of the limb radix R below R^count,
+    // so conversion costs a few large divisions instead of a division per limb.
+    private static void split(final BigInteger value, final PAdicContext context, final long[] limbs, final int from, final int count) {
+        if (count <= CONVERSION_THRESHOLD) {
+            final BigInteger radix = context.limbRadixSquare(0);
+            BigInteger current = value;
+
+            for (int l = from; l < from + count && current.signum() != 0; ++l) {
+                final BigInteger[] quotientAndRemainder = current.divideAndRemainder(radix);
+                limbs[l] = quotientAndRemainder[1].longValue();
+                current = quotientAndRemainder[0];
+            }
+
+            return;
+        }
+
+        final int j = 31 - Integer.numberOfLeadingZeros(count - 1);
+        final int half = 1 << j;
+        final BigInteger[] quotientAndRemainder = value.divideAndRemainder(context.limbRadixSquare(j));
+
+        Limbs.split(quotientAndRemainder[1], context, limbs, from, half);
+
+        if (quotientAndRemainder[0].signum() != 0) {
+            Limbs.split(quotientAndRemainder[0], context, limbs, from + half, count - half);
+        }
+    }
+
+    // Returns integer whose limbs in base R are limbs[from, from + count), the inverse of split.
+    private static BigInteger join(final long[] limbs, final PAdicContext context, final int from, final int count) {
+        if (count <= CONVERSION_THRESHOLD) {
+            final BigInteger radix = context.limbRadixSquare(0);
+            BigInteger result = BigInteger.valueOf(limbs[from + count - 1]);
+
+            for (int l = from + count - 2; l >= from; --l) {
+                result = result.multiply(radix).add(BigInteger.valueOf(limbs[l]));
+            }
+
+            return result;
+        }
+
+        final int j = 31 - Integer.numberOfLeadingZeros(count - 1);
+        final int half = 1 << j;
+        final BigInteger high = Limbs.join(limbs, context, from + half, count - half);
+
+        return high.multiply(context.limbRadixSquare(j)).add(Limbs.join(limbs, context, from, half));
+    }
+
+    /**
+     * Returns digit at given index.
+     */
+    static int digit(final long[] limbs, final int base, final int index) {
+        if (base == 2) {
+            return TwoAdic.digit(limbs, index);
+        }
+
+        final long[] powers = Limbs.powers(base);
+        final int k = powers.length - 1;
+
+        return (int) (limbs[index / k] / powers[index % k] % base);
+    }
+
+    /**
+     * Returns number of lowest zero digits among <code>len</code> lowest digits.
+     * Limbs must hold exactly <code>len</code> digits.
+     */
+    static int valuation(final long[] limbs, final int base, final int len) {
+        if (base == 2) {
+            return TwoAdic.valuation(limbs, len);
+        }
+
+        final int k = Limbs.digitsPerLimb(base);
+        final int count = (len + k - 1) / k;
+        int l = 0;
+
+        while (l < count && limbs[l] == 0) {
+            ++l;
+        }
+
+        if (l == count) {
+            return len;
+        }
+
+        long limb = limbs[l];
+        int valuation = l * k;
+
+        while (limb % base == 0) {
+            limb /= base;
+            ++valuation;
+        }
+
+        return valuation;
+    }
+
+    /**
+     * Returns copy of limbs that holds exactly <code>len</code> lowest digits.
+     */
+    static long[] truncate(final long[] limbs, final int base, final int len) {
+        final long[] result = Arrays.copyOf(limbs, Limbs.limbCount(len, base));
+
+        if (base == 2) {
+            result[result.length - 1] &= TwoAdic.topMask(len);
+        } else {
+            final long[] powers = Limbs.powers(base);
+            result[result.length - 1] %= powers[len - (result.length - 1) * (powers.length - 1)];
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes (first + second) mod p^len into <code>result</code>.
+     * Operands may hold more than <code>len</code> digits, result holds exactly <code>len</code> digits.
+     * Result may be the same array as any of the operands.
+     */
+    static void add(final long[] first, final long[] second, final int base, final int len, final long[] result) {
+        if (base == 2) {
+            TwoAdic.add(first, second, len, result);
+            return;
+        }
+
+        final long[] powers = Limbs.powers(base);
+        final int k = powers.length - 1;
+        final int top = (len - 1) / k;
+        final long modulus = powers[k];
+        long carry = 0;
+
+        for (int l = 0; l < top; ++l) {
+            long next = first[l] + second[l] + carry;
+            carry = 0;
+
+            if (next >= modulus) {
+                next -= modulus;
+                carry = 1;
+            }
+
+            result[l] = next;
+        }
+
+        final long topModulus = powers[len - top * k];
+        result[top] = (first[top] % topModulus + second[top] % topModulus + carry) % topModulus;
+    }
+
+    /**
+     * Writes (first - second) mod p^len into <code>result</code>.
+     * Operands may hold more than <code>len</code> digits, result holds exactly <code>len</code> digits.
+     * Result may be the same array as any of the operands.
+     */
+    static void subtract(final long[] first, final long[] second, final int base, final int len, final long[] result) {
+        if (base == 2) {
+            TwoAdic.subtract(first, second, len, result);
+            return;
+        }
+
+        final long[] powers = Limbs.powers(base);
+        final int k = powers.length - 1;
+        final int top = (len - 1) / k;
+        final long modulus = powers[k];
+        long borrowed = 0;
+
+        for (int l = 0; l < top; ++l) {
+            long next = first[l] - second[l] - borrowed;
+            borrowed = 0;
+
+            if (next < 0) {
+                next += modulus;
+                borrowed = 1;
+            }
+
+            result[l] = next;
+        }
+
+        final long topModulus = powers[len - top * k];
+        long next = first[top] % topModulus - second[top] % topModulus - borrowed;
+
+        if (next < 0) {
+            next += topModulus;
+        }
+
+        result[top] = next;
+    }
+
+    /**
+     * Writes (x * p^count) mod p^len into <code>result</code>.
+     * Source may hold more than <code>len</code> digits, result holds exactly <code>len</code> digits.
+     * Result may be the same array as the source.
+     */
+    static void shiftUp(final long[] limbs, final int base, final int len, final int count, final long[] result) {
+        if (base == 2) {
+            TwoAdic.shiftUp(limbs, len, count, result);
+            return;
+        }
+
+        final long[] powers = Limbs.powers(base);
+        final int k = powers.length - 1;
+        final int top = (len - 1) / k;
+        final int wholeLimbs = count / k;
+        final int rest = count % k;
+
+        for (int l = top; l >= 0; --l) {
+            final int from = l - wholeLimbs;
+            long limb = 0;
+
+            if (from >= 0) {
+                limb = limbs[from] % powers[k - rest] * powers[rest];
+            }
+
+            if (from > 0 && rest > 0) {
+                limb += limbs[from - 1] / powers[k - rest];
+            }
+
+            result[l] = limb;
+        }
+
+        result[top] %= powers[len - top * k];
+    }
+
+    /**
+     * Writes x / p^count, i.e. <code>len</code> digits of x without <code>count</code> lowest ones, into <code>result</code>.
+     * Highest <code>count</code> digits of the result become zero.
+     * Limbs must hold exactly <code>len</code> digits. Result may be the same array as the source.
+     */
+    static void shiftDown(final long[] limbs, final int base, final int len, final int count, final long[] result) {
+        if (base == 2) {
+            TwoAdic.shiftDown(limbs, len, count, result);
+            return;
+        }
+
+        final long[] powers = Limbs.powers(base);
+        final int k = powers.length - 1;
+        final int limbCount = (len + k - 1) / k;
+        final int wholeLimbs = count / k;
+        final int rest = count % k;
+
+        for (int l = 0; l < limbCount; ++l) {
+            final int from = l + wholeLimbs;
+            long limb = 0;
+
+            if (from < limbCount) {
+                limb = limbs[from] / powers[rest];
+            }
+
+            if (from + 1 < limbCount && rest > 0) {
+                limb += limbs[from + 1] % powers[rest] * powers[k - rest];
+            }
+
+            result[l] = limb;
+        }
+    }
+
+    /**
+     * Writes (-x) mod p^len into <code>result</code>.
+     * Limbs must hold exactly <code>len</code> digits. Result may be the same array as the source.
+     */
+    static void negate(final long[] limbs, final int base, final int len, final long[] result) {
+        if (base == 2) {
+            TwoAdic.negate(limbs, len, result);
+            return;
+        }
+
+        final long[] powers = Limbs.powers(base);
+        final int k = powers.length - 1;
+        final int limbCount = (len + k - 1) / k;
+        long borrowed = 0;
+
+        for (int l = 0; l < limbCount; ++l) {
+            final long modulus = l == limbCount - 1 ? powers[len - l * k] : powers[k];
+            long next = -limbs[l] - borrowed;
+            borrowed = 0;
+
+            if (next < 0) {
+                next += modulus;
+                borrowed = 1;
+            }
+
+            result[l] = next;
+        }
+    }
+
+    /**
+     * Checks whether <code>count</code> lowest digits of two limb sequences are equal.
+     */
+    static boolean equal(final long[] first, final long[] second, final int base, final int count) {
+        if (base == 2) {
+            return TwoAdic.equal(first, second, count);
+        }
+
+        final long[] powers = Limbs.powers(base);
+        final int k = powers.length - 1;
+        final int wholeLimbs = count / k;
+
+        for (int l = 0; l < wholeLimbs; ++l) {
+            if (first[l] != second[l]) {
+                return false;
+            }
+        }
+
+        final int rest = count % k;
+
+        return rest == 0 || first[wholeLimbs] % powers[rest] == second[wholeLimbs] % powers[rest];
+    }
+
+    /**
+     * Returns hash code of <code>count</code> lowest digits, consistent with {@link #equal(long[], long[], int, int)}.
+     */
+    static int hash(final long[] limbs, final int base, final int count) {
+        if (base == 2) {
+            return TwoAdic.hash(limbs, count);
+        }
+
+        final long[] powers = Limbs.powers(base);
+        final int k = powers.length - 1;
+        final int wholeLimbs = count / k;
+        final int prime = 31;
+        int hash = 0;
+
+        for (int l = 0; l < wholeLimbs; ++l) {
+            hash = hash * prime + (int) (limbs[l] ^ (limbs[l] >>> 32));
+        }
+
+        final int rest = count % k;
+
+        if (rest > 0) {
+            final long limb = limbs[wholeLimbs] % powers[rest];
+            hash = hash * prime + (int) (limb ^ (limb >>> 32));
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns powers p^0, p^1, ..., p^k, where k is number of digits per limb.
+     * Table is kept by the context of the base.
+     */
+    static long[] powers(final int base) {
+        return PAdicContext.cached(base).limbPowers();
+    }
+}
@@ -0,0 +1,521 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.util.Arrays;
+
+/**
+ * Multiplication of p-adic digit sequences modulo p^len.
+ * Digits of the operands are multiplied as polynomials, so column sums are accumulated without carries
+ * and normalized to base p in a single pass at the end.
+ * Small bases pack several digits into one column of radix p^s first (see {@link #digitsPerColumn(int)}),
+ * which divides the number of column products by s^2.
+ * The polynomial product is computed with one of three algorithms chosen by the precision:
+ * truncated schoolbook for short sequences, Karatsuba for medium ones and number-theoretic transform for long ones.
+ * Every algorithm works inside a caller-provided workspace of {@link #workspaceSize(int)} longs,
+ * so repeated multiplications can reuse the same memory.
+ */
+final class Multiplication {
+
+    static final int KARATSUBA_THRESHOLD = 96;
+    static final int CONVOLUTION_THRESHOLD = 1 << 11;
+
+    private static final int KARATSUBA_BASE_CASE = 1 << 5;
+    private static final long PACKED_RADIX_BOUND = 1L << 20;
+
+    // Two NTT-friendly primes. Their product exceeds len * (p - 1)^2 for every base below 2^16
+    // and every length the transform supports, so column sums are restored exactly by CRT.
+    private static final long FIRST_MODULUS = 998244353L;
+    private static final long SECOND_MODULUS = 469762049L;
+    private static final long ROOT = 3L;
+    private static final int MAX_TRANSFORM_SIZE = 1 << 23;
+    private static final long FIRST_INVERSE_MODULO_SECOND = power(FIRST_MODULUS % SECOND_MODULUS, SECOND_MODULUS - 2, SECOND_MODULUS);
+
+    private Multiplication() {
+    }
+
+    /**
+     * Returns product of two digit sequences modulo p^len.
+     * @param first digits of the first operand, lowest digit first. At least <code>len</code> digits are required.
+     * @param second digits of the second operand, lowest digit first. At least <code>len</code> digits are required.
+     * @param base base of the digits.
+     * @param len number of digits in the result.
+     * @return <code>len</code> lowest digits of the product.
+     */
+    static int[] multiply(final int[] first, final int[] second, final int base, final int len) {
+        final int[] result = new int[len];
+        multiply(first, second, base, len, new long[workspaceSize(len)], result);
+
+        return result;
+    }
+
+    /**
+     * Writes product of two digit sequences modulo p^len into <code>result</code>.
+     * Result may be the same array as any of the operands.
+     * @param workspace scratch memory of at least {@link #workspaceSize(int)} longs.
+     */
+    static void multiply(final int[] first, final int[] second, final int base, final int len,
+                         final long[] workspace, final int[] result) {
+        final int digitsPerColumn = columnDigits(base, len);
+
+        productColumns(first, second, base, len, digitsPerColumn, workspace);
+        normalize(workspace, base, len, digitsPerColumn, result);
+    }
+
+    /**
+     * Returns number of digits in one column of the product of sequences of given length:
+     * {@link #digitsPerColumn(int)} when operands are packed, 1 otherwise.
+     */
+    static int columnDigits(final int base, final int len) {
+        final int digitsPerColumn = digitsPerColumn(base);
+
+        return digitsPerColumn > 1 && columnCount(len, digitsPerColumn) < CONVOLUTION_THRESHOLD ? digitsPerColumn : 1;
+    }
+
+    /**
+     * Returns number of columns that hold <code>len</code> digits.
+     */
+    static int columnCount(final int len, final int digitsPerColumn) {
+        return (len + digitsPerColumn - 1) / digitsPerColumn;
+    }
+
+    /**
+     * Returns radix of columns that hold given number of digits, i.e. p^digitsPerColumn.
+     */
+    static long columnRadix(final int base, final int digitsPerColumn) {
+        long radix = 1;
+
+        for (int t = 0; t < digitsPerColumn; ++t) {
+            radix *= base;
+        }
+
+        return radix;
+    }
+
+    /**
+     * Writes lowest columns of the polynomial product of two digit sequences to the beginning of the workspace
+     * without propagating carries. There are {@link #columnCount(int, int)} columns of radix
+     * p^digitsPerColumn, and each of them is less than their count multiplied by (radix - 1)^2.
+     * @param digitsPerColumn number of digits in one column, {@link #columnDigits(int, int)}.
+     * @param workspace scratch memory of at least {@link #workspaceSize(int)} longs.
+     */
+    static void productColumns(final int[] first, final int[] second, final int base, final int len,
+                               final int digitsPerColumn, final long[] workspace) {
+        if (digitsPerColumn > 1) {
+            packedProduct(first, second, base, len, digitsPerColumn, workspace);
+        } else if (len < KARATSUBA_THRESHOLD) {
+            schoolbook(first, second, len, workspace);
+        } else if (!useConvolution(len)) {
+            karatsuba(first, second, len, workspace);
+        } else {
+            convolution(first, second, len, workspace);
+        }
+    }
+
+    /**
+     * Returns number of longs that multiplication of sequences of given length needs as workspace.
+     */
+    static int workspaceSize(final int len) {
+        // Packed operands take at most half as many columns as digits, see packedProduct.
+        final int columns = (len + 1) / 2;
+        final int packed = columns < KARATSUBA_THRESHOLD ? 3 * columns : 4 * columns + karatsubaWorkspaceSize(columns);
+
+        return Math.max(digitsWorkspaceSize(len), packed);
+    }
+
+    private static int digitsWorkspaceSize(final int len) {
+        if (len < KARATSUBA_THRESHOLD) {
+            return len;
+        }
+
+        if (!useConvolution(len)) {
+            return 4 * len + karatsubaWorkspaceSize(len);
+        }
+
+        final int size = transformSize(len);
+
+        return len + 3 * size + size / 2;
+    }
+
+    /**
+     * Propagates carries through column sums.
+     * Writes <code>len</code> lowest digits of the number that columns represent into <code>result</code>.
+     */
+    static void normalize(final long[] columns, final int base, final int len, final int[] result) {
+        long carry = 0;
+
+        for (int i = 0; i < len; ++i) {
+            final long next = columns[i] + carry;
+            carry = next / base;
+            result[i] = (int) (next - carry * base);
+        }
+    }
+
+    /**
+     * Propagates carries through sums of columns of radix p^digitsPerColumn.
+     * Writes <code>len</code> lowest digits of the number that columns represent into <code>result</code>.
+     */
+    static void normalize(final long[] columns, final int base, final int len, final int digitsPerColumn, final int[] result) {
+        if (digitsPerColumn == 1) {
+            normalize(columns, base, len, result);
+
+            return;
+        }
+
+        final long radix = columnRadix(base, digitsPerColumn);
+        final int n = columnCount(len, digitsPerColumn);
+        long carry = 0;
+
+        for (int i = 0; i < n; ++i) {
+            final long next = columns[i] + carry;
+            carry = next / radix;
+            long column = next - carry * radix;
+
+            for (int t = 0, index = i * digitsPerColumn; t < digitsPerColumn && index < len; ++t, ++index) {
+                final long quotient = column / base;
+                result[index] = (int) (column - quotient * base);
+                column = quotient;
+            }
+        }
+    }
+
+    /**
+     * Propagates carries through first <code>n</code> column sums in place, so that every column becomes less than
+     * <code>radix</code>. Carry out of the last column is dropped.
+     */
+    static void carry(final long[] columns, final long radix, final int n) {
+        long carry = 0;
+
+        for (int i = 0; i < n; ++i) {
+            final long next = columns[i] + carry;
+            carry = next / radix;
+            columns[i] = next - carry * radix;
+        }
+    }
+
+    /**
+     * Returns number of digits that one column of a packed product holds, i.e. the largest s such that p^s &lt;= 2^20.
+     * Column sums of products of such columns stay below 2^63 in schoolbook and Karatsuba algorithms
+     * for fewer than {@link #CONVOLUTION_THRESHOLD} columns, so they are normalized only once at the end.
+     */
+    static int digitsPerColumn(final int base) {
+        int count = 0;
+
+        for (long radix = base; radix <= PACKED_RADIX_BOUND; radix *= base) {
+            ++count;
+        }
+
+        return Math.max(count, 1);
+    }
+
+    // Multiplies digits packed by s = digitsPerColumn into columns of radix p^s, so that s^2 digit products take one.
+    // Layout: product columns [0, 2 n), first operand [2 n, 3 n), second operand [3 n, 4 n), recursion,
+    // schoolbook needs product columns [0, n) and operands [n, 2 n), [2 n, 3 n) only.
+    private static void packedProduct(final int[] first, final int[] second, final int base, final int len,
+                                      final int digitsPerColumn, final long[] workspace) {
+        final int n = columnCount(len, digitsPerColumn);
+        final boolean schoolbook = n < KARATSUBA_THRESHOLD;
+        final int firstFrom = schoolbook ? n : 2 * n;
+        final int secondFrom = firstFrom + n;
+
+        pack(first, base, len, digitsPerColumn, workspace, firstFrom);
+        pack(second, base, len, digitsPerColumn, workspace, secondFrom);
+        Arrays.fill(workspace, 0, firstFrom, 0);
+
+        if (schoolbook) {
+            for (int i = 0; i < n; ++i) {
+                final long column = workspace[firstFrom + i];
+
+                if (column == 0) {
+                    continue;
+                }
+
+                for (int j = 0; i + j < n; ++j) {
+                    workspace[i + j] += column * workspace[secondFrom + j];
+                }
+            }
+        } else {
+            karatsuba(workspace, firstFrom, secondFrom, n, 0, 4 * n);
+        }
+    }
+
+    // Writes columnCount(len, digitsPerColumn) columns of radix p^s built from len digits into w starting from from.
+    private static void pack(final int[] digits, final int base, final int len, final int digitsPerColumn,
+                     final long[] w, final int from) {
+        final int n = columnCount(len, digitsPerColumn);
+
+        for (int i = 0; i < n; ++i) {
+            final int low = i * digitsPerColumn;
+            long column = 0;
+
+            for (int index = Math.min(low + digitsPerColumn, len) - 1; index >= low; --index) {
+                column = column * base + digits[index];
+            }
+
+            w[from + i] = column;
+        }
+    }
+
+    /**
+     * Writes <code>len</code> lowest columns of the polynomial product computed by definition
+     * to the beginning of the workspace.
+     */
+    static void schoolbook(final int[] first, final int[] second, final int len, final long[] workspace) {
+        Arrays.fill(workspace, 0, len, 0);
+
+        for (int i = 0; i < len; ++i) {
+            final long digit = first[i];
+
+            if (digit == 0) {
+                continue;
+            }
+
+            for (int j = 0; i + j < len; ++j) {
+                workspace[i + j] += digit * second[j];
+            }
+        }
+    }
+
+    /**
+     * Writes <code>len</code> lowest columns of the polynomial product computed by Karatsuba algorithm
+     * to the beginning of the workspace.
+     */
+    static void karatsuba(final int[] first, final int[] second, final int len, final long[] workspace) {
+        // Layout: product columns [0, 2 len), first operand [2 len, 3 len), second operand [3 len, 4 len), recursion.
+        final int firstFrom = 2 * len;
+        final int secondFrom = 3 * len;
+
+        Arrays.fill(workspace, 0, firstFrom, 0);
+
+        for (int i = 0; i < len; ++i) {
+            workspace[firstFrom + i] = first[i];
+            workspace[secondFrom + i] = second[i];
+        }
+
+        karatsuba(workspace, firstFrom, secondFrom, len, 0, 4 * len);
+    }
+
+    // Adds full product of w[aFrom, aFrom + n) and w[bFrom, bFrom + n) to w starting from resultFrom.
+    // Memory starting from workFrom is used for intermediate products.
+    private static void karatsuba(final long[] w, final int aFrom, final int bFrom, final int n,
+                                  final int resultFrom, final int workFrom) {
+        if (n <= KARATSUBA_BASE_CASE) {
+            for (int i = 0; i < n; ++i) {
+                final long digit = w[aFrom + i];
+
+                if (digit == 0) {
+                    continue;
+                }
+
+                for (int j = 0; j < n; ++j) {
+                    w[resultFrom + i + j] += digit * w[bFrom + j];
+                }
+            }
+
+            return;
+        }
+
+        final int low = n >> 1;
+        final int high = n - low;
+
+        final int lowProduct = workFrom;
+        final int highProduct = lowProduct + 2 * low;
+        final int aSum = highProduct + 2 * high;
+        final int bSum = aSum + high;
+        final int middle = bSum + high;
+        final int next = middle + 2 * high;
+
+        Arrays.fill(w, workFrom, next, 0);
+
+        // low * low and high * high parts.
+        karatsuba(w, aFrom, bFrom, low, lowProduct, next);
+        karatsuba(w, aFrom + low, bFrom + low, high, highProduct, next);
+
+        // (low + high) * (low + high) part.
+        for (int i = 0; i < high; ++i) {
+            w[aSum + i] = w[aFrom + low + i] + (i < low ? w[aFrom + i] : 0);
+            w[bSum + i] = w[bFrom + low + i] + (i < low ? w[bFrom + i] : 0);
+        }
+
+        karatsuba(w, aSum, bSum, high, middle, next);
+
+        for (int i = 0; i < 2 * low; ++i) {
+            w[middle + i] -= w[lowProduct + i];
+            w[resultFrom + i] += w[lowProduct + i];
+        }
+
+        for (int i = 0; i < 2 * high; ++i) {
+            w[middle + i] -= w[highProduct + i];
+            w[resultFrom + 2 * low + i] += w[highProduct + i];
+        }
+
+        for (int i = 0; i < 2 * high; ++i) {
+            w[resultFrom + low + i] += w[middle + i];
+        }
+    }
+
+    private static int karatsubaWorkspaceSize(final int n) {
+        if (n <= KARATSUBA_BASE_CASE) {
+            return 0;
+        }
+
+        final int high = n - (n >> 1);
+
+        return 2 * n + 4 * high + karatsubaWorkspaceSize(high);
+    }
+
+    /**
+     * Writes <code>len</code> lowest columns of the polynomial product computed by
+     * number-theoretic transforms modulo two primes and Chinese remainder theorem
+     * to the beginning of the workspace.
+     */
+    static void convolution(final int[] first, final int[] second, final int len, final long[] workspace) {
+        // Layout: columns [0, len), residues modulo the first prime, two transforms, roots of unity.
+        final int size = transformSize(len);
+        final int firstResidues = len;
+        final int secondResidues = firstResidues + size;
+        final int transform = secondResidues + size;
+        final int roots = transform + size;
+
+        convolution(first, second, len, size, FIRST_MODULUS, workspace, firstResidues, transform, roots);
+        convolution(first, second, len, size, SECOND_MODULUS, workspace, secondResidues, transform, roots);
+
+        for (int i = 0; i < len; ++i) {
+            final long r1 = workspace[firstResidues + i];
+            final long r2 = workspace[secondResidues + i];
+            long t = (r2 - r1 % SECOND_MODULUS) % SECOND_MODULUS;
+
+            if (t < 0) {
+                t += SECOND_MODULUS;
+            }
+
+            t = t * FIRST_INVERSE_MODULO_SECOND % SECOND_MODULUS;
+            workspace[i] = r1 + FIRST_MODULUS * t;
+        }
+    }
+
+    private static void convolution(final int[] first, final int[] second, final int len, final int size, final long modulus,
+                                    final long[] w, final int a, final int b, final int roots) {
+        Arrays.fill(w, a + len, a + size, 0);
+        Arrays.fill(w, b + len, b + size, 0);
+
+        for (int i = 0; i < len; ++i) {
+            w[a + i] = first[i];
+            w[b + i] = second[i];
+        }
+
+        transform(w, a, size, false, modulus, roots);
+        transform(w, b, size, false, modulus, roots);
+
+        for (int i = 0; i < size; ++i) {
+            w[a + i] = w[a + i] * w[b + i] % modulus;
+        }
+
+        transform(w, a, size, true, modulus, roots);
+    }
+
+    private static void transform(final long[] w, final int from, final int n, final boolean inverse, final long modulus,
+                                  final int roots) {
+        for (int i = 1, j = 0; i < n; ++i) {
+            int bit = n >> 1;
+
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+
+            j ^= bit;
+
+            if (i < j) {
+                final long tmp = w[from + i];
+                w[from + i] = w[from + j];
+                w[from + j] = tmp;
+            }
+        }
+
+        for (int length = 2; length <= n; length <<= 1) {
+            long root = power(ROOT, (modulus - 1) / length, modulus);
+
+            if (inverse) {
+                root = power(root, modulus - 2, modulus);
+            }
+
+            final int half = length >> 1;
+            w[roots] = 1;
+
+            for (int i = 1; i < half; ++i) {
+                w[roots + i] = w[roots + i - 1] * root % modulus;
+            }
+
+            for (int i = from; i < from + n; i += length) {
+                for (int j = 0; j < half; ++j) {
+                    final long u = w[i + j];
+                    final long v = w[i + j + half] * w[roots + j] % modulus;
+                    final long sum = u + v;
+                    final long difference = u - v;
+                    w[i + j] = sum >= modulus ? sum - modulus : sum;
+                    w[i + j + half] = difference < 0 ? difference + modulus : difference;
+                }
+            }
+        }
+
+        if (inverse) {
+            final long scale = power(n, modulus - 2, modulus);
+
+            for (int i = from; i < from + n; ++i) {
+                w[i] = w[i] * scale % modulus;
+            }
+        }
+    }
+
+    private static boolean useConvolution(final int len) {
+        return len >= CONVOLUTION_THRESHOLD && 2 * len <= MAX_TRANSFORM_SIZE;
+    }
+
+    private static int transformSize(final int len) {
+        int size = 1;
+
+        while (size < 2 * len) {
+            size <<= 1;
+        }
+
+        return size;
+    }
+
+    private static long power(long value, long exponent, final long modulus) {
+        long result = 1;
+        value %= modulus;
+
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) {
+                result = result * value % modulus;
+            }
+
+            value = value * value % modulus;
+            exponent >>= 1;
+        }
+
+        return result;
+    }
+}
@@ -25,19 +25,31 @@ THE SOFTWARE.
 package vvk.numbers;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
-
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Immutable p-adic number with a finite number of digits.
+ * Operations never modify their operands, so instances may be shared between threads without locking.
+ * Digits are stored packed into <code>long</code> limbs, several digits per limb (see {@link Limbs}).
+ */
 public final class PAdic {
 
-    private static final int len;
-    private static final int limit;
+    /**
+     * Number of digits that p-adic number carries unless another precision is requested.
+     */
+    public static final int DEFAULT_PRECISION = (1 << 7);
+
     private static final boolean[] isPrime;
-    private static int precalculatedPrimes;
+    private static final int precalculatedPrimes;
     private final int base;
-    private final int digits[];
+    private final long[] limbs;
+    private final int precision;
     private final int order;
 
-    private static enum Operation {
+    static enum Operation {
         ADDITION,
         SUBTRACTION,
         MULTIPLICATION,
@@ -45,8 +57,6 @@ public final class PAdic {
     }
 
     static {
-        len = (1 << 7);
-        limit = (len / 3) << 1;
         precalculatedPrimes = (1 << 16);
         isPrime = new boolean[precalculatedPrimes];
         doEratostheneSieve();
@@ -59,37 +69,34 @@ public final class PAdic {
      *             Notice that base must be a prime number.
      */
     public PAdic(final BigInteger value, final int base) {
-        PAdic.checkForPrime(base);
-    
-        this.digits = new int[PAdic.len];
-        this.base = base;
-
-        final BigInteger bigBase = new BigInteger("" + base);
+        this(value, base, PAdic.DEFAULT_PRECISION);
+    }
 
-        final boolean isNegative = (value.signum() < 0);
-        BigInteger current = value.abs();
-        int pos = 0;
+    /**
+     * Constructs p-adic number from integer value.
+     * @param value integer value in base 10.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     */
+    public PAdic(final BigInteger value, final int base, final int precision) {
+        this(value, PAdicContext.of(base), precision);
+    }
 
-        while (!BigInteger.ZERO.equals(current)) {
-            digits[pos] = (int) (current.mod(bigBase).longValue());
-            current = current.divide(bigBase);
-            ++pos;
-        }
+    // Integer value in the base of the context, which is known to be prime.
+    PAdic(final BigInteger value, final PAdicContext context, final int precision) {
+        PAdic.checkForPrecision(precision);
 
-        if (isNegative) {
-            final PAdic temp = this.negative();
-            for (int i = 0; i < PAdic.len; ++i) {
-                this.digits[i] = temp.digits[i];
-            }
-        }
+        this.base = context.getBase();
+        this.precision = precision;
 
-        int order = 0;
+        // Negative value is represented by its residue modulo p^precision.
+        final BigInteger residue = value.signum() < 0 ? value.mod(context.power(precision)) : value;
+        this.limbs = Limbs.fromBigInteger(residue, base, precision);
 
-        while (order < PAdic.len && digits[order] == 0) {
-            ++order;
-        }
+        final int order = Limbs.valuation(limbs, base, precision);
 
-        this.order = order < PAdic.len ? order : 0;
+        this.order = order < precision ? order : 0;
     }
 
     /**
@@ -104,16 +111,32 @@ public final class PAdic {
      *             Notice that base must be a prime number.
      */
     public PAdic(final String number, final int base) {
+        this(number, base, PAdic.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs p-adic number from its string representation in canonical form.
+     * Digits that do not fit into precision are dropped.
+     * @param number string that represents p-adic number.
+     *              It can be either integer value or floating point value.
+     *              Notice that point can be defined by '.' symbol only.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     * @see #PAdic(String, int)
+     */
+    public PAdic(final String number, final int base, final int precision) {
         if (base > 7) {
             throw new RuntimeException("Sorry, it is impossible to determine what number it is in canonical form if base is larger than 7. \n Use rational fraction or sequence representation.");
         }
 
         PAdic.checkForPrime(base);
+        PAdic.checkForPrecision(precision);
             
-        this.digits = new int[PAdic.len];
         this.base = base;
 
         final String value = number.trim();
+        final int[] digits = new int[Math.max(precision, value.length())];
 
         final int pointAt = value.lastIndexOf('.');
         int posInString = value.length() - 1;
@@ -140,7 +163,7 @@ public final class PAdic {
 
         int pos = 0;
 
-        while (pos < PAdic.len && digits[pos] == 0) {
+        while (pos < digits.length && digits[pos] == 0) {
             ++pos;
         }
 
@@ -151,20 +174,27 @@ public final class PAdic {
 
             if (order < 0 ) {
                 final int offset = Math.min(-order, pos);
-                for (int i = 0; i + offset < PAdic.len; ++i) {
+                for (int i = 0; i + offset < digits.length; ++i) {
                     digits[i] = digits[i + offset];
                 }
 
                 order += offset;
             }
         } else {
-            if (pos == PAdic.len) {
+            if (pos == digits.length) {
                 pos = 0;
             }
 
             order = pos;
         }
 
+        // Integer part that lies beyond precision is zero modulo p^precision.
+        if (order >= precision) {
+            order = 0;
+        }
+
+        this.limbs = Limbs.pack(digits, base, precision);
+        this.precision = precision;
         this.order = order;
     }
 
@@ -176,22 +206,56 @@ public final class PAdic {
      *             Notice that base must be a prime number.
      */
     public PAdic(final BigInteger numerator, final BigInteger denominator, final int base) {
-        PAdic.checkForPrime(base);
+        this(numerator, denominator, base, PAdic.DEFAULT_PRECISION);
+    }
 
-        final BigInteger gcd = numerator.abs().gcd(denominator.abs());
-        final BigInteger actualNumerator = numerator.divide(gcd);
-        final BigInteger actualDenominator = denominator.divide(gcd);
+    /**
+     * Constructs p-adic number from rational fraction.
+     * @param numerator numerator of the fraction in base 10. Must be integer value.
+     * @param denominator denominator of the fracture in base 10. Denominator must be positive.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     */
+    public PAdic(final BigInteger numerator, final BigInteger denominator, final int base, final int precision) {
+        this(numerator, denominator, PAdicContext.of(base), precision);
+    }
 
-        final PAdic pAdicNumerator = new PAdic(actualNumerator, base);
-        final PAdic pAdicDenominator = new PAdic(actualDenominator, base);
+    // Rational fraction in the base of the context, which is known to be prime.
+    PAdic(final BigInteger numerator, final BigInteger denominator, final PAdicContext context, final int precision) {
+        if (denominator.signum() == 0) {
+            throw new RuntimeException("Denominator of a fraction cannot be zero.");
+        }
 
-        final PAdic pAdicResult = pAdicNumerator.divide(pAdicDenominator);
+        final BigInteger gcd = numerator.abs().gcd(denominator.abs());
+        final PAdic pAdicResult = PAdic.fraction(numerator.divide(gcd), denominator.divide(gcd), context, precision);
 
-        this.digits = Arrays.copyOfRange(pAdicResult.digits, 0, PAdic.len);
+        this.limbs = pAdicResult.limbs;
+        this.precision = pAdicResult.precision;
         this.order = pAdicResult.order;
         this.base = pAdicResult.base;
     }
 
+    // Irreducible fraction, or fraction whose denominator is congruent to the irreducible one modulo p^(precision + v),
+    // where v is order of p in the denominator.
+    static PAdic fraction(final BigInteger numerator, final BigInteger denominator, final PAdicContext context, final int precision) {
+        // Power of p is taken out of the denominator before conversion, since it may not fit into precision.
+        final BigInteger p = BigInteger.valueOf(context.getBase());
+        BigInteger unit = denominator;
+        int valuation = 0;
+
+        while (unit.mod(p).signum() == 0) {
+            unit = unit.divide(p);
+            ++valuation;
+        }
+
+        final PAdic quotient = new PAdic(numerator, context, precision).divide(new PAdic(unit, context, precision));
+
+        // When p divides the denominator, the numerator is coprime to p, so the quotient is a unit
+        // and its digits stand from p^(-valuation).
+        return valuation > 0 ? new PAdic(quotient.limbs, -valuation, quotient.base, quotient.precision) : quotient;
+    }
+
     /**
      * Constructs p-adic number from number sequence.
      * Indexes of coefficients in the sequence go from smaller to bigger.
@@ -213,15 +277,32 @@ public final class PAdic {
      *             Notice that base must be a prime number.
      */
     public PAdic(final int[] sequence, final int order, final int base) {
-        this(sequence, order, base, true);
+        this(sequence, order, base, PAdic.DEFAULT_PRECISION, true);
     }
 
-    private PAdic(final int[] sequence, final int order, final int base, final boolean recalculateSequence) {
+    /**
+     * Constructs p-adic number from number sequence.
+     * Digits of the sequence that do not fit into precision are dropped.
+     * @param sequence sequence of p-adic digits that p-adic number must be built from.
+     *               All the digits must be nonnegative and less than base of the p-adic number.
+     * @param order order of the p-adic number.
+     * @param base base of of p-adic number.
+     *             Notice that base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     * @see #PAdic(int[], int, int)
+     */
+    public PAdic(final int[] sequence, final int order, final int base, final int precision) {
+        this(sequence, order, base, precision, true);
+    }
+
+    private PAdic(final int[] sequence, final int order, final int base, final int precision, final boolean recalculateSequence) {
         PAdic.checkForPrime(base);
+        PAdic.checkForPrecision(precision);
     
         this.base = base;
-        this.digits = new int[PAdic.len];
+        this.precision = precision;
 
+        final int[] digits = new int[precision];
         int startPosition = 0;
         int startInSequence = 0;
 
@@ -240,15 +321,24 @@ public final class PAdic {
             }
         }
 
-        for (int i = startPosition, posInSequence = startInSequence; posInSequence < sequence.length && i < PAdic.len; ++i, ++posInSequence) {
+        for (int i = startPosition, posInSequence = startInSequence; posInSequence < sequence.length && i < precision; ++i, ++posInSequence) {
             if (sequence[posInSequence] < 0) {
                 throw new RuntimeException("P-adic number cannot be built from sequence that contains negative numbers.");
             } else if (sequence[posInSequence] >= this.base) {
                 throw new RuntimeException("P-adic number cannot be built from sequence that contains digits that are greater or equal to base.");
             }
 
-            this.digits[i] = sequence[posInSequence];
+            digits[i] = sequence[posInSequence];
         }
+        this.limbs = Limbs.pack(digits, base, precision);
+        this.order = order;
+    }
+
+    // Takes ownership of limbs that hold exactly precision digits and whose order has been calculated.
+    private PAdic(final long[] limbs, final int order, final int base, final int precision) {
+        this.base = base;
+        this.limbs = limbs;
+        this.precision = precision;
         this.order = order;
     }
 
@@ -257,262 +347,691 @@ public final class PAdic {
      * @return number that is opposite to this one.
      */
     public PAdic negative() {
-        int pos = 0;
-        
-        final int[] sequence = new int[PAdic.len];
+        final int len = this.getPrecision();
+        final long[] result = new long[limbs.length];
+        Limbs.negate(this.limbs, this.base, len, result);
 
-        while (pos < PAdic.len && this.digits[pos] == 0) {
-            ++pos;
-        }
-
-        if (pos < PAdic.len) {
-            sequence[pos] = base - this.digits[pos];
-        }
-
-        for (int i = pos + 1; i < PAdic.len; ++i) {
-            sequence[i] = base - this.digits[i] - 1;
-        }
-        
-        return new PAdic(sequence, this.order, this.base);
+        return new PAdic(result, this.order, this.base, len);
     }
 
     /**
      * Returns result of sum this p-adic number with <code>added</code>.
+     * Precision of the result is the least of precisions of the operands.
      * @param added p-adic number to be added.
      * @return p-adic number that is result of sum.
      */
     public PAdic add(final PAdic added) {
         PAdic.checkForBaseEquality(this, added);
-    
-        if (this.getOrder() < 0 || added.getOrder() < 0) {
-            final int leftOperandOrder = Math.min(this.getOrder(), 0);
-            final int rightOperandOrder = Math.min(added.getOrder(), 0);
-            final int diff = leftOperandOrder - rightOperandOrder;
-            final int offset = Math.abs(diff);
-            return diff < 0 ? this.add(added, offset) : added.add(this, offset);
+
+        final int len = PAdic.commonPrecision(this, added);
+        final long[] result = new long[Limbs.limbCount(len, this.base)];
+        final int diff = PAdic.pointShift(this.getOrder(), added.getOrder());
+
+        if (diff < 0) {
+            Limbs.shiftUp(added.limbs, this.base, len, -diff, result);
+            Limbs.add(this.limbs, result, this.base, len, result);
+        } else if (diff > 0) {
+            Limbs.shiftUp(this.limbs, this.base, len, diff, result);
+            Limbs.add(result, added.limbs, this.base, len, result);
+        } else {
+            Limbs.add(this.limbs, added.limbs, this.base, len, result);
         }
 
-        return add(added, 0);
+        final int order = PAdic.calculateOrder(result, Math.min(this.getOrder(), added.getOrder()), this.base, len);
+
+        return new PAdic(result, order, this.base, len);
     }
 
-    private PAdic add(final PAdic added, int offset) {
-        PAdic.checkForBaseEquality(this, added);
+    /**
+     * Writes sum of two numbers given by digits and orders into <code>result</code>.
+     * Result may be the same array as the first operand.
+     * @return order of the sum.
+     */
+    static int add(final int[] first, final int firstOrder, final int[] second, final int secondOrder,
+                   final int base, final int len, final int[] result) {
+        final int diff = PAdic.pointShift(firstOrder, secondOrder);
+
+        if (diff <= 0) {
+            PAdic.addDigits(first, second, -diff, base, len, result);
+        } else if (result == first) {
+            PAdic.shiftDigits(first, diff, len);
+            PAdic.addDigits(second, first, 0, base, len, result);
+        } else {
+            PAdic.addDigits(second, first, diff, base, len, result);
+        }
+
+        return PAdic.calculateOrder(result, firstOrder, secondOrder, Operation.ADDITION);
+    }
+
+    /**
+     * Returns number of positions by which digits of the first operand of addition or subtraction are shifted up,
+     * or minus number of positions by which digits of the second one are, so that point was exactly under point.
+     * Digits of the operand with fewer digits after the point are shifted.
+     */
+    static int pointShift(final int firstOrder, final int secondOrder) {
+        return Math.min(firstOrder, 0) - Math.min(secondOrder, 0);
+    }
 
-        final int[] result = new int[PAdic.len];
+    // Writes (first + second * p^offset) mod p^len into result.
+    // Result may be the same array as the first operand, or as the second one when offset is zero.
+    private static void addDigits(final int[] first, final int[] second, final int offset,
+                                  final int base, final int len, final int[] result) {
         int toNext = 0;
 
-        for (int i = 0; i < offset; ++i) {
-            result[i] = digits[i];
+        for (int i = 0; i < offset && i < len; ++i) {
+            result[i] = first[i];
         }
 
-        for (int i = 0; i + offset < PAdic.len; ++i) {
-            final int next = digits[i + offset] + added.digits[i] + toNext;
+        for (int i = 0; i + offset < len; ++i) {
+            final int next = first[i + offset] + second[i] + toNext;
             toNext = next / base;
             result[i + offset] = next % base;
         }
-
-        final int order = PAdic.calculateOrder(result, this.getOrder(), added.getOrder(), Operation.ADDITION);
-
-        return new PAdic(result, order, this.base, false);
     }
 
     /**
      * Returns difference of p-adic number and <code>subtracted</code> value.
+     * Precision of the result is the least of precisions of the operands.
      * @param subtracted p-adic number to be subtracted.
      * @return p-adic number that is result of subtraction.
      */
     public PAdic subtract(final PAdic subtracted) {
         PAdic.checkForBaseEquality(this, subtracted);
-        
-        PAdic actual = null;
-        final int[] digits = new int[PAdic.len];
-        boolean haveActual = false;
 
-        if (subtracted.getOrder() < 0 && subtracted.getOrder() < this.getOrder()) {
-            final int diff = Math.abs(subtracted.getOrder() - Math.min(this.getOrder(), 0));
+        final int len = PAdic.commonPrecision(this, subtracted);
+        final long[] result = new long[Limbs.limbCount(len, this.base)];
+        final int diff = PAdic.pointShift(this.getOrder(), subtracted.getOrder());
+
+        if (diff < 0) {
+            Limbs.shiftUp(subtracted.limbs, this.base, len, -diff, result);
+            Limbs.subtract(this.limbs, result, this.base, len, result);
+        } else if (diff > 0) {
+            Limbs.shiftUp(this.limbs, this.base, len, diff, result);
+            Limbs.subtract(result, subtracted.limbs, this.base, len, result);
+        } else {
+            Limbs.subtract(this.limbs, subtracted.limbs, this.base, len, result);
+        }
+
+        final int order = PAdic.calculateOrder(result, Math.min(this.getOrder(), subtracted.getOrder()), this.base, len);
+
+        return new PAdic(result, order, this.base, len);
+    }
+
+    /**
+     * Writes difference of two numbers given by digits and orders into <code>result</code>.
+     * Operands are not modified. Result may be the same array as the first operand.
+     * @return order of the difference.
+     */
+    static int subtract(final int[] first, final int firstOrder, final int[] second, final int secondOrder,
+                        final int base, final int len, final int[] result) {
+        int[] actual = first;
+        int actualOrder = firstOrder;
 
-            for (int i = PAdic.len - 1; i - diff >= 0; --i) {
-                final int idx = i - diff;
-                digits[i] = this.digits[idx];
+        if (secondOrder < 0 && secondOrder < firstOrder) {
+            final int diff = Math.abs(secondOrder - Math.min(firstOrder, 0));
+
+            if (result != first) {
+                System.arraycopy(first, 0, result, 0, len);
             }
 
-            final int newOrder = Math.min(this.getOrder(), 0) - diff;
-            actual = new PAdic(digits, newOrder, this.base, false);
-            haveActual = true;
+            PAdic.shiftDigits(result, diff, len);
+            actual = result;
+            actualOrder = Math.min(firstOrder, 0) - diff;
         }
 
-        if (!haveActual) {
-            actual = (PAdic) this.clone();
-        }
+        final int offset = Math.abs(PAdic.pointShift(actualOrder, secondOrder));
 
-        if (actual.getOrder() < 0 && subtracted.getOrder() >= 0) {
-                return actual.subtract(subtracted, -actual.getOrder());
-        }
+        PAdic.subtractDigits(actual, second, offset, base, len, result);
 
-        final int offset;
-        if (actual.getOrder() < 0 || subtracted.getOrder() < 0) {
+        return PAdic.calculateOrder(result, actualOrder, secondOrder, Operation.SUBTRACTION);
+    }
 
-            // Need to shift digits in such way that point was exactly under point.
-            // Example:
-            // _12345.67890  =>  _12345.67890           _      100000   =>    _100000.00000
-            //       123.45  =>     123.45000    OR       12345.12345   =>      12345.12345
-            //  ^^^^^^^^^^^       ^^^^^^^^^^^             ^^^^^^^^^^^          ^^^^^^^^^^^^
+    // Writes (first - second * p^offset) mod p^len into result.
+    // Result may be the same array as the first operand.
+    private static void subtractDigits(final int[] first, final int[] second, final int offset,
+                                       final int base, final int len, final int[] result) {
+        int borrowed = 0;
 
-            final int leftOperandOrder = Math.min(actual.getOrder(), 0);
-            final int rightOperandOrder = Math.min(subtracted.getOrder(), 0);
-            offset = Math.abs(leftOperandOrder - rightOperandOrder);
-        } else {
-            offset = 0;
+        for (int i = 0; i < offset && i < len; ++i) {
+            result[i] = first[i];
         }
 
-        return actual.subtract(subtracted, offset);
-    }
+        for (int i = 0; i + offset < len; ++i) {
+            int next = first[i + offset] - second[i] - borrowed;
+            borrowed = 0;
 
-    private PAdic subtract(final PAdic subtracted, final int offset) {
-        PAdic.checkForBaseEquality(this, subtracted);
-        
-        final int[] result = new int[PAdic.len];
-        boolean takeOne;
+            if (next < 0) {
+                next += base;
+                borrowed = 1;
+            }
 
-        for (int i = 0; i < offset; ++i) {
-            result[i] = digits[i];
+            result[i + offset] = next;
         }
+    }
 
-        for (int i = 0; i + offset < PAdic.len; ++i) {
-            final int idx = i + offset;
-            if (digits[idx] < subtracted.digits[i]) {
-                takeOne = true;
-                int j = idx + 1;
+    // Moves first len - offset digits offset positions up. Lowest offset digits become zero.
+    private static void shiftDigits(final int[] digits, final int offset, final int len) {
+        for (int i = len - 1; i - offset >= 0; --i) {
+            digits[i] = digits[i - offset];
+        }
 
-                while (j < PAdic.len && takeOne) {
-                    if (digits[j] == 0) {
-                        digits[j] = base - 1;
-                    } else {
-                        --digits[j];
-                        takeOne = false;
-                    }
+        Arrays.fill(digits, 0, Math.min(offset, len), 0);
+    }
 
-                    ++j;
-                }
-                digits[idx] += base;
-            }
-            result[idx] = digits[idx] - subtracted.digits[i];
+    // Moves digits offset positions down. Highest offset digits become zero.
+    private static void shiftDigitsDown(final int[] digits, final int offset, final int len) {
+        if (offset == 0) {
+            return;
         }
 
-        final int order = PAdic.calculateOrder(result, this.getOrder(), subtracted.getOrder(), Operation.SUBTRACTION);
+        for (int i = 0; i + offset < len; ++i) {
+            digits[i] = digits[i + offset];
+        }
 
-        return new PAdic(result, order, this.base, false);
+        Arrays.fill(digits, Math.max(len - offset, 0), len, 0);
     }
 
     /**
      * Returns result of multiplication of this p-adic number by <code>multiplier</code> value.
+     * Precision of the result is the least of precisions of the operands.
      * @param multiplier value to multiply this p-adic number by.
      * @return p-adic number that is result of multiplication.
      */
     public PAdic multiply(final PAdic multiplier) {
         PAdic.checkForBaseEquality(this, multiplier);
 
-        PAdic result = new PAdic(new int[] {0}, 0, this.base);
+        final int len = PAdic.commonPrecision(this, multiplier);
+
+        if (this.base == 2 && TwoAdic.wordCount(len) <= TwoAdic.MULTIPLICATION_WORD_LIMIT) {
+            final long[] result = new long[TwoAdic.wordCount(len)];
+            TwoAdic.multiply(this.limbs, multiplier.limbs, len, result);
+
+            // See comment in the digit version below.
+            final int minOrder = Math.min(this.getOrder(), multiplier.getOrder());
+            final int maxOrder = Math.max(this.getOrder(), multiplier.getOrder());
 
-        for (int i = 0; i < PAdic.len; ++i) {
-            final int temp[] = multiplyToInteger(digits, multiplier.digits[i]);
-            final PAdic adder = new PAdic(temp, 0, this.base, false);
-            result = result.add(adder, i);
+            if (minOrder < 0 && 0 < maxOrder) {
+                final int pos = Math.min(Limbs.valuation(result, this.base, len), -minOrder);
+                Limbs.shiftDown(result, this.base, len, pos, result);
+            }
+
+            final int order = PAdic.calculateOrder(result, this.getOrder() + multiplier.getOrder(), this.base, len);
+
+            return new PAdic(result, order, this.base, len);
         }
 
+        final int[] result = new int[len];
+        final long[] workspace = new long[Multiplication.workspaceSize(len)];
+        final int order = PAdic.multiply(this.digits(), this.getOrder(), multiplier.digits(), multiplier.getOrder(), this.base, len, workspace, result);
+
+        return new PAdic(result, order, this.base, len, false);
+    }
+
+    /**
+     * Writes product of two numbers given by digits and orders into <code>result</code>.
+     * Result may be the same array as any of the operands.
+     * @param workspace scratch memory of at least {@link Multiplication#workspaceSize(int)} longs.
+     * @return order of the product.
+     */
+    static int multiply(final int[] first, final int firstOrder, final int[] second, final int secondOrder,
+                        final int base, final int len, final long[] workspace, final int[] result) {
+        Multiplication.multiply(first, second, base, len, workspace, result);
+
         // In some cases when we multiply numbers, it may happens that
         // real index of the most right non-zero coefficient gets greater than it must be.
         // For example, multiplying ...00000.1 (order = -1)  by ...000010 (order = 1)
         // we will get ...0000010 (order = 1) that's incorrect, because its order must be zero.
         // So, the order calculated correctly, but we need to shift the result a little to the right.
 
-        final int minOrder = Math.min(this.getOrder(), multiplier.getOrder());
-        final int maxOrder = Math.max(this.getOrder(), multiplier.getOrder());
+        final int minOrder = Math.min(firstOrder, secondOrder);
+        final int maxOrder = Math.max(firstOrder, secondOrder);
 
         if (minOrder < 0 && 0 < maxOrder) {
             int pos = 0;
 
-            while (pos < -minOrder && result.digits[pos] == 0) {
+            while (pos < -minOrder && pos < len && result[pos] == 0) {
                 ++pos;
             }
 
-            for (int i = 0; i + pos < PAdic.len; ++i) {
-                result.digits[i] = result.digits[i + pos];
+            for (int i = 0; i + pos < len; ++i) {
+                result[i] = result[i + pos];
             }
+            Arrays.fill(result, len - pos, len, 0);
         }
 
-        final int order = PAdic.calculateOrder(result.digits, this.getOrder(), multiplier.getOrder(), Operation.MULTIPLICATION);
+        return PAdic.calculateOrder(result, firstOrder, secondOrder, Operation.MULTIPLICATION);
+    }
 
-        return new PAdic(result.digits, order, this.base, false);
+    /**
+     * Returns result of multiplication of this p-adic number by <code>multiplier</code> with <code>added</code> added to it.
+     * Unlike <code>multiply(multiplier).add(added)</code>, no intermediate product is created,
+     * and order of the result is calculated once.
+     * Precision of the result is the least of precisions of the operands.
+     * @param multiplier value to multiply this p-adic number by.
+     * @param added value to add to the product.
+     * @return p-adic number that is result of multiplication and addition.
+     */
+    public PAdic multiplyAdd(final PAdic multiplier, final PAdic added) {
+        return PAdic.sumOfProducts(new PAdic[] {this}, new PAdic[] {multiplier}, added);
+    }
+
+    /**
+     * Returns sum of products <code>first[i] * second[i]</code>.
+     * Column sums of all the products are accumulated in one buffer with the point of every product at the same place,
+     * so carries are propagated and order is calculated once for the whole sum.
+     * Since products are not truncated one by one, the highest digits of the result may differ from the ones
+     * of the sum of products computed separately.
+     * Precision of the result is the least of precisions of the operands.
+     * @param first first factors of the products.
+     * @param second second factors of the products. There must be as many of them as first factors, and at least one.
+     * @return p-adic number that is sum of the products.
+     */
+    public static PAdic dot(final PAdic[] first, final PAdic[] second) {
+        return PAdic.sumOfProducts(first, second, null);
+    }
+
+    /**
+     * Returns sum of all the given p-adic numbers.
+     * Unlike folding of {@link #add(PAdic)}, limbs of the numbers are accumulated in wide columns,
+     * so carries are propagated and order is calculated once for the whole sum, and no intermediate sums are created.
+     * Precision of the result is the least of precisions of the terms.
+     * @param terms numbers to add. There must be at least one of them.
+     * @return p-adic number that is sum of the terms.
+     */
+    public static PAdic sum(final PAdic[] terms) {
+        return Summation.sum(terms, null);
+    }
+
+    /**
+     * Returns sum of all the given p-adic numbers.
+     * @param terms numbers to add. There must be at least one of them.
+     * @return p-adic number that is sum of the terms.
+     * @see #sum(PAdic[])
+     */
+    public static PAdic sum(final Iterable<PAdic> terms) {
+        final List<PAdic> list = new ArrayList<PAdic>();
+
+        for (final PAdic term : terms) {
+            list.add(term);
+        }
+
+        return Summation.sum(list.toArray(new PAdic[list.size()]), null);
+    }
+
+    /**
+     * Returns sum of all the given p-adic numbers.
+     * Parts of the terms are added in parallel on the given pool and their columns are merged,
+     * so the result is the same as the one of {@link #sum(PAdic[])}.
+     * @param terms numbers to add. There must be at least one of them.
+     * @param pool fork-join pool to add parts of the terms on.
+     * @return p-adic number that is sum of the terms.
+     */
+    public static PAdic sum(final PAdic[] terms, final ForkJoinPool pool) {
+        return Summation.sum(terms, pool);
+    }
+
+    // Sum of products first[i] * second[i] and added, if it is not null.
+    private static PAdic sumOfProducts(final PAdic[] first, final PAdic[] second, final PAdic added) {
+        if (first.length != second.length) {
+            throw new RuntimeException("Dot product needs as many first factors as second ones, but " + first.length + " and " + second.length + " were given.");
+        }
+
+        if (first.length == 0) {
+            throw new RuntimeException("Dot product needs at least one pair of factors.");
+        }
+
+        final PAdic head = first[0];
+        final int base = head.base;
+        int len = Integer.MAX_VALUE;
+        // Power of p that the lowest digit of the sum stands for.
+        int point = added == null ? 0 : Math.min(added.getOrder(), 0);
+
+        for (int i = 0; i < first.length; ++i) {
+            PAdic.checkForBaseEquality(head, first[i]);
+            PAdic.checkForBaseEquality(head, second[i]);
+            len = Math.min(len, PAdic.commonPrecision(first[i], second[i]));
+        }
+
+        if (added != null) {
+            PAdic.checkForBaseEquality(head, added);
+            len = Math.min(len, added.getPrecision());
+        }
+
+        if (base == 2 && TwoAdic.wordCount(len) <= TwoAdic.MULTIPLICATION_WORD_LIMIT) {
+            // Products of 64-bit words have no column sums to accumulate, so word operations are faster here.
+            PAdic sum = added;
+
+            for (int i = 0; i < first.length; ++i) {
+                final PAdic product = first[i].multiply(second[i]);
+                sum = sum == null ? product : sum.add(product);
+            }
+
+            return sum;
+        }
+
+        // Zero products have zero order, so they do not move the point.
+        final boolean[] zero = new boolean[first.length];
+
+        for (int i = 0; i < first.length; ++i) {
+            zero[i] = Limbs.valuation(first[i].limbs, base, len) == len || Limbs.valuation(second[i].limbs, base, len) == len;
+
+            if (!zero[i]) {
+                point = Math.min(point, Math.min(first[i].getOrder() + second[i].getOrder(), 0));
+            }
+        }
+
+        final int digitsPerColumn = Multiplication.columnDigits(base, len);
+        final int n = Multiplication.columnCount(len, digitsPerColumn);
+        final long radix = Multiplication.columnRadix(base, digitsPerColumn);
+        // Columns of one product are less than this bound, see Multiplication.productColumns.
+        final long productBound = n * (radix - 1) * (radix - 1);
+        final long[] columns = new long[n];
+        final long[] workspace = new long[Multiplication.workspaceSize(len)];
+        final int[] firstDigits = new int[len];
+        final int[] secondDigits = new int[len];
+        long bound = 0;
+
+        for (int i = 0; i < first.length; ++i) {
+            // Factors are shifted down to their lowest non-zero digits, as multiply does when orders have different signs,
+            // and then the first one is shifted up, so that point of the product was exactly under the common point.
+            final int firstValuation = Math.max(first[i].getOrder(), 0);
+            final int secondValuation = Math.max(second[i].getOrder(), 0);
+            final int shift = first[i].getOrder() + second[i].getOrder() - point;
+
+            if (zero[i] || shift >= len) {
+                continue;
+            }
+
+            first[i].digits(firstDigits, len);
+            second[i].digits(secondDigits, len);
+
+            if (shift >= firstValuation) {
+                PAdic.shiftDigits(firstDigits, shift - firstValuation, len);
+            } else {
+                PAdic.shiftDigitsDown(firstDigits, firstValuation - shift, len);
+            }
+
+            PAdic.shiftDigitsDown(secondDigits, secondValuation, len);
+            Multiplication.productColumns(firstDigits, secondDigits, base, len, digitsPerColumn, workspace);
+
+            if (bound > Long.MAX_VALUE - productBound) {
+                Multiplication.carry(columns, radix, n);
+                bound = radix;
+            }
+
+            for (int j = 0; j < n; ++j) {
+                columns[j] += workspace[j];
+            }
+
+            bound += productBound;
+        }
+
+        final int[] digits = new int[len];
+        Multiplication.normalize(columns, base, len, digitsPerColumn, digits);
+        final long[] result = Limbs.pack(digits, base, len);
+
+        // The addend is already packed into limbs, so it is added to limbs of the sum of products
+        // rather than unpacked into columns.
+        final int shift = added == null ? len : Math.min(added.getOrder(), 0) - point;
+
+        if (shift == 0) {
+            Limbs.add(result, added.limbs, base, len, result);
+        } else if (shift < len) {
+            final long[] shifted = new long[result.length];
+            Limbs.shiftUp(added.limbs, base, len, shift, shifted);
+            Limbs.add(result, shifted, base, len, result);
+        }
+
+        final int order = PAdic.calculateOrder(result, point, base, len);
+
+        return new PAdic(result, order, base, len);
     }
 
     /**
      * Returns result of division of this p-adic number by <code>divisor</code> value.
+     * Precision of the result is the least of precisions of the operands.
      * @param divisor value to divide this p-adic number by.
      * @return p-adic number that is result of division.
      */
     public PAdic divide(final PAdic divisor) {
         PAdic.checkForBaseEquality(this, divisor);
         
-        final int[] result = new int[PAdic.len];
-        final int[] dividedDigits = new int[PAdic.len];
-        final int[] divisorDigits= new int[PAdic.len];
+        final int len = PAdic.commonPrecision(this, divisor);
+        final long[] divided = Limbs.truncate(this.limbs, this.base, len);
+        final long[] divisorLimbs = Limbs.truncate(divisor.limbs, this.base, len);
 
-        int pos = 0;
-
-        while (pos < PAdic.len && this.digits[pos] == 0 && divisor.digits[pos] == 0) {
-            ++pos;
-        }
-
-        for (int i = 0; i + pos < PAdic.len; ++i) {
-            dividedDigits[i] = this.digits[i + pos];
-            divisorDigits[i] = divisor.digits[i + pos];
-        }
+        int pos = Math.min(Limbs.valuation(divided, this.base, len), Limbs.valuation(divisorLimbs, this.base, len));
+        Limbs.shiftDown(divided, this.base, len, pos, divided);
+        Limbs.shiftDown(divisorLimbs, this.base, len, pos, divisorLimbs);
 
         int dividedOrder = this.getOrder() - pos;
         int divisorOrder = divisor.getOrder() - pos;
 
-        pos = 0;
-        while (pos < PAdic.len && divisorDigits[pos] == 0) {
-            ++pos;
-        }
-
-        for (int i = 0; i + pos < PAdic.len; ++i) {
-            divisorDigits[i] = divisorDigits[i + pos];
-        }
+        pos = Limbs.valuation(divisorLimbs, this.base, len);
+        Limbs.shiftDown(divisorLimbs, this.base, len, pos, divisorLimbs);
         dividedOrder -= pos;
         divisorOrder -= pos;
 
         if (divisorOrder < 0 && divisorOrder < dividedOrder) {
             final int diff = Math.min(dividedOrder, 0) - divisorOrder;
-            for (int i = PAdic.len - 1; i - diff >= 0; --i) {
-                final int idx = i - diff;
-                dividedDigits[i] = dividedDigits[idx];
-                dividedDigits[idx] = 0;
-            }
+            Limbs.shiftUp(divided, this.base, len, diff, divided);
             dividedOrder += diff;
             divisorOrder = 0;
         }
 
-        PAdic divided = new PAdic(dividedDigits, 0, this.base, false);
-        final PAdic actualDivisor = new PAdic(divisorDigits, 0, this.base);
+        final long[] result;
+
+        if (pos == len) {
+            // Divisor is zero, so the only number that can be divided by it is zero.
+            final int dividedValuation = Limbs.valuation(divided, this.base, len);
+
+            if (dividedValuation < len) {
+                throw new RuntimeException("CALCULATION FAILED. Couldn't find multiplier x satisfying " + Limbs.digit(divided, this.base, dividedValuation) + " = x0 (mod " + this.base + ").");
+            }
+
+            result = divided;
+        } else if (this.base == 2) {
+            result = TwoAdic.divide(divided, divisorLimbs, len);
+        } else {
+            final int[] dividedDigits = new int[len];
+            final int[] divisorDigits = new int[len];
+            Limbs.unpack(divided, this.base, len, dividedDigits);
+            Limbs.unpack(divisorLimbs, this.base, len, divisorDigits);
+
+            result = Limbs.pack(Division.divide(dividedDigits, divisorDigits, this.base, len), this.base, len);
+        }
+
+        final int order = PAdic.calculateOrder(result, dividedOrder - divisorOrder, this.base, len);
+
+        return new PAdic(result, order, this.base, len);
+    }
 
-        for (int i = 0; i < PAdic.len; ++i) {
-            final int digit = findMultiplier(divided.digits[i], actualDivisor.digits[0]);
+    /**
+     * Returns this p-adic number raised to the given power.
+     * @param exponent exponent of the power. Negative exponents give powers of the inverse of this number.
+     * @return p-adic number that is result of exponentiation.
+     * @see #pow(BigInteger)
+     */
+    public PAdic pow(final int exponent) {
+        return this.pow(BigInteger.valueOf(exponent));
+    }
 
-            if (digit == -1) {
-                throw new RuntimeException("CALCULATION FAILED. Couldn't find multiplier x satisfying " + divided.digits[i] + " = x" + actualDivisor.digits[0] + " (mod " + this.base + ").");
+    /**
+     * Returns this p-adic number raised to the given power.
+     * The number is split into p^order and a unit, the unit is raised to the power by square-and-multiply,
+     * and order of the result is <code>order * exponent</code>, so it is not recalculated on every step.
+     * Negative exponents raise inverse of the unit, which is found once.
+     * Precision of the result is the precision of this number.
+     * @param exponent exponent of the power. Negative exponents give powers of the inverse of this number.
+     * @return p-adic number that is result of exponentiation.
+     */
+    public PAdic pow(final BigInteger exponent) {
+        final int len = this.precision;
+        final PAdicContext context = PAdicContext.cached(this.base);
+
+        if (exponent.signum() == 0) {
+            return context.one(len);
+        }
+
+        final int valuation = Limbs.valuation(this.limbs, this.base, len);
+
+        if (valuation == len) {
+            if (exponent.signum() < 0) {
+                throw new RuntimeException("Zero cannot be raised to negative power " + exponent + ".");
             }
 
-            final int[] tmp = multiplyToInteger(actualDivisor.digits, digit);
+            return context.zero(len);
+        }
+
+        final BigInteger order = BigInteger.valueOf(Math.min(this.getOrder(), 0) + valuation).multiply(exponent);
+
+        if (order.compareTo(BigInteger.valueOf(len)) >= 0) {
+            // All the known digits of the power are zero.
+            return context.zero(len);
+        }
+
+        if (order.bitLength() >= Integer.SIZE) {
+            throw new RuntimeException("Order " + order + " of the power is too large for a p-adic number.");
+        }
+
+        long[] unit = Limbs.truncate(this.limbs, this.base, len);
+        Limbs.shiftDown(unit, this.base, len, valuation, unit);
+
+        if (exponent.signum() < 0) {
+            if (this.base == 2) {
+                unit = TwoAdic.inverse(unit, len);
+            } else {
+                final int[] digits = new int[len];
+                Limbs.unpack(unit, this.base, len, digits);
+                unit = Limbs.pack(Division.inverse(digits, this.base, len), this.base, len);
+            }
+        }
+
+        final long[] result = Exponentiation.power(unit, exponent.abs(), this.base, len);
+
+        if (order.signum() > 0) {
+            Limbs.shiftUp(result, this.base, len, order.intValue(), result);
+        }
+
+        return new PAdic(result, order.intValue(), this.base, len);
+    }
+
+    /**
+     * Returns all square roots of this p-adic number.
+     * @return square roots of the number.
+     * @see #root(int)
+     */
+    public PAdic[] sqrt() {
+        return this.root(2);
+    }
+
+    /**
+     * Returns all roots of given degree of this p-adic number.
+     * The number is split into p^order and a unit, so a root exists only if degree divides the order
+     * and the unit has a root, which is decided by its lowest digits before any lifting is done:
+     * residue of the unit must be a power of degree modulo p, what is the Legendre symbol for square roots,
+     * and the unit must be 1 modulo 8 for 2-adic square roots. Roots of the unit are lifted by Newton iteration.
+     * Precision of the roots is the precision of this number, but the highest digit of the roots may be inexact
+     * when p divides the degree.
+     * @param degree positive degree of the roots.
+     * @return all distinct roots of the number in no particular order. Root of zero is zero.
+     */
+    public PAdic[] root(final int degree) {
+        if (degree < 1) {
+            throw new RuntimeException("Degree of a root must be positive, but it is " + degree + ".");
+        }
+
+        final int len = this.precision;
+        final int valuation = Limbs.valuation(this.limbs, this.base, len);
+
+        if (valuation == len) {
+            return new PAdic[] {PAdicContext.cached(this.base).zero(len)};
+        }
+
+        final int order = Math.min(this.getOrder(), 0) + valuation;
+
+        if (order % degree != 0) {
+            throw new RuntimeException("There is no root of degree " + degree + " of a number of order " + order
+                    + ", the order must be divisible by the degree.");
+        }
+
+        final int[] unit = this.digits(len);
+        PAdic.shiftDigitsDown(unit, valuation, len);
+
+        final List<int[]> roots = Roots.roots(unit, degree, this.base, len);
+
+        if (roots.isEmpty()) {
+            throw new RuntimeException("There is no root of degree " + degree + " of the number.");
+        }
+
+        final int rootOrder = order / degree;
+        final PAdic[] result = new PAdic[roots.size()];
+
+        for (int i = 0; i < result.length; ++i) {
+            final int[] root = roots.get(i);
+
+            if (rootOrder > 0) {
+                PAdic.shiftDigits(root, rootOrder, len);
+            }
+
+            result[i] = PAdic.valueOf(root, rootOrder, this.base, len);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns exponent of this p-adic number.
+     * Exponent series converges only for numbers whose order is at least 1, or at least 2 when p = 2.
+     * It is truncated at the first term after which all the terms are zero within precision,
+     * and summed over common denominator, so it costs one division.
+     * Precision of the result is the precision of this number.
+     * @return p-adic number that is exponent of this one.
+     */
+    public PAdic exp() {
+        final int len = this.precision;
+        final int valuation = Limbs.valuation(this.limbs, this.base, len);
+
+        if (valuation == len) {
+            return PAdicContext.cached(this.base).one(len);
+        }
+
+        final int order = Math.min(this.getOrder(), 0) + valuation;
+        final int least = this.base == 2 ? 2 : 1;
+
+        if (order < least) {
+            throw new RuntimeException("Exponent converges only for numbers of order at least " + least + ", but order is " + order + ".");
+        }
+
+        // Digits are placed from p^0, so that the number is an integer.
+        final int[] digits = this.digits(len);
+        PAdic.shiftDigitsDown(digits, -Math.min(this.getOrder(), 0), len);
+
+        return PAdic.valueOf(Series.exp(digits, order, this.base, len), 0, this.base, len);
+    }
+
+    /**
+     * Returns logarithm of this p-adic number.
+     * Logarithm is defined for units, i.e. for numbers of order 0, and it is zero at roots of unity:
+     * log(u) = log(u^(p - 1)) / (p - 1), and for p = 2 log(u) = log(-u).
+     * Precision of the result is the precision of this number.
+     * @return p-adic number that is logarithm of this one.
+     */
+    public PAdic log() {
+        final int len = this.precision;
+        final int valuation = Limbs.valuation(this.limbs, this.base, len);
+        final int order = Math.min(this.getOrder(), 0) + valuation;
 
-            result[i] = digit;
-            divided = divided.subtract(new PAdic(tmp, 0, this.base, false), i);
+        if (valuation == len || order != 0) {
+            throw new RuntimeException("Logarithm is defined only for numbers of order 0.");
         }
 
-        final int order = PAdic.calculateOrder(result, dividedOrder, divisorOrder, Operation.DIVISION);
+        final int[] unit = this.digits(len);
+        PAdic.shiftDigitsDown(unit, valuation, len);
+
+        final int[] digits = Series.log(unit, this.base, len);
 
-        return new PAdic(result, order, this.base, false);
+        return PAdic.valueOf(digits, PAdic.calculateOrder(digits, 0, 0, Operation.ADDITION), this.base, len);
     }
 
     /**
@@ -524,7 +1043,125 @@ public final class PAdic {
         return order;
     }
 
-    private static int calculateOrder(final int[] digits, final int firstOrder, final int secondOrder, Operation operation) {
+    /**
+     * Returns base of p-adic number.
+     * @return base of the number.
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Returns digit of p-adic number that stands at <i>p</i> in power <code>position</code>.
+     * For example, digit of 5-adic number 123.4 at position -1 is 4 and at position 2 is 1.
+     * @param position power of <i>p</i> the digit stands at.
+     * @return digit at the position. Digits at positions that are less than order are zero.
+     */
+    public int getDigit(final int position) {
+        final int index = position - Math.min(order, 0);
+
+        if (index < 0) {
+            return 0;
+        }
+
+        if (index >= this.getPrecision()) {
+            throw new RuntimeException("Digit at position " + position + " is beyond precision of the number.");
+        }
+
+        return Limbs.digit(limbs, base, index);
+    }
+
+    /**
+     * Returns precision of p-adic number.
+     * Precision is the number of p-adic digits the number carries, so the number is known modulo <i>p</i> in power of precision.
+     * @return precision of the number.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns this p-adic number with another precision.
+     * Lowering precision drops the most significant digits.
+     * Raising precision appends digits that are assumed to be zero, since they were never calculated.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     * @return p-adic number that has the same base and digits but the requested precision.
+     */
+    public PAdic withPrecision(final int precision) {
+        PAdic.checkForPrecision(precision);
+
+        if (precision == this.getPrecision()) {
+            return this;
+        }
+
+        final int[] digits = this.digits(Math.min(precision, this.getPrecision()));
+        final int order = PAdic.calculateOrder(digits, this.getOrder(), this.getOrder(), Operation.ADDITION);
+
+        return new PAdic(digits, order, this.base, precision, false);
+    }
+
+    /**
+     * Returns integer that has the same digits as this p-adic number, i.e. its residue modulo p^precision.
+     * Negative integers come back as their residues, for example -1 gives p^precision - 1.
+     * @return non-negative integer less than p^precision.
+     * @throws RuntimeException if the number has negative order and thus is not an integer.
+     */
+    public BigInteger toBigInteger() {
+        return this.toBigInteger(this.getPrecision());
+    }
+
+    /**
+     * Returns residue of this p-adic number modulo p^digits.
+     * @param digits number of the lowest digits to take. Must be positive and not greater than precision.
+     * @return non-negative integer less than p^digits.
+     * @throws RuntimeException if the number has negative order and thus is not an integer.
+     */
+    public BigInteger toBigInteger(final int digits) {
+        PAdic.checkForPrecision(digits);
+
+        if (digits > this.getPrecision()) {
+            throw new RuntimeException("Only " + this.getPrecision() + " digits are known, but " + digits + " were requested.");
+        }
+
+        if (this.getOrder() < 0) {
+            throw new RuntimeException("P-adic number with negative order " + this.getOrder() + " is not an integer.");
+        }
+
+        return Limbs.toBigInteger(limbs, base, digits);
+    }
+
+    /**
+     * Returns rational number whose p-adic digits are the digits of this number.
+     * Fraction a / b is recovered from the digits that are compared by {@link #equals(Object)},
+     * i.e. from residue x modulo p^n, where n is about two thirds of precision, such that
+     * <code>a = b * x (mod p^n)</code> and <code>|a|, b &lt;= sqrt(p^n / 2)</code>.
+     * Such fraction is unique if it exists, so every fraction with small enough numerator and denominator,
+     * e.g. one this number was constructed from, is recovered exactly.
+     * @return array of two elements: numerator and positive denominator of the fraction in lowest terms.
+     * @throws RuntimeException if no fraction with small enough numerator and denominator has these digits.
+     */
+    public BigInteger[] toRational() {
+        final int limit = this.limit();
+        final BigInteger modulus = PAdicContext.cached(base).power(limit);
+        final BigInteger residue = Limbs.toBigInteger(limbs, base, limit);
+        final BigInteger[] fraction = Rationals.reconstruct(residue, modulus);
+
+        if (fraction == null) {
+            throw new RuntimeException("No fraction with numerator and denominator not greater than sqrt(" + base + "^" + limit + " / 2) has digits of the number.");
+        }
+
+        if (order < 0) {
+            // Digits of a negative order number are the digits of p^(-order) * x.
+            final BigInteger denominator = fraction[1].multiply(PAdicContext.cached(base).power(-order));
+            final BigInteger gcd = fraction[0].gcd(denominator);
+
+            return new BigInteger[] {fraction[0].divide(gcd), denominator.divide(gcd)};
+        }
+
+        return fraction;
+    }
+
+    static int calculateOrder(final int[] digits, final int firstOrder, final int secondOrder, Operation operation) {
         int order = 0;
 
         if (operation == Operation.ADDITION || operation == Operation.SUBTRACTION){
@@ -539,13 +1176,14 @@ public final class PAdic {
             order = firstOrder - secondOrder;
         }
 
+        final int len = digits.length;
         int pos = 0;
 
-        while (pos < PAdic.len && digits[pos] == 0) {
+        while (pos < len && digits[pos] == 0) {
             ++pos;
         }
 
-        if (pos == PAdic.len) {
+        if (pos == len) {
             return 0;
         }
 
@@ -555,36 +1193,35 @@ public final class PAdic {
 
         if (order < 0) {
             final int min = Math.min(-order, pos);
-            for (int i = 0; i + min < PAdic.len; ++i) {
+            for (int i = 0; i + min < len; ++i) {
                 digits[i] = digits[i + min];
             }
+            Arrays.fill(digits, len - min, len, 0);
             order += pos;
         }
 
         return order;
     }
 
-    private int[] multiplyToInteger(final int[] number, final int multiplier) {
-        int toNext = 0;
+    // Limb counterpart of calculateOrder for result of len digits whose order before normalization is given.
+    static int calculateOrder(final long[] limbs, final int resultOrder, final int base, final int len) {
+        int order = resultOrder;
+        final int pos = Limbs.valuation(limbs, base, len);
 
-        final int[] result = new int[PAdic.len];
-        for (int i = 0; i < number.length; ++i) {
-            final int next = number[i] * multiplier + toNext;
-            toNext = next / base;
-            result[i] = next % base;
+        if (pos == len) {
+            return 0;
         }
 
-        return result;
-    }
+        if (0 <= order && order < pos) {
+            order = pos;
+        }
 
-    private int findMultiplier(final int mod, final int multiplier) {
-        for (int i = 0; i < base; ++i) {
-            if ((multiplier * i) % base == mod) {
-                return i;
-            }
+        if (order < 0) {
+            Limbs.shiftDown(limbs, base, len, Math.min(-order, pos), limbs);
+            order += pos;
         }
 
-        return -1;
+        return order;
     }
 
     private static void doEratostheneSieve() {
@@ -614,6 +1251,16 @@ public final class PAdic {
         }
     }
 
+    static void checkForPrecision(final int precision) {
+        if (precision < 1) {
+            throw new RuntimeException("Precision of p-adic number must be positive, but " + precision + " was given.");
+        }
+    }
+
+    private static int commonPrecision(final PAdic first, final PAdic second) {
+        return Math.min(first.getPrecision(), second.getPrecision());
+    }
+
     private static void checkForBaseEquality(final PAdic first, final PAdic second) {
         final boolean areEqual = (first.base == second.base);
         
@@ -622,16 +1269,57 @@ public final class PAdic {
         }
     }
 
+    // Digits of the number unpacked into a new array.
+    int[] digits() {
+        return this.digits(precision);
+    }
+
+    // Lowest len digits of the number unpacked into a new array.
+    private int[] digits(final int len) {
+        final int[] digits = new int[len];
+        Limbs.unpack(limbs, base, len, digits);
+
+        return digits;
+    }
+
+    // Unpacks lowest len digits of the number into given array.
+    void digits(final int[] result, final int len) {
+        Limbs.unpack(limbs, base, len, result);
+    }
+
+    // Limbs of the number. They are shared with the caller and must not be modified.
+    long[] limbs() {
+        return limbs;
+    }
+
+    // Creates number from limbs that hold exactly precision digits and whose order has been calculated.
+    // Limbs are not copied.
+    static PAdic valueOf(final long[] limbs, final int order, final int base, final int precision) {
+        return new PAdic(limbs, order, base, precision);
+    }
+
+    // Creates number from digits whose order has been calculated by calculateOrder. Digits are copied.
+    static PAdic valueOf(final int[] digits, final int order, final int base, final int precision) {
+        return new PAdic(Limbs.pack(digits, base, precision), order, base, precision);
+    }
+
+    // The most significant digits of a result may be affected by truncation of operands,
+    // so only the lower two thirds of digits are shown and compared.
+    private int limit() {
+        return Math.max((this.getPrecision() / 3) << 1, 1);
+    }
+
     @Override
     protected Object clone(){
-        return new PAdic(this.digits, this.order, this.base, false);
+        return new PAdic(this.limbs.clone(), this.order, this.base, this.getPrecision());
     }
 
     @Override
     public String toString() {
-        StringBuilder result = new StringBuilder(PAdic.len);
+        StringBuilder result = new StringBuilder(this.getPrecision());
+        final int[] digits = this.digits();
         final boolean oneDigitBase = base <= 7;
-        int pos = PAdic.limit - 1;
+        int pos = this.limit() - 1;
 
         while (pos >= 0 && digits[pos] == 0) {
             --pos;
@@ -654,8 +1342,9 @@ public final class PAdic {
             result.append('.');
         }
 
+        // Positions of a fraction that lie above precision are zeros.
         for (int i = Math.abs(order) - 1; i >= 0; --i) {
-            result.append(digits[i] + suffix);
+            result.append((i < digits.length ? digits[i] : 0) + suffix);
         }
 
         if (result.charAt(0) == '.') {
@@ -707,23 +1396,17 @@ public final class PAdic {
             return false;
         }
 
-        for (int i = 0; i < PAdic.limit; ++i) {
-            if (this.digits[i] != number.digits[i]) {
-                return false;
-            }
+        if (this.getPrecision() != number.getPrecision()) {
+            return false;
         }
 
-        return true;
+        return Limbs.equal(this.limbs, number.limbs, this.base, this.limit());
     }
 
     @Override
     public int hashCode() {
-        int hash = 0;
         final int prime = 31;
-
-        for (int i = 0; i < PAdic.limit; ++i) {
-            hash = hash * prime + digits[i];
-        }
+        int hash = Limbs.hash(limbs, base, this.limit());
 
         hash = hash * prime + order;
         hash = hash * prime + base;
@@ -0,0 +1,257 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.util.Arrays;
+
+/**
+ * Mutable p-adic number for loops that accumulate many terms.
+ * Operations change the accumulator in place instead of creating new {@link PAdic} instances,
+ * and all the memory they need is allocated once and reused afterwards.
+ * Results are exactly the same as results of corresponding {@link PAdic} operations.
+ * <pre>
+ *     final PAdicAccumulator sum = new PAdicAccumulator(base, precision);
+ *     for (int i = 0; i < a.length; ++i) {
+ *         sum.multiplyAddInPlace(a[i], b[i]);
+ *     }
+ *     final PAdic result = sum.toPAdic();
+ * </pre>
+ * Accumulator is not thread-safe.
+ */
+public final class PAdicAccumulator {
+
+    private final int base;
+    private int[] digits;
+    private int order;
+    private int[] firstOperand;
+    private int[] secondOperand;
+    private int[] product;
+    private long[] workspace;
+
+    /**
+     * Constructs accumulator that holds zero.
+     * @param base base of p-adic numbers to accumulate.
+     *             Notice that base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     */
+    public PAdicAccumulator(final int base, final int precision) {
+        PAdic.checkForPrime(base);
+        PAdic.checkForPrecision(precision);
+
+        this.base = base;
+        this.digits = new int[precision];
+        this.order = 0;
+    }
+
+    /**
+     * Constructs accumulator that holds given number and has the same precision.
+     * @param initial initial value of the accumulator.
+     */
+    public PAdicAccumulator(final PAdic initial) {
+        this(initial.getBase(), initial.getPrecision());
+        set(initial);
+    }
+
+    /**
+     * Replaces value of the accumulator with zero.
+     * @return this accumulator.
+     */
+    public PAdicAccumulator clear() {
+        Arrays.fill(digits, 0);
+        order = 0;
+
+        return this;
+    }
+
+    /**
+     * Replaces value of the accumulator with given number.
+     * @param value new value of the accumulator.
+     * @return this accumulator.
+     */
+    public PAdicAccumulator set(final PAdic value) {
+        checkForBaseEquality(value);
+        fit(value);
+
+        value.digits(digits, digits.length);
+        order = PAdic.calculateOrder(digits, value.getOrder(), value.getOrder(), PAdic.Operation.ADDITION);
+
+        return this;
+    }
+
+    /**
+     * Adds number to the accumulator.
+     * @param added p-adic number to be added.
+     * @return this accumulator.
+     * @see PAdic#add(PAdic)
+     */
+    public PAdicAccumulator addInPlace(final PAdic added) {
+        checkForBaseEquality(added);
+        fit(added);
+
+        order = PAdic.add(digits, order, firstOperand(added), added.getOrder(), base, digits.length, digits);
+
+        return this;
+    }
+
+    /**
+     * Subtracts number from the accumulator.
+     * @param subtracted p-adic number to be subtracted.
+     * @return this accumulator.
+     * @see PAdic#subtract(PAdic)
+     */
+    public PAdicAccumulator subtractInPlace(final PAdic subtracted) {
+        checkForBaseEquality(subtracted);
+        fit(subtracted);
+
+        order = PAdic.subtract(digits, order, firstOperand(subtracted), subtracted.getOrder(), base, digits.length, digits);
+
+        return this;
+    }
+
+    /**
+     * Multiplies the accumulator by number.
+     * @param multiplier value to multiply the accumulator by.
+     * @return this accumulator.
+     * @see PAdic#multiply(PAdic)
+     */
+    public PAdicAccumulator multiplyInPlace(final PAdic multiplier) {
+        checkForBaseEquality(multiplier);
+        fit(multiplier);
+
+        order = PAdic.multiply(digits, order, firstOperand(multiplier), multiplier.getOrder(), base, digits.length, workspace(), digits);
+
+        return this;
+    }
+
+    /**
+     * Adds product of two numbers to the accumulator.
+     * Product is calculated in the internal buffer, so no intermediate numbers are created.
+     * @param first first factor of the product.
+     * @param second second factor of the product.
+     * @return this accumulator.
+     */
+    public PAdicAccumulator multiplyAddInPlace(final PAdic first, final PAdic second) {
+        checkForBaseEquality(first);
+        checkForBaseEquality(second);
+        fit(first);
+        fit(second);
+
+        final int len = digits.length;
+
+        if (product == null) {
+            product = new int[len];
+        }
+
+        final int productOrder = PAdic.multiply(firstOperand(first), first.getOrder(), secondOperand(second), second.getOrder(), base, len, workspace(), product);
+        order = PAdic.add(digits, order, product, productOrder, base, len, digits);
+
+        return this;
+    }
+
+    /**
+     * Returns immutable p-adic number that is equal to the current value of the accumulator.
+     * Accumulator can be used further, it does not affect the returned number.
+     * @return current value of the accumulator.
+     */
+    public PAdic toPAdic() {
+        return PAdic.valueOf(digits, order, base, digits.length);
+    }
+
+    /**
+     * Returns base of the accumulator.
+     * @return base of the accumulator.
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Returns order of the current value.
+     * @return order of the current value.
+     * @see PAdic#getOrder()
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns precision of the accumulator.
+     * Like precision of a result of {@link PAdic} operation, it is the least of precisions of all the numbers
+     * that have been accumulated.
+     * @return precision of the accumulator.
+     */
+    public int getPrecision() {
+        return digits.length;
+    }
+
+    // Lowers precision of the accumulator down to the precision of the operand if it is less.
+    private void fit(final PAdic operand) {
+        final int precision = operand.getPrecision();
+
+        if (precision < digits.length) {
+            digits = Arrays.copyOf(digits, precision);
+            order = PAdic.calculateOrder(digits, order, order, PAdic.Operation.ADDITION);
+            firstOperand = null;
+            secondOperand = null;
+            product = null;
+            workspace = null;
+        }
+    }
+
+    // Unpacks digits of the operand into the internal buffer.
+    private int[] firstOperand(final PAdic operand) {
+        if (firstOperand == null) {
+            firstOperand = new int[digits.length];
+        }
+
+        operand.digits(firstOperand, digits.length);
+
+        return firstOperand;
+    }
+
+    private int[] secondOperand(final PAdic operand) {
+        if (secondOperand == null) {
+            secondOperand = new int[digits.length];
+        }
+
+        operand.digits(secondOperand, digits.length);
+
+        return secondOperand;
+    }
+
+    private long[] workspace() {
+        if (workspace == null) {
+            workspace = new long[Multiplication.workspaceSize(digits.length)];
+        }
+
+        return workspace;
+    }
+
+    private void checkForBaseEquality(final PAdic number) {
+        if (number.getBase() != base) {
+            throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+        }
+    }
+}
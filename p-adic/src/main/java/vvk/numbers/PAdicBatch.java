@@ -0,0 +1,248 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Expansion of the same integers and fractions into p-adic numbers of many bases at once.
+ * Moduli p^precision of all bases are multiplied pairwise into a product tree that is built once per batch.
+ * A value is reduced modulo the root of the tree and then modulo every child down to the leaves,
+ * so every base gets a residue modulo p^precision instead of the whole value,
+ * and reductions of a large value are shared between bases. Subtrees are processed in parallel on a fork-join pool.
+ * <pre>
+ *     final PAdicBatch batch = new PAdicBatch(new int[] {2, 3, 5, 7, 11, 13}, 100);
+ *     final PAdic[] expansions = batch.expand(BigInteger.valueOf(-1), BigInteger.valueOf(3));
+ * </pre>
+ * Every expansion is equal to the number that corresponding constructor of {@link PAdic} gives.
+ * Batches are immutable and may be shared between threads.
+ */
+public final class PAdicBatch {
+
+    private final int[] bases;
+    private final int precision;
+    private final PAdicContext[] contexts;
+    private final ForkJoinPool pool;
+    private final Node root;
+
+    /**
+     * Constructs batch of given bases with default precision that runs on the common fork-join pool.
+     * @param bases bases of p-adic numbers. Notice that every base must be a prime number.
+     */
+    public PAdicBatch(final int[] bases) {
+        this(bases, PAdic.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs batch of given bases that runs on the common fork-join pool.
+     * @param bases bases of p-adic numbers. Notice that every base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     */
+    public PAdicBatch(final int[] bases, final int precision) {
+        this(bases, precision, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs batch of given bases.
+     * @param bases bases of p-adic numbers. Notice that every base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     * @param pool pool that expansions run on.
+     */
+    public PAdicBatch(final int[] bases, final int precision, final ForkJoinPool pool) {
+        if (bases.length == 0) {
+            throw new RuntimeException("Batch must have at least one base.");
+        }
+
+        PAdic.checkForPrecision(precision);
+
+        this.bases = bases.clone();
+        this.precision = precision;
+        this.contexts = new PAdicContext[bases.length];
+        this.pool = pool;
+
+        for (int i = 0; i < bases.length; ++i) {
+            contexts[i] = PAdicContext.of(bases[i]);
+        }
+
+        this.root = pool.invoke(new Build(0, bases.length));
+    }
+
+    /**
+     * Returns p-adic expansions of integer value in all bases of the batch.
+     * @param value integer value in base 10.
+     * @return expansions in the order of bases.
+     * @see PAdic#PAdic(BigInteger, int, int)
+     */
+    public PAdic[] expand(final BigInteger value) {
+        final PAdic[] result = new PAdic[bases.length];
+        pool.invoke(new Expand(root, PAdicBatch.reduce(new BigInteger[] {value}, root.product), null, result));
+
+        return result;
+    }
+
+    /**
+     * Returns p-adic expansions of rational fraction in all bases of the batch.
+     * @param numerator numerator of the fraction in base 10. Must be integer value.
+     * @param denominator denominator of the fracture in base 10. Denominator must be positive.
+     * @return expansions in the order of bases.
+     * @see PAdic#PAdic(BigInteger, BigInteger, int, int)
+     */
+    public PAdic[] expand(final BigInteger numerator, final BigInteger denominator) {
+        if (denominator.signum() == 0) {
+            throw new RuntimeException("Denominator of a fraction cannot be zero.");
+        }
+
+        final BigInteger gcd = numerator.abs().gcd(denominator.abs());
+        final BigInteger[] values = {numerator.divide(gcd), denominator.divide(gcd)};
+        final PAdic[] result = new PAdic[bases.length];
+        pool.invoke(new Expand(root, PAdicBatch.reduce(values, root.square), values[1], result));
+
+        return result;
+    }
+
+    /**
+     * Returns bases of the batch.
+     */
+    public int[] getBases() {
+        return bases.clone();
+    }
+
+    /**
+     * Returns precision of expansions.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    // Node of the product tree: product of p^precision over bases[from, to), and its square.
+    // Fractions are reduced modulo squares, so that a denominator divisible by p^v for v < precision
+    // keeps precision digits above p^v.
+    private static final class Node {
+
+        private final int from;
+        private final int to;
+        private final BigInteger product;
+        private final BigInteger square;
+        private final Node left;
+        private final Node right;
+
+        Node(final int from, final int to, final BigInteger product, final BigInteger square, final Node left, final Node right) {
+            this.from = from;
+            this.to = to;
+            this.product = product;
+            this.square = square;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    private final class Build extends RecursiveTask<Node> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        Build(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Node compute() {
+            if (to - from == 1) {
+                return new Node(from, to, contexts[from].power(precision), contexts[from].power(2 * precision), null, null);
+            }
+
+            final int middle = (from + to) >>> 1;
+            final Build left = new Build(from, middle);
+            left.fork();
+
+            final Node right = new Build(middle, to).compute();
+            final Node leftNode = left.join();
+
+            return new Node(from, to, leftNode.product.multiply(right.product), leftNode.square.multiply(right.square),
+                    leftNode, right);
+        }
+    }
+
+    // Expands residues of the numerator and, for fractions, of the denominator modulo product of the node.
+    // Residues keep sign of the values, so that small negative values are not replaced by residues as large as the product.
+    private final class Expand extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Node node;
+        private final BigInteger[] residues;
+        // Irreducible denominator of a fraction, or null for integers.
+        private final BigInteger denominator;
+        private final PAdic[] result;
+
+        Expand(final Node node, final BigInteger[] residues, final BigInteger denominator, final PAdic[] result) {
+            this.node = node;
+            this.residues = residues;
+            this.denominator = denominator;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (node.left == null) {
+                final PAdicContext context = contexts[node.from];
+
+                if (denominator == null) {
+                    result[node.from] = new PAdic(residues[0], context, precision);
+                } else {
+                    // Residue modulo p^(2 * precision) keeps enough digits of the denominator unless it is divisible
+                    // by p^precision, and then the whole denominator is used.
+                    final boolean isEnough = residues[1].mod(context.power(precision)).signum() != 0;
+                    result[node.from] = PAdic.fraction(residues[0], isEnough ? residues[1] : denominator, context, precision);
+                }
+
+                return;
+            }
+
+            final boolean isFraction = denominator != null;
+
+            invokeAll(
+                    new Expand(node.left, PAdicBatch.reduce(residues, isFraction ? node.left.square : node.left.product), denominator, result),
+                    new Expand(node.right, PAdicBatch.reduce(residues, isFraction ? node.right.square : node.right.product), denominator, result));
+        }
+    }
+
+    // Values whose absolute values are reduced modulo the product, signs are kept.
+    private static BigInteger[] reduce(final BigInteger[] values, final BigInteger modulus) {
+        final BigInteger[] reduced = new BigInteger[values.length];
+
+        for (int i = 0; i < values.length; ++i) {
+            reduced[i] = values[i].abs().compareTo(modulus) < 0 ? values[i] : values[i].remainder(modulus);
+        }
+
+        return reduced;
+    }
+}
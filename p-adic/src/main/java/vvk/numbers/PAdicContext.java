@@ -0,0 +1,433 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tables and constants of one base that arithmetic of p-adic numbers keeps looking up:
+ * inverses of digits modulo p, powers of p as <code>int</code>, <code>long</code> and {@link BigInteger},
+ * powers that fit into one limb and constants of Montgomery reduction used by {@link PAdicLong}.
+ * Context of a base is built once and shared afterwards, and numbers created through it skip validation of the base.
+ * <pre>
+ *     final PAdicContext context = PAdicContext.of(5);
+ *     final PAdic x = context.valueOf(-7).add(context.one());
+ * </pre>
+ * Contexts are immutable apart from caches that are filled on demand, and may be shared between threads.
+ */
+public final class PAdicContext {
+
+    // Contexts indexed by base. Context that loses a race of creation is dropped, and the stored one is used by everyone.
+    private static final AtomicReferenceArray<PAdicContext> CONTEXTS = new AtomicReferenceArray<PAdicContext>(1 << 16);
+    // Number of BigInteger powers kept per base, one for every precision in use.
+    private static final int BIG_POWERS_LIMIT = (1 << 8);
+    // Number of factorial inverses kept per base, one for every length of series and precision in use.
+    private static final int FACTORIAL_INVERSES_LIMIT = (1 << 8);
+
+    private final int base;
+    private final int[] inverses;
+    private final int primitiveRoot;
+    private final int[] intPowers;
+    private final long[] longPowers;
+    private final long[] limbPowers;
+    private final ConcurrentMap<Integer, BigInteger> bigPowers;
+    private final ConcurrentMap<Long, int[]> factorialInverses;
+    private final BigInteger[] limbRadixSquares;
+    private final AtomicReferenceArray<PAdicLong.Modulus> moduli;
+    private final PAdic zero;
+    private final PAdic one;
+
+    private PAdicContext(final int base) {
+        this.base = base;
+        this.inverses = PAdicContext.inverses(base);
+        this.primitiveRoot = PAdicContext.primitiveRoot(base);
+        this.longPowers = PAdicContext.powers(base, Long.MAX_VALUE);
+        this.intPowers = new int[PAdicContext.powers(base, Integer.MAX_VALUE).length];
+
+        for (int i = 0; i < intPowers.length; ++i) {
+            intPowers[i] = (int) longPowers[i];
+        }
+
+        this.limbPowers = PAdicContext.powers(base, Limbs.LIMB_BOUND);
+        this.bigPowers = new ConcurrentHashMap<Integer, BigInteger>();
+        this.factorialInverses = new ConcurrentHashMap<Long, int[]>();
+        this.limbRadixSquares = new BigInteger[Integer.SIZE];
+        this.limbRadixSquares[0] = BigInteger.valueOf(limbPowers[limbPowers.length - 1]);
+        this.moduli = new AtomicReferenceArray<PAdicLong.Modulus>(longPowers.length);
+
+        final int k = base == 2 ? TwoAdic.WORD_SIZE : limbPowers.length - 1;
+        final long[] oneLimbs = new long[(PAdic.DEFAULT_PRECISION + k - 1) / k];
+        oneLimbs[0] = 1;
+
+        this.zero = PAdic.valueOf(new long[oneLimbs.length], 0, base, PAdic.DEFAULT_PRECISION);
+        this.one = PAdic.valueOf(oneLimbs, 0, base, PAdic.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Returns context of given base.
+     * @param base base of p-adic numbers. Notice that base must be a prime number.
+     * @return context that is shared by all callers asking for the same base.
+     */
+    public static PAdicContext of(final int base) {
+        PAdic.checkForPrime(base);
+
+        return PAdicContext.cached(base);
+    }
+
+    // Context of the base that is known to be prime.
+    static PAdicContext cached(final int base) {
+        final PAdicContext context = CONTEXTS.get(base);
+
+        if (context != null) {
+            return context;
+        }
+
+        CONTEXTS.compareAndSet(base, null, new PAdicContext(base));
+
+        return CONTEXTS.get(base);
+    }
+
+    /**
+     * Returns base of the context.
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Returns zero with default precision.
+     */
+    public PAdic zero() {
+        return zero;
+    }
+
+    /**
+     * Returns one with default precision.
+     */
+    public PAdic one() {
+        return one;
+    }
+
+    /**
+     * Returns zero with given precision.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     */
+    public PAdic zero(final int precision) {
+        if (precision == PAdic.DEFAULT_PRECISION) {
+            return zero;
+        }
+
+        PAdic.checkForPrecision(precision);
+
+        return PAdic.valueOf(new long[Limbs.limbCount(precision, base)], 0, base, precision);
+    }
+
+    /**
+     * Returns one with given precision.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     */
+    public PAdic one(final int precision) {
+        if (precision == PAdic.DEFAULT_PRECISION) {
+            return one;
+        }
+
+        PAdic.checkForPrecision(precision);
+
+        final long[] limbs = new long[Limbs.limbCount(precision, base)];
+        limbs[0] = 1;
+
+        return PAdic.valueOf(limbs, 0, base, precision);
+    }
+
+    /**
+     * Constructs p-adic number of this base from integer value with default precision.
+     * @param value integer value in base 10.
+     */
+    public PAdic valueOf(final long value) {
+        return this.valueOf(BigInteger.valueOf(value), PAdic.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs p-adic number of this base from integer value.
+     * @param value integer value in base 10.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     */
+    public PAdic valueOf(final long value, final int precision) {
+        return this.valueOf(BigInteger.valueOf(value), precision);
+    }
+
+    /**
+     * Constructs p-adic number of this base from integer value with default precision.
+     * @param value integer value in base 10.
+     */
+    public PAdic valueOf(final BigInteger value) {
+        return this.valueOf(value, PAdic.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs p-adic number of this base from integer value.
+     * @param value integer value in base 10.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     */
+    public PAdic valueOf(final BigInteger value, final int precision) {
+        return new PAdic(value, this, precision);
+    }
+
+    /**
+     * Constructs p-adic number of this base from rational fraction with default precision.
+     * @param numerator numerator of the fraction in base 10. Must be integer value.
+     * @param denominator denominator of the fracture in base 10. Denominator must be positive.
+     */
+    public PAdic valueOf(final BigInteger numerator, final BigInteger denominator) {
+        return this.valueOf(numerator, denominator, PAdic.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs p-adic number of this base from rational fraction.
+     * @param numerator numerator of the fraction in base 10. Must be integer value.
+     * @param denominator denominator of the fracture in base 10. Denominator must be positive.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     */
+    public PAdic valueOf(final BigInteger numerator, final BigInteger denominator, final int precision) {
+        return new PAdic(numerator, denominator, this, precision);
+    }
+
+    /**
+     * Returns table of inverses modulo base: <code>x * table[x] = 1 (mod base)</code> for every non-zero x.
+     * Table is shared, callers must not modify it.
+     */
+    int[] inverses() {
+        return inverses;
+    }
+
+    /**
+     * Returns p^exponent as <code>int</code>.
+     * @param exponent non-negative exponent such that p^exponent does not exceed {@link Integer#MAX_VALUE}.
+     */
+    int intPower(final int exponent) {
+        return intPowers[exponent];
+    }
+
+    /**
+     * Returns the least primitive root modulo p, i.e. generator of the multiplicative group of residues.
+     */
+    int primitiveRoot() {
+        return primitiveRoot;
+    }
+
+    /**
+     * Returns p^exponent as <code>long</code>.
+     * @param exponent non-negative exponent such that p^exponent does not exceed {@link Long#MAX_VALUE}.
+     */
+    long longPower(final int exponent) {
+        return longPowers[exponent];
+    }
+
+    /**
+     * Returns p^exponent as {@link BigInteger}.
+     * Powers are cached, so moduli of the precisions in use are computed only once.
+     * @param exponent non-negative exponent.
+     */
+    BigInteger power(final int exponent) {
+        if (exponent < longPowers.length) {
+            return BigInteger.valueOf(longPowers[exponent]);
+        }
+
+        BigInteger power = bigPowers.get(exponent);
+
+        if (power == null) {
+            power = BigInteger.valueOf(base).pow(exponent);
+
+            if (bigPowers.size() < BIG_POWERS_LIMIT) {
+                bigPowers.putIfAbsent(exponent, power);
+            }
+        }
+
+        return power;
+    }
+
+    /**
+     * Returns exponent of p in n!, which is the sum of n / p^i by Legendre's formula.
+     * @param n non-negative integer.
+     */
+    int factorialValuation(final int n) {
+        int valuation = 0;
+
+        for (int rest = n / base; rest > 0; rest /= base) {
+            valuation += rest;
+        }
+
+        return valuation;
+    }
+
+    /**
+     * Returns digits of the inverse of n! / p^v modulo p^len, where v is {@link #factorialValuation(int)}.
+     * Inverses are cached, so series of the same length and precision share them.
+     * Array is shared, callers must not modify it.
+     * @param n non-negative integer.
+     * @param len positive number of digits.
+     */
+    int[] factorialUnitInverse(final int n, final int len) {
+        final Long key = ((long) n << Integer.SIZE) | len;
+        int[] inverse = factorialInverses.get(key);
+
+        if (inverse == null) {
+            final int[] factorial = new int[len];
+            factorial[0] = 1;
+
+            for (int k = 2; k <= n; ++k) {
+                int factor = k;
+
+                while (factor % base == 0) {
+                    factor /= base;
+                }
+
+                Series.multiply(factorial, factor, base, len);
+            }
+
+            inverse = Division.inverse(factorial, base, len);
+
+            if (factorialInverses.size() < FACTORIAL_INVERSES_LIMIT) {
+                factorialInverses.putIfAbsent(key, inverse);
+            }
+        }
+
+        return inverse;
+    }
+
+    /**
+     * Returns powers p^0, p^1, ..., p^k, where k is number of digits per limb (see {@link Limbs}).
+     * Table is shared, callers must not modify it.
+     */
+    long[] limbPowers() {
+        return limbPowers;
+    }
+
+    /**
+     * Returns R^(2^j), where R = p^k is the largest power of p that fits into one limb.
+     * Squares are built on first use and shared afterwards, they split and join limbs in conversions to {@link BigInteger}.
+     * @param j non-negative exponent of the square.
+     */
+    BigInteger limbRadixSquare(final int j) {
+        BigInteger square = limbRadixSquares[j];
+
+        if (square == null) {
+            final BigInteger root = this.limbRadixSquare(j - 1);
+            square = root.multiply(root);
+            limbRadixSquares[j] = square;
+        }
+
+        return square;
+    }
+
+    /**
+     * Returns arithmetic modulo p^precision on longs.
+     * @param precision positive precision not greater than {@link PAdicLong#maxPrecision(int)}.
+     */
+    PAdicLong.Modulus modulus(final int precision) {
+        PAdic.checkForPrecision(precision);
+
+        if (!(precision < moduli.length())) {
+            throw new RuntimeException("Precision " + precision + " is too large for base " + base + ", p^precision must fit into long.");
+        }
+
+        final PAdicLong.Modulus modulus = moduli.get(precision);
+
+        if (modulus != null) {
+            return modulus;
+        }
+
+        moduli.compareAndSet(precision, null, new PAdicLong.Modulus(base, precision));
+
+        return moduli.get(precision);
+    }
+
+    // Powers p^0, p^1, ..., p^k, where p^k is the largest power not exceeding bound.
+    private static long[] powers(final int base, final long bound) {
+        int k = 0;
+
+        for (long power = 1; power <= bound / base; power *= base) {
+            ++k;
+        }
+
+        final long[] powers = new long[k + 1];
+        powers[0] = 1;
+
+        for (int i = 1; i <= k; ++i) {
+            powers[i] = powers[i - 1] * base;
+        }
+
+        return powers;
+    }
+
+    // Inverses modulo base, built from x^(-1) = -(p / x) * (p mod x)^(-1) (mod p).
+    private static int[] inverses(final int base) {
+        final int[] table = new int[base];
+        table[1] = 1;
+
+        for (int i = 2; i < base; ++i) {
+            table[i] = (int) ((base - (long) (base / i) * table[base % i] % base) % base);
+        }
+
+        return table;
+    }
+
+    // The least g such that g^((p - 1) / q) != 1 (mod p) for every prime q dividing p - 1.
+    private static int primitiveRoot(final int base) {
+        final int order = base - 1;
+        final int[] factors = new int[Integer.SIZE];
+        int count = 0;
+        int rest = order;
+
+        for (int q = 2; q * q <= rest; ++q) {
+            if (rest % q == 0) {
+                factors[count++] = q;
+
+                while (rest % q == 0) {
+                    rest /= q;
+                }
+            }
+        }
+
+        if (rest > 1) {
+            factors[count++] = rest;
+        }
+
+        for (int g = 1; ; ++g) {
+            boolean generates = true;
+
+            for (int i = 0; i < count && generates; ++i) {
+                generates = Roots.power(g, order / factors[i], base) != 1;
+            }
+
+            if (generates) {
+                return g;
+            }
+        }
+    }
+}
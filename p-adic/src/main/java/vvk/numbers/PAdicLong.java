@@ -0,0 +1,489 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+
+/**
+ * P-adic number whose digits fit into one machine word.
+ * When p^precision does not exceed {@link Long#MAX_VALUE}, digits of a number form a single <code>long</code>
+ * modulo p^precision, so arithmetic needs no arrays at all:
+ * products are reduced with Montgomery reduction for odd bases and with a mask for base 2.
+ * Every operation gives exactly the same digits and order as corresponding operation of {@link PAdic}.
+ * <pre>
+ *     final PAdicLong x = new PAdicLong(-7, 3, 39);
+ *     final PAdicLong y = x.multiply(x).add(x);
+ *     final PAdic z = y.toPAdic();
+ * </pre>
+ * Instances are immutable and may be shared between threads.
+ */
+public final class PAdicLong {
+
+    private final Modulus modulus;
+    private final long value;
+    private final int order;
+
+    /**
+     * Constructs p-adic number from integer value.
+     * @param value integer value in base 10.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive and not greater than
+     *                  {@link #maxPrecision(int)}.
+     */
+    public PAdicLong(final long value, final int base, final int precision) {
+        this.modulus = PAdicContext.of(base).modulus(precision);
+        this.value = Math.floorMod(value, modulus.value);
+
+        final int order = modulus.valuation(this.value);
+
+        this.order = order < precision ? order : 0;
+    }
+
+    /**
+     * Constructs p-adic number from rational fraction.
+     * @param numerator numerator of the fraction in base 10.
+     * @param denominator denominator of the fracture in base 10. Denominator must be positive.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive and not greater than
+     *                  {@link #maxPrecision(int)}.
+     */
+    public PAdicLong(final long numerator, final long denominator, final int base, final int precision) {
+        this(PAdicLong.fraction(numerator, denominator, base, precision));
+    }
+
+    /**
+     * Constructs p-adic number that has the same base, precision, digits and order as given one.
+     * @param number p-adic number. Its precision must not be greater than {@link #maxPrecision(int)}.
+     */
+    public PAdicLong(final PAdic number) {
+        this.modulus = PAdicContext.cached(number.getBase()).modulus(number.getPrecision());
+        this.value = Limbs.toBigInteger(number.limbs(), modulus.base, modulus.precision).longValue();
+        this.order = number.getOrder();
+    }
+
+    private PAdicLong(final PAdicLong number) {
+        this(number.modulus, number.value, number.order);
+    }
+
+    private PAdicLong(final Modulus modulus, final long value, final int order) {
+        this.modulus = modulus;
+        this.value = value;
+        this.order = order;
+    }
+
+    /**
+     * Returns the largest precision that numbers of given base can have, i.e. the largest N with p^N in a <code>long</code>.
+     * @param base base of p-adic numbers.
+     * @return the largest precision.
+     */
+    public static int maxPrecision(final int base) {
+        int precision = 0;
+
+        for (long power = 1; power <= Long.MAX_VALUE / base; power *= base) {
+            ++precision;
+        }
+
+        return precision;
+    }
+
+    /**
+     * Returns value that gives zero in addition with this number.
+     * @return number that is opposite to this one.
+     * @see PAdic#negative()
+     */
+    public PAdicLong negative() {
+        return new PAdicLong(modulus, value == 0 ? 0 : modulus.value - value, order);
+    }
+
+    /**
+     * Returns result of sum this p-adic number with <code>added</code>.
+     * Precision of the result is the least of precisions of the operands.
+     * @param added p-adic number to be added.
+     * @return p-adic number that is result of sum.
+     * @see PAdic#add(PAdic)
+     */
+    public PAdicLong add(final PAdicLong added) {
+        final Modulus modulus = this.commonModulus(added);
+        final int diff = PAdic.pointShift(this.order, added.order);
+        final long first = modulus.shiftUp(modulus.residue(this), Math.max(diff, 0));
+        final long second = modulus.shiftUp(modulus.residue(added), Math.max(-diff, 0));
+
+        return modulus.normalize(modulus.add(first, second), Math.min(this.order, added.order));
+    }
+
+    /**
+     * Returns difference of p-adic number and <code>subtracted</code> value.
+     * Precision of the result is the least of precisions of the operands.
+     * @param subtracted p-adic number to be subtracted.
+     * @return p-adic number that is result of subtraction.
+     * @see PAdic#subtract(PAdic)
+     */
+    public PAdicLong subtract(final PAdicLong subtracted) {
+        final Modulus modulus = this.commonModulus(subtracted);
+        final int diff = PAdic.pointShift(this.order, subtracted.order);
+        final long first = modulus.shiftUp(modulus.residue(this), Math.max(diff, 0));
+        final long second = modulus.shiftUp(modulus.residue(subtracted), Math.max(-diff, 0));
+
+        return modulus.normalize(modulus.subtract(first, second), Math.min(this.order, subtracted.order));
+    }
+
+    /**
+     * Returns result of multiplication of this p-adic number by <code>multiplier</code> value.
+     * Precision of the result is the least of precisions of the operands.
+     * @param multiplier value to multiply this p-adic number by.
+     * @return p-adic number that is result of multiplication.
+     * @see PAdic#multiply(PAdic)
+     */
+    public PAdicLong multiply(final PAdicLong multiplier) {
+        final Modulus modulus = this.commonModulus(multiplier);
+        long result = modulus.multiply(modulus.residue(this), modulus.residue(multiplier));
+
+        // Product of numbers with orders of different signs may have zeros below the point, see PAdic.
+        final int minOrder = Math.min(this.order, multiplier.order);
+        final int maxOrder = Math.max(this.order, multiplier.order);
+
+        if (minOrder < 0 && 0 < maxOrder) {
+            result = modulus.shiftDown(result, Math.min(modulus.valuation(result), -minOrder));
+        }
+
+        return modulus.normalize(result, this.order + multiplier.order);
+    }
+
+    /**
+     * Returns result of division of this p-adic number by <code>divisor</code> value.
+     * Precision of the result is the least of precisions of the operands.
+     * @param divisor value to divide this p-adic number by.
+     * @return p-adic number that is result of division.
+     * @see PAdic#divide(PAdic)
+     */
+    public PAdicLong divide(final PAdicLong divisor) {
+        final Modulus modulus = this.commonModulus(divisor);
+        long divided = modulus.residue(this);
+        long divisorValue = modulus.residue(divisor);
+
+        int pos = Math.min(modulus.valuation(divided), modulus.valuation(divisorValue));
+        divided = modulus.shiftDown(divided, pos);
+        divisorValue = modulus.shiftDown(divisorValue, pos);
+
+        int dividedOrder = this.order - pos;
+        int divisorOrder = divisor.order - pos;
+
+        pos = modulus.valuation(divisorValue);
+        divisorValue = modulus.shiftDown(divisorValue, pos);
+        dividedOrder -= pos;
+        divisorOrder -= pos;
+
+        if (divisorOrder < 0 && divisorOrder < dividedOrder) {
+            final int diff = Math.min(dividedOrder, 0) - divisorOrder;
+            divided = modulus.shiftUp(divided, diff);
+            dividedOrder += diff;
+            divisorOrder = 0;
+        }
+
+        final long result;
+
+        if (divisorValue == 0) {
+            // Divisor is zero, so the only number that can be divided by it is zero.
+            if (divided != 0) {
+                final long digit = modulus.shiftDown(divided, modulus.valuation(divided)) % modulus.base;
+                throw new RuntimeException("CALCULATION FAILED. Couldn't find multiplier x satisfying " + digit + " = x0 (mod " + modulus.base + ").");
+            }
+
+            result = 0;
+        } else {
+            result = modulus.multiply(divided, modulus.inverse(divisorValue));
+        }
+
+        return modulus.normalize(result, dividedOrder - divisorOrder);
+    }
+
+    /**
+     * Returns order of p-adic number.
+     * @return order of the number.
+     * @see PAdic#getOrder()
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns base of p-adic number.
+     * @return base of the number.
+     */
+    public int getBase() {
+        return modulus.base;
+    }
+
+    /**
+     * Returns precision of p-adic number.
+     * @return precision of the number.
+     * @see PAdic#getPrecision()
+     */
+    public int getPrecision() {
+        return modulus.precision;
+    }
+
+    /**
+     * Returns digit of p-adic number that stands at <i>p</i> in power <code>position</code>.
+     * @param position power of <i>p</i> the digit stands at.
+     * @return digit at the position. Digits at positions that are less than order are zero.
+     * @see PAdic#getDigit(int)
+     */
+    public int getDigit(final int position) {
+        final int index = position - Math.min(order, 0);
+
+        if (index < 0) {
+            return 0;
+        }
+
+        if (index >= modulus.precision) {
+            throw new RuntimeException("Digit at position " + position + " is beyond precision of the number.");
+        }
+
+        return (int) (modulus.shiftDown(value, index) % modulus.base);
+    }
+
+    /**
+     * Returns p-adic number with digit sequence representation that has the same digits.
+     * @return p-adic number equal to this one.
+     */
+    public PAdic toPAdic() {
+        final long[] limbs = Limbs.fromBigInteger(BigInteger.valueOf(value), modulus.base, modulus.precision);
+
+        return PAdic.valueOf(limbs, order, modulus.base, modulus.precision);
+    }
+
+    @Override
+    public String toString() {
+        return this.toPAdic().toString();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof PAdicLong)) {
+            return false;
+        }
+
+        final PAdicLong number = (PAdicLong) obj;
+
+        // Moduli are compared by value, since a number may keep a modulus that is not the one its context keeps.
+        if (this.modulus.base != number.modulus.base || this.modulus.precision != number.modulus.precision
+                || this.order != number.order) {
+            return false;
+        }
+
+        final long shown = modulus.powers[modulus.limit()];
+
+        return this.value % shown == number.value % shown;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        final long shown = value % modulus.powers[modulus.limit()];
+        int hash = (int) (shown ^ (shown >>> 32));
+
+        hash = hash * prime + order;
+        hash = hash * prime + modulus.base;
+        hash = hash * prime + modulus.precision;
+
+        return hash;
+    }
+
+    private static PAdicLong fraction(final long numerator, final long denominator, final int base, final int precision) {
+        final BigInteger gcd = BigInteger.valueOf(numerator).gcd(BigInteger.valueOf(denominator));
+
+        return new PAdicLong(BigInteger.valueOf(numerator).divide(gcd).longValue(), base, precision)
+                .divide(new PAdicLong(BigInteger.valueOf(denominator).divide(gcd).longValue(), base, precision));
+    }
+
+    // Modulus of the operand whose precision is the precision of the result.
+    private Modulus commonModulus(final PAdicLong other) {
+        if (this.modulus.base != other.modulus.base) {
+            throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+        }
+
+        return this.modulus.precision <= other.modulus.precision ? this.modulus : other.modulus;
+    }
+
+    /**
+     * Arithmetic modulo p^precision on longs. Instances are kept by {@link PAdicContext} and shared between all numbers of the same base and precision.
+     */
+    static final class Modulus {
+
+        private final int base;
+        private final int precision;
+        private final long value;
+        private final long[] powers;
+        // -value^(-1) mod 2^64 and 2^128 mod value for Montgomery reduction, unused for base 2.
+        private final long negatedInverse;
+        private final long montgomerySquare;
+
+        Modulus(final int base, final int precision) {
+            this.base = base;
+            this.precision = precision;
+            this.powers = new long[precision + 1];
+            this.powers[0] = 1;
+
+            for (int i = 1; i <= precision; ++i) {
+                powers[i] = powers[i - 1] * base;
+            }
+
+            this.value = powers[precision];
+
+            if (base == 2) {
+                this.negatedInverse = 0;
+                this.montgomerySquare = 0;
+            } else {
+                // x * x = 1 (mod 8) for every odd x, and every step doubles number of correct bits.
+                long inverse = value;
+
+                for (int bits = 3; bits < 64; bits <<= 1) {
+                    inverse *= 2 - value * inverse;
+                }
+
+                this.negatedInverse = -inverse;
+                this.montgomerySquare = BigInteger.ONE.shiftLeft(128).mod(BigInteger.valueOf(value)).longValue();
+            }
+        }
+
+        long add(final long x, final long y) {
+            final long sum = x - (value - y);
+
+            return sum < 0 ? sum + value : sum;
+        }
+
+        long subtract(final long x, final long y) {
+            final long difference = x - y;
+
+            return difference < 0 ? difference + value : difference;
+        }
+
+        long multiply(final long x, final long y) {
+            if (base == 2) {
+                return (x * y) & (value - 1);
+            }
+
+            return this.reduce(this.reduce(x, y), montgomerySquare);
+        }
+
+        // Montgomery reduction of the 128-bit product: x * y * 2^(-64) mod value.
+        private long reduce(final long x, final long y) {
+            final long low = x * y;
+            final long high = TwoAdic.multiplyHigh(x, y);
+            final long factor = low * negatedInverse;
+            long result = high + TwoAdic.multiplyHigh(factor, value) + (low != 0 ? 1 : 0);
+
+            if (Long.compareUnsigned(result, value) >= 0) {
+                result -= value;
+            }
+
+            return result;
+        }
+
+        // Inverse of the unit lifted by Newton iteration x = x * (2 - unit * x), see Division.
+        long inverse(final long unit) {
+            long result = PAdicContext.cached(base).inverses()[(int) (unit % base)];
+
+            for (int correct = 1; correct < precision; correct <<= 1) {
+                result = this.multiply(result, this.subtract(2 % value, this.multiply(unit, result)));
+            }
+
+            return result;
+        }
+
+        // Value of the number modulo p^precision of this modulus, which is not greater than precision of the number.
+        long residue(final PAdicLong number) {
+            return number.modulus == this ? number.value : number.value % value;
+        }
+
+        long shiftUp(final long x, final int count) {
+            if (count == 0) {
+                return x;
+            }
+
+            return count >= precision ? 0 : this.multiply(x, powers[count]);
+        }
+
+        long shiftDown(final long x, final int count) {
+            return count >= precision ? 0 : x / powers[count];
+        }
+
+        // Number of lowest zero digits, precision for zero.
+        int valuation(final long x) {
+            if (x == 0) {
+                return precision;
+            }
+
+            if (base == 2) {
+                return Long.numberOfTrailingZeros(x);
+            }
+
+            int valuation = 0;
+            long current = x;
+
+            while (current % base == 0) {
+                current /= base;
+                ++valuation;
+            }
+
+            return valuation;
+        }
+
+        // Normalizes order of result like PAdic.calculateOrder does for digits.
+        PAdicLong normalize(final long result, final int order) {
+            final int pos = this.valuation(result);
+
+            if (pos == precision) {
+                return new PAdicLong(this, 0, 0);
+            }
+
+            int actualOrder = order;
+            long actualValue = result;
+
+            if (0 <= actualOrder && actualOrder < pos) {
+                actualOrder = pos;
+            }
+
+            if (actualOrder < 0) {
+                actualValue = this.shiftDown(actualValue, Math.min(-actualOrder, pos));
+                actualOrder += pos;
+            }
+
+            return new PAdicLong(this, actualValue, actualOrder);
+        }
+
+        // Only the lower two thirds of digits are shown and compared, like in PAdic.
+        int limit() {
+            return Math.max((precision / 3) << 1, 1);
+        }
+    }
+}
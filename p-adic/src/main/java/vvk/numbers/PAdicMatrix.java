@@ -0,0 +1,793 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Matrix of p-adic numbers of the same base.
+ * Digits of all the entries are stored in one array entry after entry, row by row, and their orders in another one,
+ * so a matrix is a few objects whatever its size is.
+ * <p>
+ * Operations multiply matrices by the power of p that makes all their entries p-adic integers,
+ * so that entries become plain digit sequences modulo p^len, and divide results by such powers at the end.
+ * Product is computed in square blocks of entries: digits of the operands are packed into columns once,
+ * column sums of all the products that make an entry are accumulated and normalized once per entry,
+ * and blocks are multiplied in parallel on a fork-join pool.
+ * <p>
+ * Determinant and inverse are found by Gaussian elimination that takes the entry of the least order as pivot,
+ * so multipliers of the pivot row are p-adic integers and no digits are lost to division in the middle.
+ * <pre>
+ *     final PAdicMatrix matrix = new PAdicMatrix(entries);
+ *     final PAdicMatrix identity = matrix.multiply(matrix.inverse());
+ * </pre>
+ * Matrices are immutable and may be shared between threads.
+ */
+public final class PAdicMatrix {
+
+    // Number of rows and columns in a block of the product that one task computes.
+    private static final int BLOCK_SIZE = (1 << 3);
+
+    private final int base;
+    private final int precision;
+    private final int rows;
+    private final int columns;
+    private final int[] digits;
+    private final int[] orders;
+
+    /**
+     * Constructs matrix of given entries.
+     * Precision of the matrix is the least of precisions of the entries.
+     * @param entries rows of the matrix. There must be at least one row, all of them must have the same
+     *                positive length, and all the entries must have the same base.
+     */
+    public PAdicMatrix(final PAdic[][] entries) {
+        if (entries.length == 0 || entries[0].length == 0) {
+            throw new RuntimeException("Matrix must have at least one row and one column.");
+        }
+
+        final int base = entries[0][0].getBase();
+        int precision = entries[0][0].getPrecision();
+
+        for (final PAdic[] row : entries) {
+            if (row.length != entries[0].length) {
+                throw new RuntimeException("All rows of a matrix must have the same length.");
+            }
+
+            for (final PAdic entry : row) {
+                if (entry.getBase() != base) {
+                    throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+                }
+
+                precision = Math.min(precision, entry.getPrecision());
+            }
+        }
+
+        this.base = base;
+        this.precision = precision;
+        this.rows = entries.length;
+        this.columns = entries[0].length;
+        this.digits = new int[rows * columns * precision];
+        this.orders = new int[rows * columns];
+
+        final int[] buffer = new int[precision];
+
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                final PAdic entry = entries[i][j];
+                final int index = i * columns + j;
+
+                entry.digits(buffer, precision);
+                // Entries of greater precision lose their highest digits, and their orders are recalculated.
+                orders[index] = PAdic.calculateOrder(buffer, entry.getOrder(), entry.getOrder(), PAdic.Operation.ADDITION);
+                System.arraycopy(buffer, 0, digits, index * precision, precision);
+            }
+        }
+    }
+
+    private PAdicMatrix(final int base, final int precision, final int rows, final int columns,
+                        final int[] digits, final int[] orders) {
+        this.base = base;
+        this.precision = precision;
+        this.rows = rows;
+        this.columns = columns;
+        this.digits = digits;
+        this.orders = orders;
+    }
+
+    /**
+     * Returns identity matrix.
+     * @param size number of rows and columns. Must be positive.
+     * @param base base of p-adic numbers. Notice that base must be a prime number.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     * @return identity matrix of given size.
+     */
+    public static PAdicMatrix identity(final int size, final int base, final int precision) {
+        PAdic.checkForPrime(base);
+        PAdic.checkForPrecision(precision);
+
+        if (size < 1) {
+            throw new RuntimeException("Matrix must have at least one row and one column.");
+        }
+
+        final int[] digits = new int[size * size * precision];
+
+        for (int i = 0; i < size; ++i) {
+            digits[(i * size + i) * precision] = 1;
+        }
+
+        return new PAdicMatrix(base, precision, size, size, digits, new int[size * size]);
+    }
+
+    /**
+     * Returns entry of the matrix.
+     * @param row index of the row, starting from zero.
+     * @param column index of the column, starting from zero.
+     * @return entry at given row and column.
+     */
+    public PAdic get(final int row, final int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new RuntimeException("Matrix of size " + rows + "x" + columns + " has no entry at (" + row + ", " + column + ").");
+        }
+
+        final int index = row * columns + column;
+
+        return PAdic.valueOf(Arrays.copyOfRange(digits, index * precision, (index + 1) * precision), orders[index], base, precision);
+    }
+
+    /**
+     * Returns entries of the matrix.
+     * @return new array of rows of the matrix.
+     */
+    public PAdic[][] toArray() {
+        final PAdic[][] entries = new PAdic[rows][columns];
+
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                entries[i][j] = this.get(i, j);
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Returns product of this matrix and the multiplier, computing blocks of it in parallel on the common fork-join pool.
+     * @param multiplier matrix to multiply this one by. It must have as many rows as this matrix has columns.
+     * @return matrix that is product of the matrices.
+     * @see #multiply(PAdicMatrix, ForkJoinPool)
+     */
+    public PAdicMatrix multiply(final PAdicMatrix multiplier) {
+        return this.multiply(multiplier, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns product of this matrix and the multiplier.
+     * Entries of the product are computed modulo p^len after both matrices are made integral,
+     * where len is the least of precisions of the matrices, so when the matrices have entries of negative order,
+     * the highest digits of the product may differ from the ones of the sums of products computed by {@link PAdic}.
+     * @param multiplier matrix to multiply this one by. It must have as many rows as this matrix has columns.
+     * @param pool fork-join pool to compute blocks of the product on.
+     * @return matrix that is product of the matrices.
+     */
+    public PAdicMatrix multiply(final PAdicMatrix multiplier, final ForkJoinPool pool) {
+        if (multiplier.base != base) {
+            throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+        }
+
+        if (columns != multiplier.rows) {
+            throw new RuntimeException("Matrix of size " + rows + "x" + columns + " cannot be multiplied by matrix of size "
+                    + multiplier.rows + "x" + multiplier.columns + ".");
+        }
+
+        final Product product = new Product(this, multiplier);
+        final int blocks = product.rowBlocks * product.columnBlocks;
+
+        if (blocks == 1) {
+            product.multiply(0);
+        } else {
+            pool.invoke(new Multiply(product, 0, blocks));
+        }
+
+        return new PAdicMatrix(base, product.len, rows, multiplier.columns, product.digits, product.orders);
+    }
+
+    /**
+     * Returns determinant of the matrix.
+     * Determinant is product of the pivots of Gaussian elimination, so it costs about n^3 / 3 multiplications of entries.
+     * Precision of the determinant is the precision of the matrix, but its highest digits may be inexact
+     * when the pivots have positive orders.
+     * @return p-adic number that is determinant of the matrix.
+     */
+    public PAdic determinant() {
+        this.checkForSquare();
+
+        final int len = precision;
+        final int scale = this.scale();
+        final Elimination elimination = new Elimination(this.integral(scale, len, 0, rows), base, rows, rows, len);
+        elimination.forward();
+
+        if (elimination.singular) {
+            return PAdicContext.cached(base).zero(len);
+        }
+
+        final long[] workspace = new long[Multiplication.workspaceSize(len)];
+        final int[] determinant = new int[len];
+        determinant[0] = 1;
+        int valuation = 0;
+
+        for (int i = 0; i < rows; ++i) {
+            Multiplication.multiply(determinant, elimination.units[i], base, len, workspace, determinant);
+            valuation += elimination.valuations[i];
+        }
+
+        if ((elimination.swaps & 1) == 1) {
+            PAdicMatrix.negate(determinant, base, len);
+        }
+
+        final int[] result = new int[len];
+        final int order = PAdicMatrix.place(determinant, 0, len, valuation - rows * scale, result, 0, len);
+
+        return PAdic.valueOf(result, order, base, len);
+    }
+
+    /**
+     * Returns inverse of the matrix.
+     * The matrix is made integral and multiplied by its inverse, which is integral too after multiplication
+     * by p^v, where v is the sum of orders of the pivots, so the inverse is found by elimination with v extra digits
+     * and divided by p^v at the end.
+     * @return matrix that is inverse of this one.
+     */
+    public PAdicMatrix inverse() {
+        this.checkForSquare();
+
+        final int n = rows;
+        final int len = precision;
+        final int scale = this.scale();
+
+        // The first elimination finds orders of the pivots only.
+        final Elimination pivots = new Elimination(this.integral(scale, len, 0, n), base, n, n, len);
+        pivots.forward();
+
+        if (pivots.singular) {
+            throw new RuntimeException("Matrix is singular, it has no inverse.");
+        }
+
+        int valuation = 0;
+
+        for (int i = 0; i < n; ++i) {
+            valuation += pivots.valuations[i];
+        }
+
+        // Augmented matrix [A | p^v * I], where A is integral.
+        final int width = len + 2 * valuation;
+        final int[] slab = this.integral(scale, width, n, 2 * n);
+
+        for (int i = 0; i < n; ++i) {
+            slab[(i * 2 * n + n + i) * width + valuation] = 1;
+        }
+
+        final Elimination elimination = new Elimination(slab, base, n, 2 * n, width);
+        elimination.forward();
+        elimination.backward();
+
+        final int[] resultDigits = new int[n * n * len];
+        final int[] resultOrders = new int[n * n];
+
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                final int index = i * n + j;
+                resultOrders[index] = PAdicMatrix.place(slab, elimination.entry(i, n + j), width, scale - valuation,
+                        resultDigits, index * len, len);
+            }
+        }
+
+        return new PAdicMatrix(base, len, n, n, resultDigits, resultOrders);
+    }
+
+    /**
+     * Returns number of rows of the matrix.
+     * @return number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns number of columns of the matrix.
+     * @return number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns base of the entries.
+     * @return base of the entries.
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Returns precision of the matrix, i.e. the least of precisions of its entries.
+     * @return precision of the matrix.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    private void checkForSquare() {
+        if (rows != columns) {
+            throw new RuntimeException("Matrix of size " + rows + "x" + columns + " is not square.");
+        }
+    }
+
+    // The least power of p that makes all the entries p-adic integers when they are multiplied by it.
+    private int scale() {
+        int least = 0;
+
+        for (int index = 0; index < orders.length; ++index) {
+            final int from = index * precision;
+            int valuation = 0;
+
+            while (valuation < precision && digits[from + valuation] == 0) {
+                ++valuation;
+            }
+
+            // Digits of an entry stand from p^min(order, 0).
+            if (valuation < precision) {
+                least = Math.min(least, Math.min(orders[index], 0) + valuation);
+            }
+        }
+
+        return -least;
+    }
+
+    // Digits of the entries multiplied by p^scale modulo p^width, in a slab of rows that have given number of entries,
+    // the entries of this matrix are in the first columns of them.
+    private int[] integral(final int scale, final int width, final int extra, final int stride) {
+        final int[] slab = new int[rows * stride * width];
+
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                this.integral(i * columns + j, scale, width, slab, (i * stride + j) * width);
+            }
+        }
+
+        return slab;
+    }
+
+    // Writes digits of p^scale times the entry modulo p^width into target starting from offset.
+    // Digits that are shifted below p^0 are zeros, since scale makes the entry integral.
+    private void integral(final int index, final int scale, final int width, final int[] target, final int offset) {
+        final int shift = Math.min(orders[index], 0) + scale;
+        final int from = index * precision;
+
+        for (int t = Math.max(shift, 0); t < width && t - shift < precision; ++t) {
+            target[offset + t] = digits[from + t - shift];
+        }
+    }
+
+    // Writes p-adic number source * p^frame, where source is an integer of width digits, as digits of an entry
+    // of given precision, which stand from p^min(order, 0), and returns its order.
+    private static int place(final int[] source, final int from, final int width, final int frame,
+                             final int[] target, final int to, final int precision) {
+        int valuation = 0;
+
+        while (valuation < width && source[from + valuation] == 0) {
+            ++valuation;
+        }
+
+        Arrays.fill(target, to, to + precision, 0);
+
+        if (valuation == width) {
+            return 0;
+        }
+
+        final int order = frame + valuation;
+        // Position in the source of the digit that stands at the lowest position of the entry.
+        final int offset = order >= 0 ? -frame : valuation;
+
+        for (int i = Math.max(-offset, 0); i < precision && i + offset < width; ++i) {
+            target[to + i] = source[from + i + offset];
+        }
+
+        return order;
+    }
+
+    private static void negate(final int[] x, final int base, final int len) {
+        int pos = 0;
+
+        while (pos < len && x[pos] == 0) {
+            ++pos;
+        }
+
+        if (pos < len) {
+            x[pos] = base - x[pos];
+
+            for (int i = pos + 1; i < len; ++i) {
+                x[i] = base - 1 - x[i];
+            }
+        }
+    }
+
+    // Integral operands of a product packed into columns, and digits and orders of the product.
+    private static final class Product {
+
+        private final int base;
+        private final int len;
+        private final int rows;
+        private final int inner;
+        private final int columns;
+        private final int rowBlocks;
+        private final int columnBlocks;
+        private final int frame;
+        private final int digitsPerColumn;
+        private final int n;
+        private final long radix;
+        // Operands are multiplied in place by schoolbook algorithm when they are short, by Multiplication otherwise.
+        private final boolean schoolbook;
+        private final long[] first;
+        private final long[] second;
+        private final boolean[] firstZero;
+        private final boolean[] secondZero;
+        private final int[] digits;
+        private final int[] orders;
+
+        Product(final PAdicMatrix multiplied, final PAdicMatrix multiplier) {
+            this.base = multiplied.base;
+            this.len = Math.min(multiplied.precision, multiplier.precision);
+            this.rows = multiplied.rows;
+            this.inner = multiplied.columns;
+            this.columns = multiplier.columns;
+            this.rowBlocks = (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            this.columnBlocks = (columns + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            this.digitsPerColumn = Multiplication.columnDigits(base, len);
+            this.n = Multiplication.columnCount(len, digitsPerColumn);
+            this.radix = Multiplication.columnRadix(base, digitsPerColumn);
+            this.schoolbook = n < Multiplication.KARATSUBA_THRESHOLD;
+
+            final int firstScale = multiplied.scale();
+            final int secondScale = multiplier.scale();
+            this.frame = -firstScale - secondScale;
+            this.firstZero = new boolean[rows * inner];
+            this.secondZero = new boolean[inner * columns];
+            this.first = this.operand(multiplied, firstScale, firstZero);
+            this.second = this.operand(multiplier, secondScale, secondZero);
+            this.digits = new int[rows * columns * len];
+            this.orders = new int[rows * columns];
+        }
+
+        // Packs integral entries into n columns each, or leaves their digits as they are for Multiplication.
+        private long[] operand(final PAdicMatrix matrix, final int scale, final boolean[] zero) {
+            final int count = matrix.rows * matrix.columns;
+            final int size = schoolbook ? n : len;
+            final long[] result = new long[count * size];
+            final int[] buffer = new int[len];
+
+            for (int index = 0; index < count; ++index) {
+                Arrays.fill(buffer, 0);
+                matrix.integral(index, scale, len, buffer, 0);
+
+                boolean isZero = true;
+
+                for (int i = 0; i < len && isZero; ++i) {
+                    isZero = buffer[i] == 0;
+                }
+
+                zero[index] = isZero;
+
+                if (!schoolbook) {
+                    for (int i = 0; i < len; ++i) {
+                        result[index * size + i] = buffer[i];
+                    }
+
+                    continue;
+                }
+
+                for (int i = 0; i < n; ++i) {
+                    final int low = i * digitsPerColumn;
+                    long column = 0;
+
+                    for (int t = Math.min(low + digitsPerColumn, len) - 1; t >= low; --t) {
+                        column = column * base + buffer[t];
+                    }
+
+                    result[index * size + i] = column;
+                }
+            }
+
+            return result;
+        }
+
+        // Computes block of the product with given index.
+        void multiply(final int block) {
+            final int rowFrom = (block / columnBlocks) * BLOCK_SIZE;
+            final int rowTo = Math.min(rowFrom + BLOCK_SIZE, rows);
+            final int columnFrom = (block % columnBlocks) * BLOCK_SIZE;
+            final int columnTo = Math.min(columnFrom + BLOCK_SIZE, columns);
+            final int width = columnTo - columnFrom;
+            final long[][] sums = new long[(rowTo - rowFrom) * width][n];
+            // Columns of one product are less than this bound, see Multiplication.productColumns.
+            final long productBound = n * (radix - 1) * (radix - 1);
+            final long[] workspace = schoolbook ? null : new long[Multiplication.workspaceSize(len)];
+            final int[] firstDigits = schoolbook ? null : new int[len];
+            final int[] secondDigits = schoolbook ? null : new int[len];
+            long bound = 0;
+
+            for (int k = 0; k < inner; ++k) {
+                if (bound > Long.MAX_VALUE - productBound) {
+                    for (final long[] sum : sums) {
+                        Multiplication.carry(sum, radix, n);
+                    }
+
+                    bound = radix;
+                }
+
+                bound += productBound;
+
+                for (int i = rowFrom; i < rowTo; ++i) {
+                    final int firstIndex = i * inner + k;
+
+                    if (firstZero[firstIndex]) {
+                        continue;
+                    }
+
+                    for (int j = columnFrom; j < columnTo; ++j) {
+                        final int secondIndex = k * columns + j;
+
+                        if (secondZero[secondIndex]) {
+                            continue;
+                        }
+
+                        final long[] sum = sums[(i - rowFrom) * width + j - columnFrom];
+
+                        if (schoolbook) {
+                            final int firstFrom = firstIndex * n;
+                            final int secondFrom = secondIndex * n;
+
+                            for (int x = 0; x < n; ++x) {
+                                final long column = first[firstFrom + x];
+
+                                if (column == 0) {
+                                    continue;
+                                }
+
+                                for (int y = 0; x + y < n; ++y) {
+                                    sum[x + y] += column * second[secondFrom + y];
+                                }
+                            }
+                        } else {
+                            for (int t = 0; t < len; ++t) {
+                                firstDigits[t] = (int) first[firstIndex * len + t];
+                                secondDigits[t] = (int) second[secondIndex * len + t];
+                            }
+
+                            Multiplication.productColumns(firstDigits, secondDigits, base, len, digitsPerColumn, workspace);
+
+                            for (int t = 0; t < n; ++t) {
+                                sum[t] += workspace[t];
+                            }
+                        }
+                    }
+                }
+            }
+
+            final int[] entry = new int[len];
+
+            for (int i = rowFrom; i < rowTo; ++i) {
+                for (int j = columnFrom; j < columnTo; ++j) {
+                    final int index = i * columns + j;
+                    Multiplication.normalize(sums[(i - rowFrom) * width + j - columnFrom], base, len, digitsPerColumn, entry);
+                    orders[index] = PAdicMatrix.place(entry, 0, len, frame, digits, index * len, len);
+                }
+            }
+        }
+    }
+
+    // Computes a range of blocks of the product, splitting it in halves while it has more than one block.
+    private static final class Multiply extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Product product;
+        private final int from;
+        private final int to;
+
+        Multiply(final Product product, final int from, final int to) {
+            this.product = product;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                product.multiply(from);
+
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+
+            invokeAll(new Multiply(product, from, middle), new Multiply(product, middle, to));
+        }
+    }
+
+    // Gaussian elimination of an integral slab of size rows with stride entries in a row, each of width digits.
+    // Rows are not moved, the permutation is kept instead.
+    private static final class Elimination {
+
+        private final int[] slab;
+        private final int base;
+        private final int size;
+        private final int stride;
+        private final int width;
+        private final int[] rowOf;
+        private final int[] valuations;
+        // Pivots divided by their powers of p, and inverses of them.
+        private final int[][] units;
+        private final int[][] inverses;
+        private final long[] workspace;
+        private final int[] factor;
+        private final int[] operand;
+        private final int[] product;
+        private int swaps;
+        private boolean singular;
+
+        Elimination(final int[] slab, final int base, final int size, final int stride, final int width) {
+            this.slab = slab;
+            this.base = base;
+            this.size = size;
+            this.stride = stride;
+            this.width = width;
+            this.rowOf = new int[size];
+            this.valuations = new int[size];
+            this.units = new int[size][];
+            this.inverses = new int[size][];
+            this.workspace = new long[Multiplication.workspaceSize(width)];
+            this.factor = new int[width];
+            this.operand = new int[width];
+            this.product = new int[width];
+
+            for (int i = 0; i < size; ++i) {
+                rowOf[i] = i;
+            }
+        }
+
+        // Offset of the entry at given column of the row that is at given position after permutation.
+        int entry(final int row, final int column) {
+            return (rowOf[row] * stride + column) * width;
+        }
+
+        // Makes entries below the diagonal of the first size columns zero by subtracting multiples of pivot rows.
+        void forward() {
+            for (int i = 0; i < size; ++i) {
+                int pivot = -1;
+                int least = width;
+
+                for (int r = i; r < size; ++r) {
+                    final int valuation = this.valuation(this.entry(r, i));
+
+                    if (valuation < least) {
+                        least = valuation;
+                        pivot = r;
+                    }
+                }
+
+                if (pivot < 0) {
+                    singular = true;
+
+                    return;
+                }
+
+                if (pivot != i) {
+                    final int row = rowOf[pivot];
+                    rowOf[pivot] = rowOf[i];
+                    rowOf[i] = row;
+                    ++swaps;
+                }
+
+                valuations[i] = least;
+                units[i] = new int[width];
+                System.arraycopy(slab, this.entry(i, i) + least, units[i], 0, width - least);
+                inverses[i] = Division.inverse(units[i], base, width);
+
+                for (int r = i + 1; r < size; ++r) {
+                    final int offset = this.entry(r, i);
+
+                    if (this.valuation(offset) == width) {
+                        continue;
+                    }
+
+                    // Entry has order not less than the pivot, so the multiplier is integral.
+                    Arrays.fill(operand, 0);
+                    System.arraycopy(slab, offset + least, operand, 0, width - least);
+                    Multiplication.multiply(operand, inverses[i], base, width, workspace, factor);
+                    Arrays.fill(slab, offset, offset + width, 0);
+
+                    for (int c = i + 1; c < stride; ++c) {
+                        this.subtractProduct(factor, this.entry(i, c), this.entry(r, c));
+                    }
+                }
+            }
+        }
+
+        // Replaces entries to the right of the first size columns by solution of the triangular system.
+        void backward() {
+            for (int i = size - 1; i >= 0; --i) {
+                for (int c = size; c < stride; ++c) {
+                    final int target = this.entry(i, c);
+
+                    for (int k = i + 1; k < size; ++k) {
+                        final int coefficient = this.entry(i, k);
+
+                        if (this.valuation(coefficient) < width) {
+                            System.arraycopy(slab, coefficient, factor, 0, width);
+                            this.subtractProduct(factor, this.entry(k, c), target);
+                        }
+                    }
+
+                    // Solution is integral, so the entry is divisible by the power of p in the pivot.
+                    Arrays.fill(operand, 0);
+                    System.arraycopy(slab, target + valuations[i], operand, 0, width - valuations[i]);
+                    Multiplication.multiply(operand, inverses[i], base, width, workspace, product);
+                    System.arraycopy(product, 0, slab, target, width);
+                }
+            }
+        }
+
+        // Subtracts factor times the entry at source from the entry at target.
+        private void subtractProduct(final int[] factor, final int source, final int target) {
+            if (this.valuation(source) == width) {
+                return;
+            }
+
+            System.arraycopy(slab, source, operand, 0, width);
+            Multiplication.multiply(factor, operand, base, width, workspace, product);
+
+            int borrow = 0;
+
+            for (int t = 0; t < width; ++t) {
+                final int difference = slab[target + t] - product[t] - borrow;
+                borrow = difference < 0 ? 1 : 0;
+                slab[target + t] = difference + borrow * base;
+            }
+        }
+
+        private int valuation(final int offset) {
+            int valuation = 0;
+
+            while (valuation < width && slab[offset + valuation] == 0) {
+                ++valuation;
+            }
+
+            return valuation;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Polynomial with p-adic coefficients.
+ * Digits of the coefficients are unpacked once when polynomial is created, so evaluation by Horner's rule
+ * works on one accumulator buffer and creates only the resulting number.
+ * <pre>
+ *     // x^2 - 2
+ *     final PAdicPolynomial polynomial = new PAdicPolynomial(new PAdic[] {minusTwo, zero, one});
+ *     final PAdic[] roots = polynomial.roots();
+ * </pre>
+ * Roots are found by Hensel lifting: every simple root of the polynomial modulo p is lifted by Newton iteration
+ * that doubles number of correct digits on every step. Roots of many polynomials can be found in parallel
+ * by {@link #roots(PAdicPolynomial[], ForkJoinPool)}.
+ * Polynomials are immutable and may be shared between threads.
+ */
+public final class PAdicPolynomial {
+
+    // Number of polynomials below which their roots are found sequentially.
+    private static final int PARALLEL_THRESHOLD = (1 << 4);
+
+    private final PAdic[] coefficients;
+    private final int base;
+    private final int precision;
+    private final int[][] digits;
+    private final int[] orders;
+
+    /**
+     * Constructs polynomial with given coefficients.
+     * Precision of the polynomial is the least of precisions of the coefficients.
+     * @param coefficients coefficients of the polynomial, the constant term first.
+     *                     There must be at least one of them, and all of them must have the same base.
+     */
+    public PAdicPolynomial(final PAdic[] coefficients) {
+        if (coefficients.length == 0) {
+            throw new RuntimeException("Polynomial must have at least one coefficient.");
+        }
+
+        final int base = coefficients[0].getBase();
+        int precision = coefficients[0].getPrecision();
+
+        for (final PAdic coefficient : coefficients) {
+            if (coefficient.getBase() != base) {
+                throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+            }
+
+            precision = Math.min(precision, coefficient.getPrecision());
+        }
+
+        this.coefficients = Arrays.copyOf(coefficients, coefficients.length);
+        this.base = base;
+        this.precision = precision;
+        this.digits = new int[coefficients.length][precision];
+        this.orders = new int[coefficients.length];
+
+        for (int i = 0; i < coefficients.length; ++i) {
+            coefficients[i].digits(digits[i], precision);
+            orders[i] = coefficients[i].getOrder();
+        }
+    }
+
+    /**
+     * Returns value of the polynomial at given point.
+     * Value is calculated by Horner's rule in one buffer, and it is the same as the value that
+     * <code>multiply</code> and <code>add</code> of {@link PAdic} give.
+     * Precision of the value is the least of precisions of the polynomial and the point.
+     * @param point p-adic number to evaluate the polynomial at.
+     * @return value of the polynomial.
+     */
+    public PAdic evaluate(final PAdic point) {
+        if (point.getBase() != base) {
+            throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+        }
+
+        final int len = Math.min(precision, point.getPrecision());
+        final int[] x = new int[len];
+        point.digits(x, len);
+
+        final int last = coefficients.length - 1;
+        final int[] value = Arrays.copyOf(digits[last], len);
+        int order = PAdic.calculateOrder(value, orders[last], orders[last], PAdic.Operation.ADDITION);
+        final long[] workspace = new long[Multiplication.workspaceSize(len)];
+
+        for (int i = last - 1; i >= 0; --i) {
+            order = PAdic.multiply(value, order, x, point.getOrder(), base, len, workspace, value);
+            order = PAdic.add(value, order, digits[i], orders[i], base, len, value);
+        }
+
+        return PAdic.valueOf(value, order, base, len);
+    }
+
+    /**
+     * Returns derivative of the polynomial.
+     * @return polynomial that is derivative of this one. Derivative of a constant is zero constant.
+     */
+    public PAdicPolynomial derivative() {
+        if (coefficients.length == 1) {
+            return new PAdicPolynomial(new PAdic[] {new PAdic(BigInteger.ZERO, base, precision)});
+        }
+
+        final PAdic[] result = new PAdic[coefficients.length - 1];
+
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = coefficients[i + 1].multiply(new PAdic(BigInteger.valueOf(i + 1), base, precision));
+        }
+
+        return new PAdicPolynomial(result);
+    }
+
+    /**
+     * Returns all simple roots of the polynomial that are p-adic integers.
+     * Polynomial is divided by the power of p that makes all its coefficients p-adic integers with at least one unit,
+     * and every residue r with f(r) = 0 and f'(r) != 0 (mod p) is lifted to the only root of the polynomial
+     * that has such residue. Multiple roots modulo p are not lifted.
+     * Precision of the roots is the precision of the polynomial.
+     * @return roots of the polynomial ordered by their lowest digits.
+     */
+    public PAdic[] roots() {
+        final List<PAdic> roots = new ArrayList<PAdic>();
+        final int len = precision;
+        final int[][] integral = this.integralCoefficients();
+
+        if (integral == null) {
+            return new PAdic[0];
+        }
+
+        final int[] residues = new int[integral.length];
+
+        for (int i = 0; i < integral.length; ++i) {
+            residues[i] = integral[i][0];
+        }
+
+        final long[] workspace = new long[Multiplication.workspaceSize(len)];
+        final int[] value = new int[len];
+        final int[] derivative = new int[len];
+        final int[] inverse = new int[len];
+        final int[] correction = new int[len];
+        final int[] two = PAdicPolynomial.two(base, len);
+
+        for (int residue = 0; residue < base; ++residue) {
+            final int derivativeResidue = PAdicPolynomial.simpleRootDerivative(residues, residue, base);
+
+            if (derivativeResidue == 0) {
+                continue;
+            }
+
+            final int[] root = new int[len];
+            root[0] = residue;
+            Arrays.fill(inverse, 0);
+            inverse[0] = PAdicContext.cached(base).inverses()[derivativeResidue];
+
+            // Inverse of the derivative is lifted together with the root, so that it is not found anew on every step:
+            // it is correct to half of the known digits before the step and to all of them after it.
+            for (int known = 1; known < len; ) {
+                known = Math.min(known << 1, len);
+
+                PAdicPolynomial.evaluate(integral, root, base, known, workspace, value, derivative);
+
+                Multiplication.multiply(derivative, inverse, base, known, workspace, derivative);
+                System.arraycopy(two, 0, correction, 0, known);
+                PAdicPolynomial.subtract(correction, derivative, base, known);
+                Multiplication.multiply(inverse, correction, base, known, workspace, inverse);
+
+                Multiplication.multiply(inverse, value, base, known, workspace, correction);
+                PAdicPolynomial.subtract(root, correction, base, known);
+            }
+
+            final int order = PAdic.calculateOrder(root, 0, 0, PAdic.Operation.ADDITION);
+            roots.add(PAdic.valueOf(root, order, base, len));
+        }
+
+        return roots.toArray(new PAdic[roots.size()]);
+    }
+
+    /**
+     * Returns roots of every polynomial, finding them in parallel on the common fork-join pool.
+     * @param polynomials polynomials to find roots of.
+     * @return array whose element <code>i</code> is the result of {@link #roots()} of polynomial <code>i</code>.
+     */
+    public static PAdic[][] roots(final PAdicPolynomial[] polynomials) {
+        return PAdicPolynomial.roots(polynomials, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns roots of every polynomial, finding them in parallel on the given pool.
+     * @param polynomials polynomials to find roots of.
+     * @param pool fork-join pool to find roots on.
+     * @return array whose element <code>i</code> is the result of {@link #roots()} of polynomial <code>i</code>.
+     */
+    public static PAdic[][] roots(final PAdicPolynomial[] polynomials, final ForkJoinPool pool) {
+        final PAdic[][] result = new PAdic[polynomials.length][];
+
+        if (polynomials.length <= PARALLEL_THRESHOLD) {
+            for (int i = 0; i < polynomials.length; ++i) {
+                result[i] = polynomials[i].roots();
+            }
+        } else {
+            pool.invoke(new Lift(polynomials, 0, polynomials.length, result));
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns coefficient of the polynomial at given power of the variable.
+     * @param power power of the variable.
+     * @return coefficient at the power.
+     */
+    public PAdic getCoefficient(final int power) {
+        if (power < 0 || power >= coefficients.length) {
+            throw new RuntimeException("Polynomial of degree " + this.getDegree() + " has no coefficient at power " + power + ".");
+        }
+
+        return coefficients[power];
+    }
+
+    /**
+     * Returns degree of the polynomial, i.e. the highest power of the variable that has a coefficient.
+     * Notice that the coefficient may be zero.
+     * @return degree of the polynomial.
+     */
+    public int getDegree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * Returns base of the coefficients.
+     * @return base of the coefficients.
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Returns precision of the polynomial, i.e. the least of precisions of its coefficients.
+     * @return precision of the polynomial.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    // Digits of the coefficients multiplied by the power of p that makes the least of their orders zero,
+    // or null if all the coefficients are zero.
+    private int[][] integralCoefficients() {
+        final int len = precision;
+        int least = Integer.MAX_VALUE;
+        final int[] offsets = new int[digits.length];
+
+        for (int i = 0; i < digits.length; ++i) {
+            int valuation = 0;
+
+            while (valuation < len && digits[i][valuation] == 0) {
+                ++valuation;
+            }
+
+            // Digits of the coefficient stand from p^min(order, 0).
+            offsets[i] = Math.min(orders[i], 0);
+
+            if (valuation < len) {
+                least = Math.min(least, offsets[i] + valuation);
+            }
+        }
+
+        if (least == Integer.MAX_VALUE) {
+            return null;
+        }
+
+        final int[][] integral = new int[digits.length][len];
+
+        for (int i = 0; i < digits.length; ++i) {
+            // Zero lowest digits are dropped if the coefficient has been given with them.
+            final int shift = offsets[i] - least;
+
+            if (shift < 0) {
+                if (-shift < len) {
+                    System.arraycopy(digits[i], -shift, integral[i], 0, len + shift);
+                }
+            } else if (shift < len) {
+                System.arraycopy(digits[i], 0, integral[i], shift, len - shift);
+            }
+        }
+
+        return integral;
+    }
+
+    // Value of the derivative at residue modulo p if residue is a root of the polynomial modulo p, zero otherwise.
+    private static int simpleRootDerivative(final int[] residues, final int residue, final int base) {
+        long value = 0;
+        long derivative = 0;
+
+        for (int i = residues.length - 1; i >= 0; --i) {
+            derivative = (derivative * residue + value) % base;
+            value = (value * residue + residues[i]) % base;
+        }
+
+        return value == 0 ? (int) derivative : 0;
+    }
+
+    // Digits of 2 modulo p^len.
+    private static int[] two(final int base, final int len) {
+        final int[] two = new int[len];
+
+        if (base == 2) {
+            if (len > 1) {
+                two[1] = 1;
+            }
+        } else {
+            two[0] = 2;
+        }
+
+        return two;
+    }
+
+    // Values of the polynomial and its derivative at x modulo p^len by Horner's rule.
+    private static void evaluate(final int[][] coefficients, final int[] x, final int base, final int len,
+                                 final long[] workspace, final int[] value, final int[] derivative) {
+        Arrays.fill(value, 0);
+        Arrays.fill(derivative, 0);
+
+        for (int i = coefficients.length - 1; i >= 0; --i) {
+            Multiplication.multiply(derivative, x, base, len, workspace, derivative);
+            PAdicPolynomial.add(derivative, value, base, len);
+            Multiplication.multiply(value, x, base, len, workspace, value);
+            PAdicPolynomial.add(value, coefficients[i], base, len);
+        }
+    }
+
+    // (first + second) mod p^len, written into first.
+    private static void add(final int[] first, final int[] second, final int base, final int len) {
+        int carry = 0;
+
+        for (int i = 0; i < len; ++i) {
+            final int sum = first[i] + second[i] + carry;
+            carry = sum >= base ? 1 : 0;
+            first[i] = sum - carry * base;
+        }
+    }
+
+    // (first - second) mod p^len, written into first.
+    private static void subtract(final int[] first, final int[] second, final int base, final int len) {
+        int borrow = 0;
+
+        for (int i = 0; i < len; ++i) {
+            final int difference = first[i] - second[i] - borrow;
+            borrow = difference < 0 ? 1 : 0;
+            first[i] = difference + borrow * base;
+        }
+    }
+
+    // Finds roots of a range of polynomials, splitting it in halves while it is large.
+    private static final class Lift extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PAdicPolynomial[] polynomials;
+        private final int from;
+        private final int to;
+        private final PAdic[][] result;
+
+        Lift(final PAdicPolynomial[] polynomials, final int from, final int to, final PAdic[][] result) {
+            this.polynomials = polynomials;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                for (int i = from; i < to; ++i) {
+                    result[i] = polynomials[i].roots();
+                }
+
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+
+            invokeAll(new Lift(polynomials, from, middle, result), new Lift(polynomials, middle, to, result));
+        }
+    }
+}
@@ -0,0 +1,550 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.util.Arrays;
+
+/**
+ * Vector of p-adic numbers of the same base for element-wise arithmetic on many numbers at once.
+ * Numbers are stored limb by limb rather than number by number: limb l of every element is in one contiguous row,
+ * and orders of the elements are in a separate array. Limbs are the ones of {@link PAdic}, see {@link Limbs}.
+ * So element-wise operations are loops over elements for every limb, that have no dependencies between iterations
+ * and may be compiled into SIMD instructions by the JIT compiler.
+ * <p>
+ * Results are equal to the ones of the same operations of {@link PAdic} on every pair of elements, orders included.
+ * Elements of non-negative order, whose digits stand from p^0, are processed by the loops over elements,
+ * and the rare pairs that have an element of negative order are processed one by one.
+ * <pre>
+ *     final PAdicVector sum = new PAdicVector(first).add(new PAdicVector(second));
+ *     final PAdic[] result = sum.toArray();
+ * </pre>
+ * Vectors are immutable and may be shared between threads.
+ */
+public final class PAdicVector {
+
+    // Number of elements processed by one pass of the loops, so that their temporary rows stay in cache.
+    private static final int CHUNK_SIZE = (1 << 10);
+
+    private final int base;
+    private final int precision;
+    private final int size;
+    // Limb l of element i is at l * size + i.
+    private final long[] limbs;
+    private final int[] orders;
+
+    /**
+     * Constructs vector of given numbers.
+     * Precision of the vector is the least of precisions of the numbers.
+     * @param numbers elements of the vector. There must be at least one, and all of them must have the same base.
+     */
+    public PAdicVector(final PAdic[] numbers) {
+        if (numbers.length == 0) {
+            throw new RuntimeException("Vector must have at least one element.");
+        }
+
+        final int base = numbers[0].getBase();
+        int precision = numbers[0].getPrecision();
+
+        for (final PAdic number : numbers) {
+            if (number.getBase() != base) {
+                throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+            }
+
+            precision = Math.min(precision, number.getPrecision());
+        }
+
+        this.base = base;
+        this.precision = precision;
+        this.size = numbers.length;
+        this.orders = new int[size];
+
+        final int count = Limbs.limbCount(precision, base);
+        this.limbs = new long[count * size];
+
+        for (int i = 0; i < size; ++i) {
+            long[] source = numbers[i].limbs();
+            int order = numbers[i].getOrder();
+
+            // Numbers of greater precision lose their highest digits, and their orders are recalculated.
+            if (numbers[i].getPrecision() != precision) {
+                source = Limbs.truncate(source, base, precision);
+                order = PAdic.calculateOrder(source, order, base, precision);
+            }
+
+            for (int l = 0; l < count; ++l) {
+                limbs[l * size + i] = source[l];
+            }
+
+            orders[i] = order;
+        }
+    }
+
+    private PAdicVector(final int base, final int precision, final int size, final long[] limbs, final int[] orders) {
+        this.base = base;
+        this.precision = precision;
+        this.size = size;
+        this.limbs = limbs;
+        this.orders = orders;
+    }
+
+    /**
+     * Returns element of the vector.
+     * @param index index of the element, starting from zero.
+     * @return element at given index.
+     */
+    public PAdic get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new RuntimeException("Vector of size " + size + " has no element " + index + ".");
+        }
+
+        return this.element(index);
+    }
+
+    /**
+     * Returns elements of the vector.
+     * @return new array of elements of the vector.
+     */
+    public PAdic[] toArray() {
+        final PAdic[] numbers = new PAdic[size];
+
+        for (int i = 0; i < size; ++i) {
+            numbers[i] = this.element(i);
+        }
+
+        return numbers;
+    }
+
+    /**
+     * Returns vector of sums of elements of this vector and the added one.
+     * Precision of the result is the least of precisions of the vectors.
+     * @param added vector to add. It must have the same base and size.
+     * @return vector of element-wise sums.
+     */
+    public PAdicVector add(final PAdicVector added) {
+        this.checkForCompatibility(added);
+
+        final int len = Math.min(precision, added.precision);
+        final int count = Limbs.limbCount(len, base);
+        final long[] result = new long[count * size];
+        final long[] carries = new long[CHUNK_SIZE];
+        final long[] first = this.limbs;
+        final long[] second = added.limbs;
+
+        for (int from = 0; from < size; from += CHUNK_SIZE) {
+            final int to = Math.min(from + CHUNK_SIZE, size);
+            Arrays.fill(carries, 0);
+
+            if (base == 2) {
+                for (int l = 0; l < count; ++l) {
+                    final int row = l * size;
+
+                    for (int i = from; i < to; ++i) {
+                        final long x = first[row + i];
+                        final long y = second[row + i];
+                        final long sum = x + y + carries[i - from];
+                        carries[i - from] = ((x & y) | ((x | y) & ~sum)) >>> 63;
+                        result[row + i] = sum;
+                    }
+                }
+
+                continue;
+            }
+
+            final long modulus = Limbs.powers(base)[Limbs.digitsPerLimb(base)];
+
+            for (int l = 0; l < count - 1; ++l) {
+                final int row = l * size;
+
+                for (int i = from; i < to; ++i) {
+                    final long sum = first[row + i] + second[row + i] + carries[i - from];
+                    // 1 when the sum is not less than modulus, 0 otherwise.
+                    final long carry = (modulus - 1 - sum) >>> 63;
+                    carries[i - from] = carry;
+                    result[row + i] = sum - carry * modulus;
+                }
+            }
+
+            final int row = (count - 1) * size;
+            final long topModulus = this.topModulus(len);
+
+            if (precision == len && added.precision == len) {
+                for (int i = from; i < to; ++i) {
+                    final long sum = first[row + i] + second[row + i] + carries[i - from];
+                    result[row + i] = sum - ((topModulus - 1 - sum) >>> 63) * topModulus;
+                }
+            } else {
+                // Highest limbs of the longer operand hold digits above len.
+                for (int i = from; i < to; ++i) {
+                    result[row + i] = (first[row + i] % topModulus + second[row + i] % topModulus + carries[i - from]) % topModulus;
+                }
+            }
+        }
+
+        this.truncateTop(result, len);
+
+        return this.complete(added, result, len, PAdic.Operation.ADDITION);
+    }
+
+    /**
+     * Returns vector of differences of elements of this vector and the subtracted one.
+     * Precision of the result is the least of precisions of the vectors.
+     * @param subtracted vector to subtract. It must have the same base and size.
+     * @return vector of element-wise differences.
+     */
+    public PAdicVector subtract(final PAdicVector subtracted) {
+        this.checkForCompatibility(subtracted);
+
+        final int len = Math.min(precision, subtracted.precision);
+        final int count = Limbs.limbCount(len, base);
+        final long[] result = new long[count * size];
+        final long[] borrows = new long[CHUNK_SIZE];
+        final long[] first = this.limbs;
+        final long[] second = subtracted.limbs;
+
+        for (int from = 0; from < size; from += CHUNK_SIZE) {
+            final int to = Math.min(from + CHUNK_SIZE, size);
+            Arrays.fill(borrows, 0);
+
+            if (base == 2) {
+                for (int l = 0; l < count; ++l) {
+                    final int row = l * size;
+
+                    for (int i = from; i < to; ++i) {
+                        final long x = first[row + i];
+                        final long y = second[row + i];
+                        final long difference = x - y - borrows[i - from];
+                        borrows[i - from] = ((~x & y) | ((~x | y) & difference)) >>> 63;
+                        result[row + i] = difference;
+                    }
+                }
+
+                continue;
+            }
+
+            final long modulus = Limbs.powers(base)[Limbs.digitsPerLimb(base)];
+
+            for (int l = 0; l < count - 1; ++l) {
+                final int row = l * size;
+
+                for (int i = from; i < to; ++i) {
+                    final long difference = first[row + i] - second[row + i] - borrows[i - from];
+                    // 1 when the difference is negative, 0 otherwise.
+                    final long borrow = difference >>> 63;
+                    borrows[i - from] = borrow;
+                    result[row + i] = difference + borrow * modulus;
+                }
+            }
+
+            final int row = (count - 1) * size;
+            final long topModulus = this.topModulus(len);
+
+            if (precision == len && subtracted.precision == len) {
+                for (int i = from; i < to; ++i) {
+                    final long difference = first[row + i] - second[row + i] - borrows[i - from];
+                    result[row + i] = difference + (difference >>> 63) * topModulus;
+                }
+            } else {
+                // Highest limbs of the longer operand hold digits above len.
+                for (int i = from; i < to; ++i) {
+                    final long difference = first[row + i] % topModulus - second[row + i] % topModulus - borrows[i - from];
+                    result[row + i] = difference + (difference >>> 63) * topModulus;
+                }
+            }
+        }
+
+        this.truncateTop(result, len);
+
+        return this.complete(subtracted, result, len, PAdic.Operation.SUBTRACTION);
+    }
+
+    /**
+     * Returns vector of products of elements of this vector and the multiplier.
+     * Digits are packed into columns as {@link Multiplication} does, and every product of two columns
+     * is computed for all the elements in one loop. Columns are normalized once per element at the end.
+     * Base 2, whose numbers are multiplied word by word, and numbers so long that {@link Multiplication}
+     * would use Karatsuba algorithm are multiplied one by one instead.
+     * Precision of the result is the least of precisions of the vectors.
+     * @param multiplier vector to multiply by. It must have the same base and size.
+     * @return vector of element-wise products.
+     */
+    public PAdicVector multiply(final PAdicVector multiplier) {
+        this.checkForCompatibility(multiplier);
+
+        final int len = Math.min(precision, multiplier.precision);
+        final int count = Limbs.limbCount(len, base);
+        final int digitsPerColumn = Multiplication.columnDigits(base, len);
+        final int n = Multiplication.columnCount(len, digitsPerColumn);
+        final long[] result = new long[count * size];
+
+        if (base == 2 || n >= Multiplication.KARATSUBA_THRESHOLD) {
+            final int[] orders = new int[size];
+
+            for (int i = 0; i < size; ++i) {
+                orders[i] = this.scatter(this.element(i).multiply(multiplier.element(i)), result, i);
+            }
+
+            return new PAdicVector(base, len, size, result, orders);
+        }
+
+        final long radix = Multiplication.columnRadix(base, digitsPerColumn);
+        final long[] first = new long[n * CHUNK_SIZE];
+        final long[] second = new long[n * CHUNK_SIZE];
+        final long[] columns = new long[n * CHUNK_SIZE];
+        final long[] carries = new long[CHUNK_SIZE];
+        final int[] digits = new int[len];
+
+        for (int from = 0; from < size; from += CHUNK_SIZE) {
+            final int width = Math.min(from + CHUNK_SIZE, size) - from;
+
+            for (int i = 0; i < width; ++i) {
+                this.unpack(from + i, len, digits);
+                PAdicVector.packColumns(digits, len, digitsPerColumn, base, first, i);
+                multiplier.unpack(from + i, len, digits);
+                PAdicVector.packColumns(digits, len, digitsPerColumn, base, second, i);
+            }
+
+            Arrays.fill(columns, 0);
+
+            // Columns of one product are less than n * (radix - 1)^2, so they do not overflow.
+            for (int x = 0; x < n; ++x) {
+                for (int y = 0; x + y < n; ++y) {
+                    final int firstRow = x * CHUNK_SIZE;
+                    final int secondRow = y * CHUNK_SIZE;
+                    final int productRow = (x + y) * CHUNK_SIZE;
+
+                    for (int i = 0; i < width; ++i) {
+                        columns[productRow + i] += first[firstRow + i] * second[secondRow + i];
+                    }
+                }
+            }
+
+            Arrays.fill(carries, 0);
+
+            for (int x = 0; x < n; ++x) {
+                final int row = x * CHUNK_SIZE;
+
+                for (int i = 0; i < width; ++i) {
+                    final long value = columns[row + i] + carries[i];
+                    carries[i] = value / radix;
+                    columns[row + i] = value % radix;
+                }
+            }
+
+            for (int i = 0; i < width; ++i) {
+                for (int x = 0; x < n; ++x) {
+                    long column = columns[x * CHUNK_SIZE + i];
+
+                    for (int k = x * digitsPerColumn; k < Math.min((x + 1) * digitsPerColumn, len); ++k) {
+                        digits[k] = (int) (column % base);
+                        column /= base;
+                    }
+                }
+
+                this.pack(digits, len, result, from + i);
+            }
+        }
+
+        return this.complete(multiplier, result, len, PAdic.Operation.MULTIPLICATION);
+    }
+
+    /**
+     * Returns number of elements of the vector.
+     * @return number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns base of the elements.
+     * @return base of the elements.
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Returns precision of the vector, i.e. the least of precisions of its elements.
+     * @return precision of the vector.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    private void checkForCompatibility(final PAdicVector other) {
+        if (other.base != base) {
+            throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+        }
+
+        if (other.size != size) {
+            throw new RuntimeException("Vectors of sizes " + size + " and " + other.size + " cannot be combined element-wise.");
+        }
+    }
+
+    // Element as a number of the vector's precision. Its limbs are new, so the vector stays immutable.
+    private PAdic element(final int index) {
+        final long[] limbs = new long[Limbs.limbCount(precision, base)];
+
+        for (int l = 0; l < limbs.length; ++l) {
+            limbs[l] = this.limbs[l * size + index];
+        }
+
+        return PAdic.valueOf(limbs, orders[index], base, precision);
+    }
+
+    // Writes limbs of the number into result at given index and returns its order.
+    private int scatter(final PAdic number, final long[] result, final int index) {
+        final long[] limbs = number.limbs();
+
+        for (int l = 0; l < limbs.length; ++l) {
+            result[l * size + index] = limbs[l];
+        }
+
+        return number.getOrder();
+    }
+
+    // Finds orders of results of elements of non-negative orders, the same as PAdic.calculateOrder gives,
+    // and recomputes results of elements of negative orders one by one.
+    private PAdicVector complete(final PAdicVector other, final long[] result, final int len, final PAdic.Operation operation) {
+        final int count = Limbs.limbCount(len, base);
+        final int[] orders = new int[size];
+
+        Arrays.fill(orders, count);
+
+        // Index of the lowest non-zero limb, or count for zero.
+        for (int l = count - 1; l >= 0; --l) {
+            final int row = l * size;
+
+            for (int i = 0; i < size; ++i) {
+                orders[i] = result[row + i] != 0 ? l : orders[i];
+            }
+        }
+
+        final int digitsPerLimb = Limbs.digitsPerLimb(base);
+
+        for (int i = 0; i < size; ++i) {
+            if (this.orders[i] < 0 || other.orders[i] < 0) {
+                final PAdic first = this.element(i);
+                final PAdic second = other.element(i);
+                final PAdic value = operation == PAdic.Operation.ADDITION ? first.add(second)
+                        : operation == PAdic.Operation.SUBTRACTION ? first.subtract(second)
+                        : first.multiply(second);
+
+                orders[i] = this.scatter(value, result, i);
+                continue;
+            }
+
+            if (orders[i] == count) {
+                orders[i] = 0;
+                continue;
+            }
+
+            long limb = result[orders[i] * size + i];
+            int valuation = orders[i] * digitsPerLimb;
+
+            if (base == 2) {
+                valuation += Long.numberOfTrailingZeros(limb);
+            } else {
+                while (limb % base == 0) {
+                    limb /= base;
+                    ++valuation;
+                }
+            }
+
+            final int order = operation == PAdic.Operation.MULTIPLICATION
+                    ? this.orders[i] + other.orders[i]
+                    : Math.min(this.orders[i], other.orders[i]);
+
+            orders[i] = Math.max(order, valuation);
+        }
+
+        return new PAdicVector(base, len, size, result, orders);
+    }
+
+    // p^d, where d is number of digits that the highest of limbs holding len digits keeps.
+    private long topModulus(final int len) {
+        final int k = Limbs.digitsPerLimb(base);
+
+        return Limbs.powers(base)[len - (Limbs.limbCount(len, base) - 1) * k];
+    }
+
+    // Clears digits above len in the highest limbs of base 2, the other bases are reduced by the loops.
+    private void truncateTop(final long[] result, final int len) {
+        if (base != 2) {
+            return;
+        }
+
+        final int row = (Limbs.limbCount(len, base) - 1) * size;
+        final long mask = TwoAdic.topMask(len);
+
+        for (int i = 0; i < size; ++i) {
+            result[row + i] &= mask;
+        }
+    }
+
+    // Writes len lowest digits of element into digits.
+    private void unpack(final int index, final int len, final int[] digits) {
+        final int k = Limbs.digitsPerLimb(base);
+
+        for (int l = 0, from = 0; from < len; ++l, from += k) {
+            long limb = limbs[l * size + index];
+
+            for (int t = from; t < from + k && t < len; ++t) {
+                final long next = limb / base;
+                digits[t] = (int) (limb - next * base);
+                limb = next;
+            }
+        }
+    }
+
+    // Writes len digits as limbs of element of result at given index.
+    private void pack(final int[] digits, final int len, final long[] result, final int index) {
+        final int k = Limbs.digitsPerLimb(base);
+
+        for (int l = 0, from = 0; from < len; ++l, from += k) {
+            long limb = 0;
+
+            for (int t = Math.min(from + k, len) - 1; t >= from; --t) {
+                limb = limb * base + digits[t];
+            }
+
+            result[l * size + index] = limb;
+        }
+    }
+
+    // Packs digits into columns of digitsPerColumn digits, column x is written at x * CHUNK_SIZE + index.
+    private static void packColumns(final int[] digits, final int len, final int digitsPerColumn, final int base,
+                                    final long[] columns, final int index) {
+        for (int x = 0, from = 0; from < len; ++x, from += digitsPerColumn) {
+            long column = 0;
+
+            for (int t = Math.min(from + digitsPerColumn, len) - 1; t >= from; --t) {
+                column = column * base + digits[t];
+            }
+
+            columns[x * CHUNK_SIZE + index] = column;
+        }
+    }
+}
@@ -0,0 +1,514 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exact p-adic expansion of a rational number.
+ * Every rational number is p^order * u, where u = a / b is a fraction whose numerator and denominator are prime to p,
+ * and digits of u are eventually periodic: a pre-period is followed by a period that repeats forever.
+ * Only the pre-period and the period are stored, so the number has infinite precision
+ * and any digit is available without calculating the digits below it.
+ * <pre>
+ *     final PeriodicPAdic x = new PeriodicPAdic(BigInteger.ONE, BigInteger.valueOf(3), 5);
+ *     final PeriodicPAdic y = x.multiply(x).add(x);
+ *     final PAdic z = y.toPAdic(1000);
+ * </pre>
+ * Rational numbers are closed under arithmetic, so results of operations are periodic as well.
+ * Periods longer than {@value #PERIOD_LIMIT} digits are not stored, their digits are calculated from the fraction on demand.
+ * Instances are immutable and may be shared between threads.
+ */
+public final class PeriodicPAdic {
+
+    /**
+     * Maximal length of a period that is stored digit by digit.
+     */
+    public static final int PERIOD_LIMIT = (1 << 12);
+
+    private final int base;
+    private final int order;
+    // Unit u = numerator / denominator in lowest terms, denominator is positive.
+    private final BigInteger numerator;
+    private final BigInteger denominator;
+    private final int[] prePeriod;
+    // Digits of the period or null when the period is longer than PERIOD_LIMIT.
+    private final int[] period;
+    // State n of the digit recurrence at the start of the period, see digits.
+    private final BigInteger periodStart;
+
+    /**
+     * Constructs p-adic number from integer value.
+     * @param value integer value in base 10.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     */
+    public PeriodicPAdic(final BigInteger value, final int base) {
+        this(value, BigInteger.ONE, base);
+    }
+
+    /**
+     * Constructs p-adic number from rational fraction.
+     * @param numerator numerator of the fraction in base 10.
+     * @param denominator denominator of the fraction in base 10. Must not be zero.
+     * @param base base of the p-adic number.
+     *             Notice that base must be a prime number.
+     */
+    public PeriodicPAdic(final BigInteger numerator, final BigInteger denominator, final int base) {
+        this(numerator, denominator, PAdicContext.of(base));
+    }
+
+    private PeriodicPAdic(final BigInteger numerator, final BigInteger denominator, final PAdicContext context) {
+        if (denominator.signum() == 0) {
+            throw new RuntimeException("Denominator of a fraction must not be zero.");
+        }
+
+        this.base = context.getBase();
+
+        if (numerator.signum() == 0) {
+            this.order = 0;
+            this.numerator = BigInteger.ZERO;
+            this.denominator = BigInteger.ONE;
+            this.prePeriod = new int[0];
+            this.period = new int[] {0};
+            this.periodStart = BigInteger.ZERO;
+
+            return;
+        }
+
+        final BigInteger gcd = numerator.gcd(denominator);
+        final BigInteger a = denominator.signum() < 0 ? numerator.divide(gcd).negate() : numerator.divide(gcd);
+        final BigInteger b = denominator.abs().divide(gcd);
+
+        final int numeratorValuation = PeriodicPAdic.valuation(a, base);
+        final int denominatorValuation = PeriodicPAdic.valuation(b, base);
+
+        this.order = numeratorValuation - denominatorValuation;
+        this.numerator = a.divide(context.power(numeratorValuation));
+        this.denominator = b.divide(context.power(denominatorValuation));
+
+        // Digits of a / b follow from n_0 = a, d_i = n_i / b (mod p), n_(i + 1) = (n_i - d_i * b) / p.
+        // Once -b <= n_i <= 0 the states stay there, so the digits from i on are purely periodic.
+        final int inverse = context.inverses()[this.denominator.mod(BigInteger.valueOf(base)).intValue()];
+        final BigInteger bigBase = BigInteger.valueOf(base);
+        final BigInteger lowest = this.denominator.negate();
+        int[] digits = new int[8];
+        int count = 0;
+        BigInteger state = this.numerator;
+
+        while (state.signum() > 0 || state.compareTo(lowest) < 0) {
+            final int digit = (int) ((long) state.mod(bigBase).intValue() * inverse % base);
+
+            if (count == digits.length) {
+                digits = Arrays.copyOf(digits, count << 1);
+            }
+
+            digits[count++] = digit;
+            state = state.subtract(this.denominator.multiply(BigInteger.valueOf(digit))).divide(bigBase);
+        }
+
+        this.prePeriod = Arrays.copyOf(digits, count);
+        this.periodStart = state;
+        this.period = PeriodicPAdic.period(state, this.denominator, base, inverse);
+    }
+
+    /**
+     * Returns value that gives zero in addition with this number.
+     * @return number that is opposite to this one.
+     */
+    public PeriodicPAdic negative() {
+        return new PeriodicPAdic(this.fractionNumerator().negate(), this.fractionDenominator(), PAdicContext.cached(base));
+    }
+
+    /**
+     * Returns sum of this number and the given one.
+     * @param added number to add. Must have the same base.
+     * @return exact sum.
+     */
+    public PeriodicPAdic add(final PeriodicPAdic added) {
+        this.checkForBaseEquality(added);
+
+        final BigInteger resultNumerator = this.fractionNumerator().multiply(added.fractionDenominator())
+                .add(added.fractionNumerator().multiply(this.fractionDenominator()));
+
+        return new PeriodicPAdic(resultNumerator, this.fractionDenominator().multiply(added.fractionDenominator()), PAdicContext.cached(base));
+    }
+
+    /**
+     * Returns difference of this number and the given one.
+     * @param subtracted number to subtract. Must have the same base.
+     * @return exact difference.
+     */
+    public PeriodicPAdic subtract(final PeriodicPAdic subtracted) {
+        this.checkForBaseEquality(subtracted);
+
+        final BigInteger resultNumerator = this.fractionNumerator().multiply(subtracted.fractionDenominator())
+                .subtract(subtracted.fractionNumerator().multiply(this.fractionDenominator()));
+
+        return new PeriodicPAdic(resultNumerator, this.fractionDenominator().multiply(subtracted.fractionDenominator()), PAdicContext.cached(base));
+    }
+
+    /**
+     * Returns product of this number and the given one.
+     * @param multiplier number to multiply by. Must have the same base.
+     * @return exact product.
+     */
+    public PeriodicPAdic multiply(final PeriodicPAdic multiplier) {
+        this.checkForBaseEquality(multiplier);
+
+        return new PeriodicPAdic(this.fractionNumerator().multiply(multiplier.fractionNumerator()),
+                this.fractionDenominator().multiply(multiplier.fractionDenominator()), PAdicContext.cached(base));
+    }
+
+    /**
+     * Returns quotient of this number and the given one.
+     * @param divisor number to divide by. Must have the same base and must not be zero.
+     * @return exact quotient.
+     */
+    public PeriodicPAdic divide(final PeriodicPAdic divisor) {
+        this.checkForBaseEquality(divisor);
+
+        if (divisor.numerator.signum() == 0) {
+            throw new RuntimeException("Division by zero.");
+        }
+
+        return new PeriodicPAdic(this.fractionNumerator().multiply(divisor.fractionDenominator()),
+                this.fractionDenominator().multiply(divisor.fractionNumerator()), PAdicContext.cached(base));
+    }
+
+    /**
+     * Returns base of the number.
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Returns order of the number, i.e. position of its lowest non-zero digit. Order of zero is 0.
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns numerator of the number as a fraction in lowest terms.
+     */
+    public BigInteger getNumerator() {
+        return this.fractionNumerator();
+    }
+
+    /**
+     * Returns positive denominator of the number as a fraction in lowest terms.
+     */
+    public BigInteger getDenominator() {
+        return this.fractionDenominator();
+    }
+
+    /**
+     * Returns digit of p-adic number that stands at <i>p</i> in power <code>position</code>.
+     * Digits of stored periods are looked up, digits of longer periods cost one modular exponentiation.
+     * @param position power of <i>p</i> the digit stands at.
+     * @return digit at the position. Digits at positions that are less than order are zero.
+     */
+    public int getDigit(final int position) {
+        final long index = (long) position - order;
+
+        if (index < 0) {
+            return 0;
+        }
+
+        if (index < prePeriod.length) {
+            return prePeriod[(int) index];
+        }
+
+        if (period != null) {
+            return period[(int) ((index - prePeriod.length) % period.length)];
+        }
+
+        // p^i * n_i = a (mod b) and -b < n_i < 0 inside the period.
+        final BigInteger residue = numerator.multiply(BigInteger.valueOf(base).modInverse(denominator).modPow(BigInteger.valueOf(index), denominator)).mod(denominator);
+        final BigInteger state = residue.subtract(denominator);
+        final int inverse = PAdicContext.cached(base).inverses()[denominator.mod(BigInteger.valueOf(base)).intValue()];
+
+        return (int) ((long) state.mod(BigInteger.valueOf(base)).intValue() * inverse % base);
+    }
+
+    /**
+     * Returns truncation of this number to given precision.
+     * @param precision number of p-adic digits to keep. Must be positive.
+     * @return p-adic number that has <code>precision</code> lowest digits of this one.
+     */
+    public PAdic toPAdic(final int precision) {
+        PAdic.checkForPrecision(precision);
+
+        final int[] digits = new int[precision];
+
+        if (numerator.signum() == 0 || order >= precision) {
+            return PAdic.valueOf(digits, 0, base, precision);
+        }
+
+        final int offset = Math.max(order, 0);
+        this.digits(digits, 0, offset, precision - offset);
+
+        return PAdic.valueOf(digits, order, base, precision);
+    }
+
+    @Override
+    public String toString() {
+        final int fraction = Math.max(-order, 0);
+        int[] digits = prePeriod;
+        int[] repeated = period;
+
+        if (period != null && fraction > prePeriod.length) {
+            // The point falls into the period, so the period is unrolled up to it.
+            final int shown = prePeriod.length + (fraction - prePeriod.length + period.length - 1) / period.length * period.length;
+            digits = new int[shown];
+            this.digits(digits, 0, 0, shown);
+        }
+
+        if (period == null) {
+            digits = new int[Math.max(fraction, prePeriod.length) + PERIOD_LIMIT];
+            this.digits(digits, 0, 0, digits.length);
+        } else if (digits.length > prePeriod.length) {
+            repeated = new int[period.length];
+            this.digits(repeated, digits.length, 0, period.length);
+        }
+
+        final StringBuilder result = new StringBuilder();
+        final String separator = base <= 7 ? "" : "_";
+
+        if (period == null) {
+            result.append("...");
+        } else if (repeated.length != 1 || repeated[0] != 0) {
+            result.append('(');
+
+            for (int i = repeated.length - 1; i >= 0; --i) {
+                result.append(repeated[i]).append(i > 0 ? separator : "");
+            }
+
+            result.append(')');
+        }
+
+        for (int i = digits.length - 1; i >= 0; --i) {
+            if (i == fraction - 1) {
+                if (result.length() == 0) {
+                    result.append('0');
+                }
+
+                result.append('.');
+            } else if (i < digits.length - 1) {
+                result.append(separator);
+            }
+
+            result.append(digits[i]);
+        }
+
+        for (int i = 0; i < order; ++i) {
+            result.append(separator).append(0);
+        }
+
+        if (result.length() == 0) {
+            result.append('0');
+        }
+
+        return result.toString();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof PeriodicPAdic)) {
+            return false;
+        }
+
+        final PeriodicPAdic number = (PeriodicPAdic) obj;
+
+        return this.base == number.base && this.order == number.order
+                && this.numerator.equals(number.numerator) && this.denominator.equals(number.denominator);
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int hash = numerator.hashCode();
+
+        hash = hash * prime + denominator.hashCode();
+        hash = hash * prime + order;
+        hash = hash * prime + base;
+
+        return hash;
+    }
+
+    // Writes count digits of the unit starting from its digit at index from into result[offset, offset + count).
+    private void digits(final int[] result, final int from, final int offset, final int count) {
+        int i = 0;
+
+        for (; i < count && from + i < prePeriod.length; ++i) {
+            result[offset + i] = prePeriod[from + i];
+        }
+
+        if (i == count) {
+            return;
+        }
+
+        if (period != null) {
+            for (int k = (from + i - prePeriod.length) % period.length; i < count; ++i) {
+                result[offset + i] = period[k];
+                k = k + 1 == period.length ? 0 : k + 1;
+            }
+
+            return;
+        }
+
+        final int inverse = PAdicContext.cached(base).inverses()[denominator.mod(BigInteger.valueOf(base)).intValue()];
+        final BigInteger bigBase = BigInteger.valueOf(base);
+        BigInteger state = periodStart;
+
+        for (int k = prePeriod.length; k < from + count; ++k) {
+            final int digit = (int) ((long) state.mod(bigBase).intValue() * inverse % base);
+
+            if (k >= from + i) {
+                result[offset + k - from] = digit;
+            }
+
+            state = state.subtract(denominator.multiply(BigInteger.valueOf(digit))).divide(bigBase);
+        }
+    }
+
+    // Digits of the period that starts at given state or null when it is longer than PERIOD_LIMIT.
+    private static int[] period(final BigInteger start, final BigInteger denominator, final int base, final int inverse) {
+        final int length = PeriodicPAdic.periodLength(denominator, base);
+
+        if (length == 0) {
+            return null;
+        }
+
+        final int[] digits = new int[length];
+
+        if (denominator.compareTo(BigInteger.valueOf(Long.MAX_VALUE / base)) <= 0) {
+            // States and digits are small enough to step on longs.
+            final long b = denominator.longValue();
+            long state = start.longValue();
+
+            for (int i = 0; i < length; ++i) {
+                digits[i] = (int) (Math.floorMod(state, (long) base) * inverse % base);
+                state = (state - digits[i] * b) / base;
+            }
+
+            return digits;
+        }
+
+        final BigInteger bigBase = BigInteger.valueOf(base);
+        BigInteger state = start;
+
+        for (int i = 0; i < length; ++i) {
+            digits[i] = (int) ((long) state.mod(bigBase).intValue() * inverse % base);
+            state = state.subtract(denominator.multiply(BigInteger.valueOf(digits[i]))).divide(bigBase);
+        }
+
+        return digits;
+    }
+
+    // Length of the period, i.e. multiplicative order of p modulo denominator, or 0 when it is longer than PERIOD_LIMIT.
+    // States of the period are n_i = a * p^(-i) (mod b), so the period ends at the smallest l with p^l = 1 (mod b).
+    // It is found by baby-step giant-step as l = j * m + i with p^i = p^(-j * m) (mod b).
+    private static int periodLength(final BigInteger denominator, final int base) {
+        if (denominator.equals(BigInteger.ONE)) {
+            return 1;
+        }
+
+        final int m = (int) Math.sqrt(PERIOD_LIMIT);
+        final Map<BigInteger, Integer> babySteps = new HashMap<BigInteger, Integer>();
+        final BigInteger bigBase = BigInteger.valueOf(base);
+        BigInteger power = BigInteger.ONE;
+
+        for (int i = 1; i <= m; ++i) {
+            power = power.multiply(bigBase).mod(denominator);
+
+            if (power.equals(BigInteger.ONE)) {
+                return i;
+            }
+
+            babySteps.put(power, i);
+        }
+
+        final BigInteger giantStep = power.modInverse(denominator);
+        BigInteger giant = giantStep;
+
+        for (int j = 1; j * m < PERIOD_LIMIT; ++j) {
+            final Integer i = babySteps.get(giant);
+
+            if (i != null) {
+                return j * m + i <= PERIOD_LIMIT ? j * m + i : 0;
+            }
+
+            giant = giant.multiply(giantStep).mod(denominator);
+        }
+
+        return 0;
+    }
+
+    private static int valuation(final BigInteger value, final int base) {
+        if (base == 2) {
+            return value.getLowestSetBit();
+        }
+
+        final BigInteger bigBase = BigInteger.valueOf(base);
+        BigInteger current = value;
+        int valuation = 0;
+
+        while (true) {
+            final BigInteger[] quotientAndRemainder = current.divideAndRemainder(bigBase);
+
+            if (quotientAndRemainder[1].signum() != 0) {
+                return valuation;
+            }
+
+            current = quotientAndRemainder[0];
+            ++valuation;
+        }
+    }
+
+    // Numerator and denominator of the whole number p^order * u. They are coprime since u is in lowest terms and prime to p.
+    private BigInteger fractionNumerator() {
+        return order > 0 ? numerator.multiply(PAdicContext.cached(base).power(order)) : numerator;
+    }
+
+    private BigInteger fractionDenominator() {
+        return order < 0 ? denominator.multiply(PAdicContext.cached(base).power(-order)) : denominator;
+    }
+
+    private void checkForBaseEquality(final PeriodicPAdic other) {
+        if (this.base != other.base) {
+            throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+        }
+    }
+}
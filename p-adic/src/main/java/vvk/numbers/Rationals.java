@@ -0,0 +1,137 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+
+/**
+ * Rational reconstruction: recovery of a fraction from its residue modulo m.
+ * Fraction a / b with <code>a = b * x (mod m)</code> and <code>|a|, b &lt;= sqrt(m / 2)</code> is unique if it exists,
+ * and it is a remainder of the extended Euclidean algorithm on m and x, which walks the shortest vectors
+ * of the lattice <code>{(a, b) : a = b * x (mod m)}</code>.
+ * Euclidean steps are batched by Lehmer's method, so most of them are done on single words.
+ */
+final class Rationals {
+
+    // Number of leading bits of remainders that Lehmer's steps work on, so that sums with cofactors fit into long.
+    private static final int LEHMER_BITS = 62;
+    // Remainders that are closer to the bound than this number of bits are reduced by single steps.
+    private static final int LEHMER_MARGIN = 2 * LEHMER_BITS;
+
+    private Rationals() {
+    }
+
+    /**
+     * Returns fraction whose residue modulo m is x.
+     * @param residue residue x, <code>0 &lt;= x &lt; m</code>.
+     * @param modulus modulus m.
+     * @return numerator and positive denominator in lowest terms, or null if no fraction with
+     *         <code>|a|, b &lt;= sqrt(m / 2)</code> has the residue.
+     */
+    static BigInteger[] reconstruct(final BigInteger residue, final BigInteger modulus) {
+        final int boundBits = modulus.bitLength() >> 1;
+        // Remainders r0 > r1 and cofactors t0, t1 such that r = t * x (mod m).
+        BigInteger r0 = modulus;
+        BigInteger r1 = residue;
+        BigInteger t0 = BigInteger.ZERO;
+        BigInteger t1 = BigInteger.ONE;
+
+        while (Rationals.exceedsBound(r1, modulus)) {
+            long a = 1;
+            long b = 0;
+            long c = 0;
+            long d = 1;
+
+            // Lehmer's steps: quotients are taken from the leading bits of remainders while they are certainly right,
+            // and are applied to full remainders at once. Lehmer's batch may drop remainders by a word,
+            // so remainders close to the bound are reduced by single steps.
+            if (r1.bitLength() > boundBits + LEHMER_MARGIN) {
+                final int shift = r0.bitLength() - LEHMER_BITS;
+                long high0 = r0.shiftRight(shift).longValue();
+                long high1 = r1.shiftRight(shift).longValue();
+
+                while (high1 + c != 0 && high1 + d != 0) {
+                    final long q = (high0 + a) / (high1 + c);
+
+                    if (q != (high0 + b) / (high1 + d)) {
+                        break;
+                    }
+
+                    long t = a - q * c;
+                    a = c;
+                    c = t;
+                    t = b - q * d;
+                    b = d;
+                    d = t;
+                    t = high0 - q * high1;
+                    high0 = high1;
+                    high1 = t;
+                }
+            }
+
+            if (b == 0) {
+                final BigInteger[] quotientAndRemainder = r0.divideAndRemainder(r1);
+                final BigInteger t = t0.subtract(quotientAndRemainder[0].multiply(t1));
+
+                r0 = r1;
+                r1 = quotientAndRemainder[1];
+                t0 = t1;
+                t1 = t;
+            } else {
+                final BigInteger r = Rationals.combine(r0, a, r1, b);
+                final BigInteger t = Rationals.combine(t0, a, t1, b);
+
+                r1 = Rationals.combine(r0, c, r1, d);
+                t1 = Rationals.combine(t0, c, t1, d);
+                r0 = r;
+                t0 = t;
+            }
+        }
+
+        if (Rationals.exceedsBound(t1, modulus) || !r1.gcd(t1).equals(BigInteger.ONE)) {
+            return null;
+        }
+
+        return t1.signum() < 0
+                ? new BigInteger[] {r1.negate(), t1.negate()}
+                : new BigInteger[] {r1, t1};
+    }
+
+    // Returns whether |x| > sqrt(m / 2), i.e. 2 * x^2 > m. Squares are calculated only when bit lengths are not decisive.
+    private static boolean exceedsBound(final BigInteger x, final BigInteger modulus) {
+        final int bits = 2 * x.bitLength() + 1;
+
+        if (bits != modulus.bitLength() && bits != modulus.bitLength() + 1) {
+            return bits > modulus.bitLength();
+        }
+
+        return x.multiply(x).shiftLeft(1).compareTo(modulus) > 0;
+    }
+
+    // Returns x * a + y * b.
+    private static BigInteger combine(final BigInteger x, final long a, final BigInteger y, final long b) {
+        return x.multiply(BigInteger.valueOf(a)).add(y.multiply(BigInteger.valueOf(b)));
+    }
+}
@@ -0,0 +1,376 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Roots of p-adic units modulo p^len.
+ * Degree n = p^k * m with m coprime to p is handled in two stages: p-th roots are taken k times
+ * and then roots of degree m are taken of each of them, so that every root of degree n is found exactly once.
+ * <p>
+ * Roots of degree m are residues r with r^m = u (mod p), which are found by discrete logarithm to a primitive root,
+ * and each of them is lifted by Newton iteration <code>y = y + y * (1 - u * y^m) / m</code> for the inverse root
+ * that doubles number of correct digits on every step. The root itself is <code>u * y^(m - 1)</code>.
+ * <p>
+ * The same iteration finds p-th roots, but there it divides by p, so it starts from a residue modulo p^2
+ * (modulo 8 for p = 2) and result loses its highest digit.
+ * A unit is a p-th power if and only if u^(p - 1) = 1 (mod p^2) for odd p, and u = 1 (mod 8) for p = 2.
+ */
+final class Roots {
+
+    private Roots() {
+    }
+
+    /**
+     * Returns all roots of degree n of the unit modulo p^len.
+     * @param unit digits of the unit, lowest digit first. Its lowest digit must be non-zero.
+     * @param degree positive degree of the roots.
+     * @param base base of the digits.
+     * @param len number of digits of the unit and of the roots.
+     * @return digits of the roots in no particular order, the list is empty if there are no roots.
+     */
+    static List<int[]> roots(final int[] unit, final int degree, final int base, final int len) {
+        List<int[]> roots = new ArrayList<int[]>();
+        roots.add(Arrays.copyOf(unit, len));
+
+        int rest = degree;
+
+        while (rest % base == 0) {
+            rest /= base;
+
+            final List<int[]> next = new ArrayList<int[]>();
+
+            for (final int[] root : roots) {
+                next.addAll(Roots.rootsOfBaseDegree(root, base, len));
+            }
+
+            roots = next;
+        }
+
+        if (rest > 1) {
+            final List<int[]> next = new ArrayList<int[]>();
+
+            for (final int[] root : roots) {
+                next.addAll(Roots.rootsOfCoprimeDegree(root, rest, base, len));
+            }
+
+            roots = next;
+        }
+
+        // Roots that differ only in digits beyond the precision are the same root.
+        final List<int[]> distinct = new ArrayList<int[]>();
+
+        for (final int[] root : roots) {
+            boolean found = false;
+
+            for (final int[] other : distinct) {
+                found |= Arrays.equals(root, other);
+            }
+
+            if (!found) {
+                distinct.add(root);
+            }
+        }
+
+        return distinct;
+    }
+
+    // Roots of degree m coprime to p: every root modulo p is lifted to a root modulo p^len.
+    private static List<int[]> rootsOfCoprimeDegree(final int[] unit, final int degree, final int base, final int len) {
+        final List<int[]> roots = new ArrayList<int[]>();
+        final PAdicContext context = PAdicContext.cached(base);
+        final int[] inverses = context.inverses();
+        final int[] inverseDegree = Division.inverse(Roots.digits(degree, base, len), base, len);
+
+        for (final int residue : Roots.residueRoots(unit[0], degree, base, context.primitiveRoot())) {
+            int[] inverseRoot = new int[len];
+            inverseRoot[0] = inverses[residue];
+
+            for (int precision = 1; precision < len; ) {
+                precision = Math.min(precision << 1, len);
+
+                final int[] error = Roots.oneMinus(Multiplication.multiply(unit, Exponentiation.power(inverseRoot, BigInteger.valueOf(degree), base, precision), base, precision), base, precision);
+                final int[] correction = Multiplication.multiply(Multiplication.multiply(inverseRoot, error, base, precision), inverseDegree, base, precision);
+                inverseRoot = Roots.add(Arrays.copyOf(inverseRoot, len), correction, base, precision);
+            }
+
+            roots.add(Multiplication.multiply(unit, Exponentiation.power(inverseRoot, BigInteger.valueOf(degree - 1), base, len), base, len));
+        }
+
+        return roots;
+    }
+
+    // Roots of degree p: the only one for odd p, two opposite ones for p = 2, or none.
+    private static List<int[]> rootsOfBaseDegree(final int[] unit, final int base, final int len) {
+        final List<int[]> roots = new ArrayList<int[]>();
+
+        if (!Roots.isPowerOfBaseDegree(unit, base, len)) {
+            return roots;
+        }
+
+        final BigInteger degree = BigInteger.valueOf(base);
+        final int[] inverseRoot = new int[len];
+        inverseRoot[0] = PAdicContext.cached(base).inverses()[unit[0]];
+
+        // Number of zero lowest digits of the error at least doubles minus one on every step, starting from two.
+        int[] error = Roots.oneMinus(Multiplication.multiply(unit, Exponentiation.power(inverseRoot, degree, base, len), base, len), base, len);
+
+        while (!Roots.isZero(error)) {
+            Roots.shiftDown(error);
+
+            final int[] correction = Multiplication.multiply(inverseRoot, error, base, len);
+            System.arraycopy(Roots.add(inverseRoot, correction, base, len), 0, inverseRoot, 0, len);
+            error = Roots.oneMinus(Multiplication.multiply(unit, Exponentiation.power(inverseRoot, degree, base, len), base, len), base, len);
+        }
+
+        final int[] root = Multiplication.multiply(unit, Exponentiation.power(inverseRoot, BigInteger.valueOf(base - 1), base, len), base, len);
+        roots.add(root);
+
+        if (base == 2) {
+            roots.add(Roots.negate(root, base, len));
+        }
+
+        return roots;
+    }
+
+    // Whether u^(p - 1) = 1 (mod p^2) for odd p, or u = 1 (mod 8) for p = 2, as far as known digits tell.
+    private static boolean isPowerOfBaseDegree(final int[] unit, final int base, final int len) {
+        if (base == 2) {
+            final int known = Math.min(len, 3);
+            int residue = 0;
+
+            for (int i = known - 1; i >= 0; --i) {
+                residue = (residue << 1) | unit[i];
+            }
+
+            return residue == 1;
+        }
+
+        if (len < 2) {
+            return true;
+        }
+
+        final long square = (long) base * base;
+
+        return Roots.power(unit[0] + (long) unit[1] * base, base - 1, square) == 1;
+    }
+
+    /**
+     * Returns all residues r modulo p such that r^degree = residue (mod p).
+     * Residue is a power of the primitive root g, so r = g^t for every t with degree * t = log(residue) (mod p - 1).
+     */
+    static int[] residueRoots(final int residue, final int degree, final int base, final int primitiveRoot) {
+        final int order = base - 1;
+        final int common = (int) Roots.gcd(degree, order);
+        final int log = Roots.discreteLog(residue, primitiveRoot, base);
+
+        if (log % common != 0) {
+            return new int[0];
+        }
+
+        final int reducedOrder = order / common;
+        final long first = reducedOrder == 1 ? 0 : (long) (log / common) * Roots.inverse((degree / common) % reducedOrder, reducedOrder) % reducedOrder;
+        final int[] roots = new int[common];
+
+        for (int j = 0; j < common; ++j) {
+            roots[j] = (int) Roots.power(primitiveRoot, first + (long) j * reducedOrder, base);
+        }
+
+        return roots;
+    }
+
+    /**
+     * Returns t such that g^t = residue (mod p) by baby-step giant-step algorithm, or -1 if there is no such t.
+     */
+    static int discreteLog(final int residue, final int primitiveRoot, final int base) {
+        final int order = base - 1;
+        int steps = 1;
+
+        while ((long) steps * steps < order) {
+            ++steps;
+        }
+
+        // Baby steps g^j packed with j, sorted by value.
+        final long[] table = new long[steps];
+        long power = 1;
+
+        for (int j = 0; j < steps; ++j) {
+            table[j] = (power << 32) | j;
+            power = power * primitiveRoot % base;
+        }
+
+        Arrays.sort(table);
+
+        final long giantStep = Roots.power(Roots.inverse(primitiveRoot, base), steps, base);
+        long current = residue;
+
+        for (int i = 0; i < steps; ++i) {
+            final int index = Arrays.binarySearch(table, current << 32);
+            final int position = index >= 0 ? index : -index - 1;
+
+            if (position < steps && (table[position] >>> 32) == current) {
+                return (int) (((long) i * steps + (table[position] & 0xFFFFFFFFL)) % order);
+            }
+
+            current = current * giantStep % base;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns value^exponent modulo given modulus, which must be less than 2^32.
+     */
+    static long power(final long value, long exponent, final long modulus) {
+        long result = 1 % modulus;
+        long square = value % modulus;
+
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) {
+                result = result * square % modulus;
+            }
+
+            square = square * square % modulus;
+            exponent >>= 1;
+        }
+
+        return result;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            final long rest = a % b;
+            a = b;
+            b = rest;
+        }
+
+        return a;
+    }
+
+    // Inverse of a modulo m for a coprime to m by extended Euclidean algorithm.
+    private static long inverse(final long a, final long m) {
+        long oldR = a;
+        long r = m;
+        long oldS = 1;
+        long s = 0;
+
+        while (r != 0) {
+            final long quotient = oldR / r;
+            long next = oldR - quotient * r;
+            oldR = r;
+            r = next;
+            next = oldS - quotient * s;
+            oldS = s;
+            s = next;
+        }
+
+        return ((oldS % m) + m) % m;
+    }
+
+    // Lowest len digits of a non-negative int.
+    private static int[] digits(int value, final int base, final int len) {
+        final int[] digits = new int[len];
+
+        for (int i = 0; i < len && value > 0; ++i) {
+            digits[i] = value % base;
+            value /= base;
+        }
+
+        return digits;
+    }
+
+    // (1 - x) mod p^len, written into x.
+    private static int[] oneMinus(final int[] x, final int base, final int len) {
+        Roots.negate(x, base, len, x);
+
+        for (int i = 0; i < len; ++i) {
+            if (x[i] < base - 1) {
+                ++x[i];
+                break;
+            }
+
+            x[i] = 0;
+        }
+
+        return x;
+    }
+
+    // (first + second) mod p^len, written into first.
+    private static int[] add(final int[] first, final int[] second, final int base, final int len) {
+        int carry = 0;
+
+        for (int i = 0; i < len; ++i) {
+            final int sum = first[i] + second[i] + carry;
+            carry = sum >= base ? 1 : 0;
+            first[i] = sum - carry * base;
+        }
+
+        return first;
+    }
+
+    private static int[] negate(final int[] x, final int base, final int len) {
+        final int[] result = new int[len];
+        Roots.negate(x, base, len, result);
+
+        return result;
+    }
+
+    private static void negate(final int[] x, final int base, final int len, final int[] result) {
+        int pos = 0;
+
+        while (pos < len && x[pos] == 0) {
+            result[pos] = 0;
+            ++pos;
+        }
+
+        if (pos < len) {
+            result[pos] = base - x[pos];
+
+            for (int i = pos + 1; i < len; ++i) {
+                result[i] = base - 1 - x[i];
+            }
+        }
+    }
+
+    // Divides x by p, highest digit becomes zero. Lowest digit must be zero.
+    private static void shiftDown(final int[] x) {
+        System.arraycopy(x, 1, x, 0, x.length - 1);
+        x[x.length - 1] = 0;
+    }
+
+    private static boolean isZero(final int[] x) {
+        for (final int digit : x) {
+            if (digit != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
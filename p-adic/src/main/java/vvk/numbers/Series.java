@@ -0,0 +1,375 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Exponent and logarithm series of p-adic numbers modulo p^len.
+ * Series are truncated at the first term after which valuations of all the terms are at least len,
+ * and they are summed by Horner's rule, where a step that is multiplied by x^n afterwards keeps
+ * only len - n * v(x) digits.
+ * <p>
+ * Terms are not divided one by one: exponent is summed as an integer numerator over (N - 1)!, whose valuation
+ * and inverse of the rest are cached per base in {@link PAdicContext}, and logarithm is summed over p^E,
+ * where the denominators of the terms are divided out exactly by small integers in linear time.
+ * Both sums are divided once, and enough extra digits are kept for it.
+ * <p>
+ * Arguments are reduced so that the series are short: the lowest digits of the argument of the exponent are split off
+ * and summed in integer columns, and argument of the logarithm is raised to power p^k first:
+ * log(u) = log(u^(p^k)) / p^k.
+ */
+final class Series {
+
+    private Series() {
+    }
+
+    /**
+     * Returns digits of exp(x) modulo p^len.
+     * The lowest digits of x that fit into an <code>int</code> are split off: exp(x) = exp(a) * exp(b),
+     * where a is small, so the terms of its long series are multiplied by it in linear time,
+     * and b has large order, so its series is short.
+     * @param x digits of x, lowest digit first.
+     * @param order order of x, at least 1 for odd p and at least 2 for p = 2.
+     * @param base base of the digits.
+     * @param len number of digits of x and of the result.
+     * @return <code>len</code> lowest digits of the exponent.
+     */
+    static int[] exp(final int[] x, final int order, final int base, final int len) {
+        final int split = Math.min(Series.intDigits(base), len);
+
+        if (order >= split) {
+            return Series.expSeries(x, order, base, len);
+        }
+
+        int small = 0;
+
+        for (int i = split - 1; i >= 0; --i) {
+            small = small * base + x[i];
+        }
+
+        final int[] rest = Arrays.copyOf(x, len);
+        Arrays.fill(rest, 0, split, 0);
+
+        int restOrder = split;
+
+        while (restOrder < len && rest[restOrder] == 0) {
+            ++restOrder;
+        }
+
+        final int[] result = Series.expSeries(small, order, base, len);
+
+        return restOrder < len ? Multiplication.multiply(result, Series.expSeries(rest, restOrder, base, len), base, len) : result;
+    }
+
+    // Exponent of x given by digits.
+    private static int[] expSeries(final int[] x, final int order, final int base, final int len) {
+        final PAdicContext context = PAdicContext.cached(base);
+        final int terms = Series.expTerms(order, base, len);
+        final int valuation = context.factorialValuation(terms - 1);
+        final int width = len + valuation;
+        final int[] point = Arrays.copyOf(x, width);
+        final long[] workspace = new long[Multiplication.workspaceSize(width)];
+
+        // Sum of x^n * (N - 1)! / n!, whose coefficients are products of the largest factors of (N - 1)!.
+        final int[] sum = new int[width];
+        final int[] coefficient = new int[width];
+        sum[0] = 1;
+        coefficient[0] = 1;
+
+        for (int n = terms - 2; n >= 0; --n) {
+            Series.multiply(coefficient, n + 1, base, width);
+
+            final int known = Series.known(width, n, order);
+            Multiplication.multiply(sum, point, base, known, workspace, sum);
+            Series.add(sum, coefficient, base, known);
+        }
+
+        return Series.divideByFactorial(sum, terms - 1, base, len);
+    }
+
+    // Exponent of x < p^s, where p^s fits into int. Sum is kept in columns of radix p^s,
+    // so that every step multiplies the columns by integers instead of digits.
+    private static int[] expSeries(final int x, final int order, final int base, final int len) {
+        final PAdicContext context = PAdicContext.cached(base);
+        final int terms = Series.expTerms(order, base, len);
+        final int width = len + context.factorialValuation(terms - 1);
+        final int digitsPerColumn = Series.intDigits(base);
+        final long radix = Multiplication.columnRadix(base, digitsPerColumn);
+        final int columns = Multiplication.columnCount(width, digitsPerColumn);
+        final long[] sum = new long[columns];
+        final long[] coefficient = new long[columns];
+        sum[0] = 1;
+        coefficient[0] = 1;
+
+        for (int n = terms - 2; n >= 0; --n) {
+            Series.multiply(coefficient, n + 1, radix, columns);
+
+            final int known = Multiplication.columnCount(Series.known(width, n, order), digitsPerColumn);
+            Series.multiply(sum, x, radix, known);
+
+            long carry = 0;
+
+            for (int i = 0; i < known; ++i) {
+                final long next = sum[i] + coefficient[i] + carry;
+                carry = next >= radix ? 1 : 0;
+                sum[i] = next - carry * radix;
+            }
+        }
+
+        final int[] digits = new int[columns * digitsPerColumn];
+
+        for (int i = 0; i < columns; ++i) {
+            long column = sum[i];
+
+            for (int j = 0; j < digitsPerColumn; ++j) {
+                digits[i * digitsPerColumn + j] = (int) (column % base);
+                column /= base;
+            }
+        }
+
+        return Series.divideByFactorial(digits, terms - 1, base, len);
+    }
+
+    // Lowest len digits of sum / n!, where sum is divisible by n! and has len + v(n!) digits.
+    private static int[] divideByFactorial(final int[] sum, final int n, final int base, final int len) {
+        final PAdicContext context = PAdicContext.cached(base);
+        final int valuation = context.factorialValuation(n);
+        final int[] result = Arrays.copyOfRange(sum, valuation, valuation + len);
+
+        return Multiplication.multiply(result, context.factorialUnitInverse(n, len), base, len);
+    }
+
+    /**
+     * Returns digits of log(u) modulo p^len.
+     * Units that are not 1 modulo p are raised to power p - 1 first, and the logarithm is divided by p - 1,
+     * so it is the logarithm that vanishes on roots of unity. For p = 2 such root is -1.
+     * @param unit digits of the unit, lowest digit first. Its lowest digit must be non-zero.
+     * @param base base of the digits.
+     * @param len number of digits of the unit and of the result.
+     * @return <code>len</code> lowest digits of the logarithm.
+     */
+    static int[] log(final int[] unit, final int base, final int len) {
+        final int reduction = Series.reduction(base, len);
+        final int extended = len + reduction;
+        int[] y = Arrays.copyOf(unit, extended);
+        boolean raised = false;
+
+        if (base == 2) {
+            if (extended > 1 && y[1] == 1) {
+                Series.negate(y, base, extended);
+            }
+        } else if (y[0] != 1) {
+            y = Exponentiation.power(y, BigInteger.valueOf(base - 1), base, extended);
+            raised = true;
+        }
+
+        if (reduction > 0) {
+            y = Exponentiation.power(y, BigInteger.valueOf(base).pow(reduction), base, extended);
+        }
+
+        // y = u - 1, its lowest digit is 1 now.
+        y[0] = 0;
+
+        int order = 0;
+
+        while (order < extended && y[order] == 0) {
+            ++order;
+        }
+
+        if (order == extended) {
+            return new int[len];
+        }
+
+        int terms = 1;
+
+        while ((long) (terms + 1) * order - Series.floorLog(terms + 1, base) < extended) {
+            ++terms;
+        }
+
+        // Sum of (-1)^(n + 1) * y^(n - 1) * p^E / n, whose coefficients are p-adic integers.
+        final int shift = Series.floorLog(terms, base);
+        final int width = extended + shift;
+        final int[] point = Arrays.copyOf(y, width);
+        final long[] workspace = new long[Multiplication.workspaceSize(width)];
+        final int[] sum = new int[width];
+        final int[] term = new int[width];
+
+        Series.term(terms, shift, base, width, sum);
+
+        for (int n = terms - 1; n >= 1; --n) {
+            final int known = Series.known(width, n, order);
+            Multiplication.multiply(sum, point, base, known, workspace, sum);
+            Series.term(n, shift, base, known, term);
+            Series.add(sum, term, base, known);
+        }
+
+        Multiplication.multiply(sum, point, base, width, workspace, sum);
+
+        final int[] result = Arrays.copyOfRange(sum, shift + reduction, shift + reduction + len);
+
+        if (raised) {
+            Series.divide(result, base - 1, base, len);
+        }
+
+        return result;
+    }
+
+    // Number of the terms of exponent series, N, such that v(x^n / n!) >= len for all n >= N.
+    // Since v(n!) <= (n - 1) / (p - 1), it is enough that n * (v(x) * (p - 1) - 1) >= len * (p - 1) - 1.
+    private static int expTerms(final int order, final int base, final int len) {
+        final long step = (long) order * (base - 1) - 1;
+        final long bound = (long) len * (base - 1) - 1;
+
+        return (int) Math.max((bound + step - 1) / step, 1);
+    }
+
+    // Number of digits s such that p^s fits into int.
+    private static int intDigits(final int base) {
+        int digits = 0;
+
+        for (long power = base; power <= Integer.MAX_VALUE; power *= base) {
+            ++digits;
+        }
+
+        return digits;
+    }
+
+    // Power k of p the argument of logarithm is raised to. Every step of the power costs about 1.5 * log2(p)
+    // multiplications and shortens series by len / k^2 terms, so the least total cost is at k = sqrt(len / (3 * log2(p))).
+    private static int reduction(final int base, final int len) {
+        final int bits = Integer.SIZE - Integer.numberOfLeadingZeros(base);
+
+        return (int) Math.sqrt(len / (3.0 * bits));
+    }
+
+    // Number of digits that a step of Horner's rule for coefficient at x^n needs.
+    private static int known(final int width, final int n, final int order) {
+        return (int) Math.max(Math.min(width - (long) n * order, width), 1);
+    }
+
+    private static int floorLog(int n, final int base) {
+        int log = 0;
+
+        while (n >= base) {
+            n /= base;
+            ++log;
+        }
+
+        return log;
+    }
+
+    // Digits of (-1)^(n + 1) * p^shift / n modulo p^len, where p^shift is divisible by the power of p in n.
+    private static void term(final int n, final int shift, final int base, final int len, final int[] result) {
+        int rest = n;
+        int power = 0;
+
+        while (rest % base == 0) {
+            rest /= base;
+            ++power;
+        }
+
+        Arrays.fill(result, 0, len, 0);
+
+        if (shift - power < len) {
+            result[shift - power] = 1;
+            Series.divide(result, rest, base, len);
+        }
+
+        if ((n & 1) == 0) {
+            Series.negate(result, base, len);
+        }
+    }
+
+    /**
+     * Multiplies digits by a small positive integer modulo p^len.
+     */
+    static void multiply(final int[] digits, final int factor, final int base, final int len) {
+        long carry = 0;
+
+        for (int i = 0; i < len; ++i) {
+            final long current = (long) digits[i] * factor + carry;
+            digits[i] = (int) (current % base);
+            carry = current / base;
+        }
+    }
+
+    // Multiplies columns of given radix by a positive integer less than 2^31 modulo radix^len.
+    private static void multiply(final long[] columns, final int factor, final long radix, final int len) {
+        long carry = 0;
+
+        for (int i = 0; i < len; ++i) {
+            final long current = columns[i] * factor + carry;
+            columns[i] = current % radix;
+            carry = current / radix;
+        }
+    }
+
+    /**
+     * Divides digits by a small positive integer coprime to p modulo p^len in linear time:
+     * every digit of the quotient is the only one that makes the lowest digit of the remainder zero.
+     */
+    static void divide(final int[] digits, final int divisor, final int base, final int len) {
+        final long inverse = PAdicContext.cached(base).inverses()[divisor % base];
+        long carry = 0;
+
+        for (int i = 0; i < len; ++i) {
+            long current = digits[i] + carry;
+            final long digit = ((current % base) + base) % base * inverse % base;
+            current -= digit * divisor;
+            digits[i] = (int) digit;
+            carry = current / base;
+        }
+    }
+
+    // (first + second) mod p^len, written into first.
+    private static void add(final int[] first, final int[] second, final int base, final int len) {
+        int carry = 0;
+
+        for (int i = 0; i < len; ++i) {
+            final int sum = first[i] + second[i] + carry;
+            carry = sum >= base ? 1 : 0;
+            first[i] = sum - carry * base;
+        }
+    }
+
+    // -x mod p^len, written into x.
+    private static void negate(final int[] x, final int base, final int len) {
+        int pos = 0;
+
+        while (pos < len && x[pos] == 0) {
+            ++pos;
+        }
+
+        if (pos < len) {
+            x[pos] = base - x[pos];
+
+            for (int i = pos + 1; i < len; ++i) {
+                x[i] = base - 1 - x[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Carry-save summation of many p-adic numbers.
+ * Every limb of every term is split into its lowest 32 bits and the rest, and both halves are added
+ * to separate wide columns, so adding a term takes a few operations per limb without comparisons and divisions.
+ * Carries between limbs are propagated once, when all terms have been added.
+ * Terms are shifted, so that their points were exactly under the lowest point of all terms, as {@link PAdic#add(PAdic)} does.
+ * Parts of the terms can be added in parallel on a fork-join pool and their columns are merged afterwards.
+ */
+final class Summation {
+
+    // Number of terms below which a part is added sequentially.
+    private static final int PARALLEL_THRESHOLD = (1 << 10);
+    // Number of terms after which columns are normalized, so that sums of halves stay below 2^63.
+    private static final int FLUSH_THRESHOLD = (1 << 30);
+    private static final long LOW_MASK = 0xFFFFFFFFL;
+    private static final double LOW_RADIX = 4294967296.0;
+
+    private final PAdic[] terms;
+    private final int base;
+    private final int len;
+    private final int limbCount;
+    // Power of p that the lowest digit of the sum stands for.
+    private final int point;
+
+    private Summation(final PAdic[] terms) {
+        if (terms.length == 0) {
+            throw new RuntimeException("Sum needs at least one term.");
+        }
+
+        final int base = terms[0].getBase();
+        int len = Integer.MAX_VALUE;
+        int point = 0;
+
+        for (final PAdic term : terms) {
+            if (term.getBase() != base) {
+                throw new RuntimeException("Mathematical operations can be done only with p-adic numbers that have the same base.");
+            }
+
+            len = Math.min(len, term.getPrecision());
+            point = Math.min(point, term.getOrder());
+        }
+
+        this.terms = terms;
+        this.base = base;
+        this.len = len;
+        this.limbCount = Limbs.limbCount(len, base);
+        this.point = point;
+    }
+
+    /**
+     * Returns sum of all the terms. Precision of the sum is the least of precisions of the terms.
+     * @param pool pool to add parts of the terms on, or <code>null</code> to add them sequentially.
+     */
+    static PAdic sum(final PAdic[] terms, final ForkJoinPool pool) {
+        final Summation summation = new Summation(terms);
+        final Columns columns = pool == null
+                ? summation.add(0, terms.length)
+                : pool.invoke(summation.new Part(0, terms.length));
+
+        final long[] limbs = columns.normalize();
+
+        return PAdic.valueOf(limbs, PAdic.calculateOrder(limbs, summation.point, summation.base, summation.len), summation.base, summation.len);
+    }
+
+    // Columns of terms from the given range.
+    private Columns add(final int from, final int to) {
+        final Columns columns = new Columns();
+        long[] shifted = null;
+
+        for (int i = from; i < to; ++i) {
+            final PAdic term = terms[i];
+            final int shift = Math.min(term.getOrder(), 0) - point;
+
+            if (shift == 0) {
+                columns.add(term.limbs());
+            } else if (shift < len) {
+                if (shifted == null) {
+                    shifted = new long[limbCount];
+                }
+
+                Limbs.shiftUp(term.limbs(), base, len, shift, shifted);
+                columns.add(shifted);
+            }
+        }
+
+        return columns;
+    }
+
+    // Sums of lowest 32 bits and of the rest of limbs, i.e. column l holds low[l] + high[l] * 2^32.
+    private final class Columns {
+
+        private final long[] low = new long[limbCount];
+        private final long[] high = new long[limbCount];
+        private int count = 0;
+
+        void add(final long[] limbs) {
+            if (count == FLUSH_THRESHOLD) {
+                flush();
+            }
+
+            for (int l = 0; l < limbCount; ++l) {
+                final long limb = limbs[l];
+                low[l] += limb & LOW_MASK;
+                high[l] += limb >>> 32;
+            }
+
+            ++count;
+        }
+
+        void merge(final Columns other) {
+            if (count > FLUSH_THRESHOLD - other.count) {
+                flush();
+                other.flush();
+            }
+
+            for (int l = 0; l < limbCount; ++l) {
+                low[l] += other.low[l];
+                high[l] += other.high[l];
+            }
+
+            count += other.count;
+        }
+
+        // Replaces columns by limbs of their sum, which count as one term.
+        private void flush() {
+            final long[] limbs = normalize();
+
+            for (int l = 0; l < limbCount; ++l) {
+                low[l] = limbs[l] & LOW_MASK;
+                high[l] = limbs[l] >>> 32;
+            }
+
+            count = 1;
+        }
+
+        // Propagates carries through columns and returns limbs of len lowest digits of the sum.
+        long[] normalize() {
+            final long[] limbs = new long[limbCount];
+            long carry = 0;
+
+            if (base == 2) {
+                for (int l = 0; l < limbCount; ++l) {
+                    final long lowSum = low[l] + carry;
+                    final long highSum = high[l] + (lowSum >>> 32);
+                    limbs[l] = (highSum << 32) | (lowSum & LOW_MASK);
+                    carry = highSum >>> 32;
+                }
+
+                limbs[limbCount - 1] &= TwoAdic.topMask(len);
+
+                return limbs;
+            }
+
+            final long[] powers = Limbs.powers(base);
+            final int k = powers.length - 1;
+            final long radix = powers[k];
+
+            for (int l = 0; l < limbCount; ++l) {
+                final long lowSum = low[l] + carry;
+                final long highSum = high[l] + (lowSum >>> 32);
+                final long lowHalf = lowSum & LOW_MASK;
+
+                // Column is below 2^95, so quotient is estimated in double arithmetic with error of at most one,
+                // and remainder is calculated modulo 2^64, which is exact since it is less than 2 radix by absolute value.
+                long quotient = (long) ((highSum * LOW_RADIX + lowHalf) / radix);
+                long remainder = (highSum << 32) + lowHalf - quotient * radix;
+
+                while (remainder < 0) {
+                    remainder += radix;
+                    --quotient;
+                }
+
+                while (remainder >= radix) {
+                    remainder -= radix;
+                    ++quotient;
+                }
+
+                limbs[l] = remainder;
+                carry = quotient;
+            }
+
+            limbs[limbCount - 1] %= powers[len - (limbCount - 1) * k];
+
+            return limbs;
+        }
+    }
+
+    private final class Part extends RecursiveTask<Columns> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        Part(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Columns compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return Summation.this.add(from, to);
+            }
+
+            final int middle = (from + to) >>> 1;
+            final Part left = new Part(from, middle);
+            left.fork();
+
+            final Columns right = new Part(middle, to).compute();
+            final Columns columns = left.join();
+            columns.merge(right);
+
+            return columns;
+        }
+    }
+}
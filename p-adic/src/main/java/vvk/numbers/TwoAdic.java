@@ -0,0 +1,363 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic of 2-adic digits packed into 64-bit words.
+ * Digit i of a number is bit <code>i % 64</code> of word <code>i / 64</code>, so a sequence of <code>len</code> digits
+ * is a <code>len</code>-bit two's complement integer, and arithmetic modulo 2^len is native machine arithmetic:
+ * words are added and subtracted with carries, multiplied with full 128-bit products
+ * and inverted by Newton iteration on words.
+ * Layout is the limb layout of {@link Limbs} for base 2, which delegates here.
+ */
+final class TwoAdic {
+
+    static final int WORD_SIZE = 64;
+
+    /**
+     * Number of words up to which quadratic multiplication of words is faster than transform-based multiplication of digits.
+     */
+    static final int MULTIPLICATION_WORD_LIMIT = 1 << 12;
+
+    private static final long LOWER_HALF = 0xFFFFFFFFL;
+
+    private TwoAdic() {
+    }
+
+    /**
+     * Returns number of words that <code>len</code> digits take.
+     */
+    static int wordCount(final int len) {
+        return (len + WORD_SIZE - 1) >>> 6;
+    }
+
+    /**
+     * Returns mask of digits that the highest of words holding <code>len</code> digits keeps.
+     */
+    static long topMask(final int len) {
+        final int rest = len & (WORD_SIZE - 1);
+
+        return rest == 0 ? -1L : (1L << rest) - 1;
+    }
+
+    static long[] pack(final int[] digits, final int len) {
+        final long[] words = new long[TwoAdic.wordCount(len)];
+
+        for (int i = 0; i < len; ++i) {
+            words[i >>> 6] |= (long) digits[i] << i;
+        }
+
+        return words;
+    }
+
+    static void unpack(final long[] words, final int len, final int[] digits) {
+        for (int i = 0; i < len; ++i) {
+            digits[i] = (int) (words[i >>> 6] >>> i) & 1;
+        }
+    }
+
+    static int digit(final long[] words, final int index) {
+        return (int) (words[index >>> 6] >>> index) & 1;
+    }
+
+    static int valuation(final long[] words, final int len) {
+        final int count = TwoAdic.wordCount(len);
+
+        for (int l = 0; l < count; ++l) {
+            if (words[l] != 0) {
+                return Math.min((l << 6) + Long.numberOfTrailingZeros(words[l]), len);
+            }
+        }
+
+        return len;
+    }
+
+    static void add(final long[] first, final long[] second, final int len, final long[] result) {
+        final int count = TwoAdic.wordCount(len);
+        long carry = 0;
+
+        for (int l = 0; l < count; ++l) {
+            final long x = first[l];
+            final long y = second[l];
+            final long sum = x + y + carry;
+            carry = ((x & y) | ((x | y) & ~sum)) >>> 63;
+            result[l] = sum;
+        }
+
+        result[count - 1] &= TwoAdic.topMask(len);
+    }
+
+    static void subtract(final long[] first, final long[] second, final int len, final long[] result) {
+        final int count = TwoAdic.wordCount(len);
+        long borrowed = 0;
+
+        for (int l = 0; l < count; ++l) {
+            final long x = first[l];
+            final long y = second[l];
+            final long difference = x - y - borrowed;
+            borrowed = ((~x & y) | ((~x | y) & difference)) >>> 63;
+            result[l] = difference;
+        }
+
+        result[count - 1] &= TwoAdic.topMask(len);
+    }
+
+    static void negate(final long[] words, final int len, final long[] result) {
+        final int count = TwoAdic.wordCount(len);
+        long borrowed = 0;
+
+        for (int l = 0; l < count; ++l) {
+            final long x = words[l];
+            final long difference = -x - borrowed;
+            borrowed = (x | difference) >>> 63;
+            result[l] = difference;
+        }
+
+        result[count - 1] &= TwoAdic.topMask(len);
+    }
+
+    static void shiftUp(final long[] words, final int len, final int count, final long[] result) {
+        final int wordCount = TwoAdic.wordCount(len);
+        final int wholeWords = count >>> 6;
+        final int rest = count & (WORD_SIZE - 1);
+
+        for (int l = wordCount - 1; l >= 0; --l) {
+            final int from = l - wholeWords;
+            long word = 0;
+
+            if (from >= 0) {
+                word = words[from] << rest;
+            }
+
+            if (from > 0 && rest > 0) {
+                word |= words[from - 1] >>> (WORD_SIZE - rest);
+            }
+
+            result[l] = word;
+        }
+
+        result[wordCount - 1] &= TwoAdic.topMask(len);
+    }
+
+    static void shiftDown(final long[] words, final int len, final int count, final long[] result) {
+        final int wordCount = TwoAdic.wordCount(len);
+        final int wholeWords = count >>> 6;
+        final int rest = count & (WORD_SIZE - 1);
+
+        for (int l = 0; l < wordCount; ++l) {
+            final int from = l + wholeWords;
+            long word = 0;
+
+            if (from < wordCount) {
+                word = words[from] >>> rest;
+            }
+
+            if (from + 1 < wordCount && rest > 0) {
+                word |= words[from + 1] << (WORD_SIZE - rest);
+            }
+
+            result[l] = word;
+        }
+    }
+
+    static boolean equal(final long[] first, final long[] second, final int count) {
+        final int wholeWords = count >>> 6;
+
+        for (int l = 0; l < wholeWords; ++l) {
+            if (first[l] != second[l]) {
+                return false;
+            }
+        }
+
+        final long mask = (1L << (count & (WORD_SIZE - 1))) - 1;
+
+        return mask == 0 || (first[wholeWords] & mask) == (second[wholeWords] & mask);
+    }
+
+    static int hash(final long[] words, final int count) {
+        final int wholeWords = count >>> 6;
+        final int prime = 31;
+        int hash = 0;
+
+        for (int l = 0; l < wholeWords; ++l) {
+            hash = hash * prime + (int) (words[l] ^ (words[l] >>> 32));
+        }
+
+        final long mask = (1L << (count & (WORD_SIZE - 1))) - 1;
+
+        if (mask != 0) {
+            final long word = words[wholeWords] & mask;
+            hash = hash * prime + (int) (word ^ (word >>> 32));
+        }
+
+        return hash;
+    }
+
+    static long[] fromBigInteger(final BigInteger value, final int len) {
+        final long[] words = new long[TwoAdic.wordCount(len)];
+        final byte[] bytes = value.toByteArray();
+
+        // Bytes are big-endian, the lowest byte is the last one.
+        for (int i = 0; i < bytes.length && (i >>> 3) < words.length; ++i) {
+            words[i >>> 3] |= (bytes[bytes.length - 1 - i] & 0xFFL) << ((i & 7) << 3);
+        }
+
+        words[words.length - 1] &= TwoAdic.topMask(len);
+
+        return words;
+    }
+
+    static BigInteger toBigInteger(final long[] words, final int len) {
+        final int count = TwoAdic.wordCount(len);
+        final byte[] bytes = new byte[count << 3];
+
+        for (int l = 0; l < count; ++l) {
+            final long word = l == count - 1 ? words[l] & TwoAdic.topMask(len) : words[l];
+
+            for (int b = 0; b < 8; ++b) {
+                bytes[bytes.length - 1 - (l << 3) - b] = (byte) (word >>> (b << 3));
+            }
+        }
+
+        return new BigInteger(1, bytes);
+    }
+
+    /**
+     * Writes (first * second) mod 2^len into <code>result</code>.
+     * Result must not be the same array as any of the operands.
+     */
+    static void multiply(final long[] first, final long[] second, final int len, final long[] result) {
+        final int count = TwoAdic.wordCount(len);
+
+        for (int l = 0; l < count; ++l) {
+            result[l] = 0;
+        }
+
+        for (int i = 0; i < count; ++i) {
+            final long x = first[i];
+
+            if (x == 0) {
+                continue;
+            }
+
+            long carry = 0;
+
+            for (int j = 0; i + j < count; ++j) {
+                final long y = second[j];
+                final long low = x * y;
+                long high = TwoAdic.multiplyHigh(x, y);
+
+                final long withCarry = low + carry;
+                high += Long.compareUnsigned(withCarry, low) < 0 ? 1 : 0;
+
+                final long sum = withCarry + result[i + j];
+                high += Long.compareUnsigned(sum, withCarry) < 0 ? 1 : 0;
+
+                result[i + j] = sum;
+                carry = high;
+            }
+        }
+
+        result[count - 1] &= TwoAdic.topMask(len);
+    }
+
+    /**
+     * Returns (dividend / divisor) mod 2^len. Lowest digit of the divisor must be one.
+     */
+    static long[] divide(final long[] dividend, final long[] divisor, final int len) {
+        final long[] result = new long[TwoAdic.wordCount(len)];
+        TwoAdic.multiply(dividend, TwoAdic.inverse(divisor, len), len, result);
+
+        return result;
+    }
+
+    /**
+     * Returns inverse of odd number modulo 2^len.
+     * Inverse of the lowest word is found by Newton iteration on machine words, every step doubles number of
+     * correct bits starting from three, and then it is lifted word by word in the same way as in {@link Division}.
+     */
+    static long[] inverse(final long[] unit, final int len) {
+        final int count = TwoAdic.wordCount(len);
+        final long[] result = new long[count];
+
+        // x * x = 1 (mod 8) for every odd x.
+        final long lowest = unit[0];
+        long inverse = lowest;
+
+        for (int bits = 3; bits < WORD_SIZE; bits <<= 1) {
+            inverse *= 2 - lowest * inverse;
+        }
+
+        result[0] = inverse;
+
+        final long[] correction = new long[count];
+        final long[] next = new long[count];
+
+        for (int words = 1; words < count; ) {
+            words = Math.min(words << 1, count);
+            final int bits = words << 6;
+
+            TwoAdic.multiply(unit, result, bits, correction);
+            TwoAdic.negate(correction, bits, correction);
+            TwoAdic.addTwo(correction, words);
+
+            TwoAdic.multiply(result, correction, bits, next);
+            System.arraycopy(next, 0, result, 0, words);
+        }
+
+        result[count - 1] &= TwoAdic.topMask(len);
+
+        return result;
+    }
+
+    /**
+     * Returns upper 64 bits of unsigned 128-bit product of two words.
+     */
+    static long multiplyHigh(final long x, final long y) {
+        final long x0 = x & LOWER_HALF;
+        final long x1 = x >>> 32;
+        final long y0 = y & LOWER_HALF;
+        final long y1 = y >>> 32;
+
+        final long low = x0 * y0;
+        final long middle = x1 * y0 + (low >>> 32);
+        final long cross = x0 * y1 + (middle & LOWER_HALF);
+
+        return x1 * y1 + (middle >>> 32) + (cross >>> 32);
+    }
+
+    // Adds two to number of given word count, dropping carry beyond the highest word.
+    private static void addTwo(final long[] words, final int count) {
+        long carry = 2;
+
+        for (int l = 0; l < count && carry != 0; ++l) {
+            final long sum = words[l] + carry;
+            carry = Long.compareUnsigned(sum, words[l]) < 0 ? 1 : 0;
+            words[l] = sum;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class BigPAdicTest {
+
+    private static final int[] BASES = {2, 3, 7, 257, 65521};
+
+    @Test
+    public void testConstruction() {
+        for (final int base : BASES) {
+            for (final long value : new long[] {0, 1, -1, base, -base * 3L, 1234567891011L, -98765432123L}) {
+                final BigInteger bigValue = BigInteger.valueOf(value);
+                assertSame(new PAdic(bigValue, base, 50), new BigPAdic(bigValue, base, 50));
+            }
+
+            final BigInteger numerator = BigInteger.valueOf(-7L * base);
+            final BigInteger denominator = BigInteger.valueOf(15L * base * base);
+            assertSame(new PAdic(numerator, denominator, base, 70), new BigPAdic(numerator, denominator, base, 70));
+        }
+    }
+
+    @Test
+    public void testOperationsAgreeWithDigits() {
+        final Random random = new Random(9);
+
+        for (int test = 0; test < 1500; ++test) {
+            final int base = BASES[random.nextInt(BASES.length)];
+            final PAdic x = randomNumber(random, base);
+            final PAdic y = randomNumber(random, base);
+            final BigPAdic bigX = new BigPAdic(x);
+            final BigPAdic bigY = new BigPAdic(y);
+
+            assertSame(x, bigX);
+            assertSame(x.negative(), bigX.negative());
+            assertSame(x.add(y), bigX.add(bigY));
+            assertSame(x.subtract(y), bigX.subtract(bigY));
+            assertSame(x.multiply(y), bigX.multiply(bigY));
+
+            PAdic quotient = null;
+            String error = null;
+
+            try {
+                quotient = x.divide(y);
+            } catch (RuntimeException e) {
+                error = e.getMessage();
+            }
+
+            try {
+                assertSame(quotient, bigX.divide(bigY));
+            } catch (RuntimeException e) {
+                Assert.assertEquals(error, e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testLargePrecision() {
+        final int base = 5;
+        final int precision = 5000;
+        final BigPAdic third = new BigPAdic(BigInteger.ONE, BigInteger.valueOf(3), base, precision);
+        final BigPAdic one = third.add(third).add(third);
+
+        Assert.assertEquals(new BigPAdic(BigInteger.ONE, base, precision), one);
+        Assert.assertEquals(third, one.divide(new BigPAdic(BigInteger.valueOf(3), base, precision)));
+        Assert.assertEquals(new PAdic(BigInteger.ONE, BigInteger.valueOf(9), base, precision), third.multiply(third).toPAdic());
+    }
+
+    @Test
+    public void testObjectMethods() {
+        final BigPAdic a = new BigPAdic(BigInteger.valueOf(-13), BigInteger.valueOf(25), 5);
+        final BigPAdic b = new BigPAdic(new PAdic(BigInteger.valueOf(-13), BigInteger.valueOf(25), 5));
+
+        Assert.assertEquals(a, b);
+        Assert.assertEquals(a.hashCode(), b.hashCode());
+        Assert.assertEquals(a.toPAdic().toString(), a.toString());
+        Assert.assertEquals(a.toPAdic().getDigit(-2), a.getDigit(-2));
+        Assert.assertEquals(a.toPAdic().getDigit(3), a.getDigit(3));
+        Assert.assertEquals(-2, a.getOrder());
+    }
+
+    private static void assertSame(final PAdic expected, final BigPAdic actual) {
+        final PAdic converted = actual.toPAdic();
+
+        Assert.assertEquals(expected.getOrder(), actual.getOrder());
+        Assert.assertEquals(expected.getPrecision(), actual.getPrecision());
+        Assert.assertArrayEquals(expected.digits(), converted.digits());
+
+        final int lowest = Math.min(expected.getOrder(), 0);
+
+        for (int position = lowest; position < lowest + expected.getPrecision(); position += 7) {
+            Assert.assertEquals(expected.getDigit(position), actual.getDigit(position));
+        }
+    }
+
+    private static PAdic randomNumber(final Random random, final int base) {
+        final int[] sequence = new int[1 + random.nextInt(random.nextBoolean() ? 5 : 100)];
+
+        for (int i = 0; i < sequence.length; ++i) {
+            sequence[i] = random.nextInt(10) < 3 ? 0 : random.nextInt(base);
+        }
+
+        final int precision = random.nextBoolean() ? PAdic.DEFAULT_PRECISION : 1 + random.nextInt(200);
+
+        return new PAdic(sequence, random.nextInt(11) - 5, base, precision);
+    }
+}
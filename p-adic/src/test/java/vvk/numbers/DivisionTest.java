@@ -0,0 +1,115 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class DivisionTest {
+
+    private static final int[] BASES = {2, 3, 7, 257, 65521};
+    private static final int[] LENGTHS = {1, 2, 3, 17, 128, 300};
+
+    @Test
+    public void testInverses() {
+        for (final int base : BASES) {
+            final int[] table = PAdicContext.of(base).inverses();
+
+            for (int i = 1; i < base; ++i) {
+                Assert.assertEquals(1L, (long) i * table[i] % base);
+            }
+        }
+    }
+
+    @Test
+    public void testInverse() {
+        final Random random = new Random(17);
+
+        for (final int base : BASES) {
+            for (final int len : LENGTHS) {
+                final int[] unit = randomUnit(random, base, len);
+                final int[] expected = new int[len];
+                expected[0] = 1;
+
+                Assert.assertArrayEquals(expected, Multiplication.multiply(unit, Division.inverse(unit, base, len), base, len));
+            }
+        }
+    }
+
+    @Test
+    public void testDivide() {
+        final Random random = new Random(23);
+
+        for (final int base : BASES) {
+            final BigInteger bigBase = BigInteger.valueOf(base);
+
+            for (final int len : LENGTHS) {
+                final int[] dividend = randomUnit(random, base, len);
+                final int[] divisor = randomUnit(random, base, len);
+                final BigInteger modulus = bigBase.pow(len);
+                final BigInteger expected = toBigInteger(dividend, bigBase)
+                        .multiply(toBigInteger(divisor, bigBase).modInverse(modulus))
+                        .mod(modulus);
+
+                Assert.assertEquals(expected, toBigInteger(Division.divide(dividend, divisor, base, len), bigBase));
+            }
+        }
+    }
+
+    @Test
+    public void testLargeBase() {
+        final int base = 65521;
+        final PAdic one = new PAdic(BigInteger.ONE, base);
+        final PAdic third = new PAdic(BigInteger.ONE, new BigInteger("3"), base);
+
+        Assert.assertEquals(one, third.multiply(new PAdic(new BigInteger("3"), base)));
+        Assert.assertEquals(new PAdic(new BigInteger("-1"), base), new PAdic(new BigInteger("-1"), new BigInteger("65522"), base).multiply(new PAdic(new BigInteger("65522"), base)));
+    }
+
+    private static int[] randomUnit(final Random random, final int base, final int len) {
+        final int[] digits = new int[len];
+
+        for (int i = 0; i < len; ++i) {
+            digits[i] = random.nextInt(base);
+        }
+
+        digits[0] = 1 + random.nextInt(base - 1);
+
+        return digits;
+    }
+
+    private static BigInteger toBigInteger(final int[] digits, final BigInteger base) {
+        BigInteger result = BigInteger.ZERO;
+
+        for (int i = digits.length - 1; i >= 0; --i) {
+            result = result.multiply(base).add(BigInteger.valueOf(digits[i]));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+public class LazyPAdicTest {
+
+    @Test
+    public void testArithmetic() {
+        final int base = 5;
+        final PAdic a = new PAdic("1231.0012", base);
+        final PAdic b = new PAdic(new BigInteger("-13"), new BigInteger("75"), base);
+        final LazyPAdic lazyA = LazyPAdic.valueOf(a);
+        final LazyPAdic lazyB = LazyPAdic.valueOf(new BigInteger("-13"), new BigInteger("75"), base);
+
+        Assert.assertEquals(b, lazyB.toPAdic(PAdic.DEFAULT_PRECISION));
+        Assert.assertEquals(a.add(b), lazyA.add(lazyB).toPAdic(PAdic.DEFAULT_PRECISION));
+        Assert.assertEquals(a.subtract(b), lazyA.subtract(lazyB).toPAdic(PAdic.DEFAULT_PRECISION));
+        Assert.assertEquals(b.subtract(a), lazyB.subtract(lazyA).toPAdic(PAdic.DEFAULT_PRECISION));
+        Assert.assertEquals(a.multiply(b), lazyA.multiply(lazyB).toPAdic(PAdic.DEFAULT_PRECISION));
+        Assert.assertEquals(a.divide(b), lazyA.divide(lazyB).toPAdic(PAdic.DEFAULT_PRECISION));
+        Assert.assertEquals(b.divide(a), lazyB.divide(lazyA).toPAdic(PAdic.DEFAULT_PRECISION));
+        Assert.assertEquals(b.negative(), lazyB.negative().toPAdic(PAdic.DEFAULT_PRECISION));
+        Assert.assertEquals(a.add(b).toString(), lazyA.add(lazyB).toString());
+    }
+
+    @Test
+    public void testExactValues() {
+        final int base = 7;
+        final LazyPAdic one = LazyPAdic.valueOf(BigInteger.ONE, base);
+        final LazyPAdic third = LazyPAdic.valueOf(BigInteger.ONE, new BigInteger("3"), base);
+        final LazyPAdic minusOne = LazyPAdic.valueOf(new BigInteger("-1"), base);
+
+        final LazyPAdic zero = third.multiply(LazyPAdic.valueOf(new BigInteger("3"), base)).subtract(one);
+
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertEquals(0, zero.getDigit(i));
+            Assert.assertEquals(base - 1, minusOne.getDigit(i));
+        }
+
+        Assert.assertEquals(new PAdic("0", base, 10), zero.toPAdic(10));
+        Assert.assertEquals(new PAdic(new BigInteger("2"), new BigInteger("49"), base, 300),
+                LazyPAdic.valueOf(new BigInteger("2"), new BigInteger("49"), base).toPAdic(300));
+    }
+
+    @Test
+    public void testOnlyRequestedDigitsAreCalculated() {
+        final int base = 3;
+        final LazyPAdic a = LazyPAdic.valueOf(new BigInteger("-5"), new BigInteger("7"), base);
+        final LazyPAdic b = LazyPAdic.valueOf(new BigInteger("11"), new BigInteger("4"), base);
+        final LazyPAdic c = a.multiply(b).add(a).divide(b);
+
+        c.getDigit(4);
+        Assert.assertEquals(5, c.getCalculated());
+        Assert.assertTrue(a.getCalculated() <= 6);
+
+        c.getDigit(9);
+        Assert.assertEquals(10, c.getCalculated());
+        Assert.assertTrue(a.getCalculated() <= 11);
+    }
+
+    @Test
+    public void testDigitPositions() {
+        final int base = 5;
+        final LazyPAdic a = LazyPAdic.valueOf(new PAdic("123.4", base));
+
+        Assert.assertEquals(0, a.getDigit(-2));
+        Assert.assertEquals(4, a.getDigit(-1));
+        Assert.assertEquals(3, a.getDigit(0));
+        Assert.assertEquals(1, a.getDigit(2));
+        Assert.assertEquals(0, a.getDigit(3));
+
+        final LazyPAdic b = LazyPAdic.valueOf(BigInteger.ONE, new BigInteger("25"), base);
+        Assert.assertEquals(1, b.getDigit(-2));
+        Assert.assertEquals(0, b.getDigit(-1));
+        Assert.assertEquals(-2, b.toPAdic(10).getOrder());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDivisionByZero() {
+        final LazyPAdic one = LazyPAdic.valueOf(BigInteger.ONE, 3);
+        one.divide(LazyPAdic.valueOf(BigInteger.ZERO, 3)).getDigit(0);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class LimbsTest {
+
+    private static final int[] BASES = {2, 3, 7, 257, 65521};
+    private static final int[] LENGTHS = {1, 2, 3, 5, 61, 62, 63, 124, 125, 128, 300};
+
+    @Test
+    public void testDigitsPerLimb() {
+        Assert.assertEquals(64, Limbs.digitsPerLimb(2));
+        Assert.assertEquals(39, Limbs.digitsPerLimb(3));
+        Assert.assertEquals(3, Limbs.digitsPerLimb(65521));
+        Assert.assertEquals(2, Limbs.limbCount(128, 2));
+    }
+
+    @Test
+    public void testPackAndUnpack() {
+        final Random random = new Random(5);
+
+        for (final int base : BASES) {
+            for (final int len : LENGTHS) {
+                final int[] digits = randomDigits(random, base, len);
+                final long[] limbs = Limbs.pack(digits, base, len);
+                final int[] unpacked = new int[len];
+
+                Limbs.unpack(limbs, base, len, unpacked);
+                Assert.assertArrayEquals(digits, unpacked);
+
+                for (int i = 0; i < len; ++i) {
+                    Assert.assertEquals(digits[i], Limbs.digit(limbs, base, i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testArithmetic() {
+        final Random random = new Random(6);
+
+        for (final int base : BASES) {
+            for (final int len : LENGTHS) {
+                final BigInteger modulus = BigInteger.valueOf(base).pow(len);
+                final int[] firstDigits = randomDigits(random, base, len);
+                final int[] secondDigits = randomDigits(random, base, len);
+                final long[] first = Limbs.pack(firstDigits, base, len);
+                final long[] second = Limbs.pack(secondDigits, base, len);
+                final BigInteger x = value(firstDigits, base);
+                final BigInteger y = value(secondDigits, base);
+                final long[] result = new long[first.length];
+
+                Limbs.add(first, second, base, len, result);
+                Assert.assertEquals(x.add(y).mod(modulus), value(result, base, len));
+
+                Limbs.subtract(first, second, base, len, result);
+                Assert.assertEquals(x.subtract(y).mod(modulus), value(result, base, len));
+
+                Limbs.negate(first, base, len, result);
+                Assert.assertEquals(x.negate().mod(modulus), value(result, base, len));
+
+                for (final int count : new int[] {0, 1, len / 2, len - 1, len}) {
+                    final BigInteger power = BigInteger.valueOf(base).pow(count);
+
+                    Limbs.shiftUp(first, base, len, count, result);
+                    Assert.assertEquals(x.multiply(power).mod(modulus), value(result, base, len));
+
+                    Limbs.shiftDown(first, base, len, count, result);
+                    Assert.assertEquals(x.divide(power), value(result, base, len));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOperandsWithMoreDigits() {
+        final Random random = new Random(7);
+
+        for (final int base : BASES) {
+            final int len = 100;
+            final int longer = 250;
+            final BigInteger modulus = BigInteger.valueOf(base).pow(len);
+            final int[] firstDigits = randomDigits(random, base, longer);
+            final int[] secondDigits = randomDigits(random, base, len);
+            final long[] first = Limbs.pack(firstDigits, base, longer);
+            final long[] second = Limbs.pack(secondDigits, base, len);
+            final long[] result = new long[Limbs.limbCount(len, base)];
+
+            Limbs.add(first, second, base, len, result);
+            Assert.assertEquals(value(firstDigits, base).add(value(secondDigits, base)).mod(modulus), value(result, base, len));
+
+            Limbs.subtract(second, first, base, len, result);
+            Assert.assertEquals(value(secondDigits, base).subtract(value(firstDigits, base)).mod(modulus), value(result, base, len));
+
+            Limbs.shiftUp(first, base, len, 3, result);
+            Assert.assertEquals(value(firstDigits, base).multiply(BigInteger.valueOf(base).pow(3)).mod(modulus), value(result, base, len));
+        }
+    }
+
+    @Test
+    public void testValuationAndEquality() {
+        for (final int base : BASES) {
+            for (final int len : LENGTHS) {
+                final int[] digits = new int[len];
+                Assert.assertEquals(len, Limbs.valuation(Limbs.pack(digits, base, len), base, len));
+
+                for (int position = 0; position < len; position += 1 + len / 7) {
+                    digits[position] = base - 1;
+
+                    final long[] limbs = Limbs.pack(digits, base, len);
+                    Assert.assertEquals(position, Limbs.valuation(limbs, base, len));
+
+                    final int[] other = digits.clone();
+                    other[len - 1] = (other[len - 1] + 1) % base;
+                    final long[] otherLimbs = Limbs.pack(other, base, len);
+
+                    Assert.assertTrue(Limbs.equal(limbs, otherLimbs, base, len - 1));
+                    Assert.assertEquals(Limbs.hash(limbs, base, len - 1), Limbs.hash(otherLimbs, base, len - 1));
+                    Assert.assertFalse(Limbs.equal(limbs, otherLimbs, base, len));
+
+                    digits[position] = 0;
+                }
+            }
+        }
+    }
+
+    private static BigInteger value(final long[] limbs, final int base, final int len) {
+        final int[] digits = new int[len];
+        Limbs.unpack(limbs, base, len, digits);
+
+        return value(digits, base);
+    }
+
+    private static BigInteger value(final int[] digits, final int base) {
+        BigInteger result = BigInteger.ZERO;
+        final BigInteger bigBase = BigInteger.valueOf(base);
+
+        for (int i = digits.length - 1; i >= 0; --i) {
+            result = result.multiply(bigBase).add(BigInteger.valueOf(digits[i]));
+        }
+
+        return result;
+    }
+
+    private static int[] randomDigits(final Random random, final int base, final int len) {
+        final int[] digits = new int[len];
+
+        for (int i = 0; i < len; ++i) {
+            digits[i] = random.nextInt(base);
+        }
+
+        return digits;
+    }
+}
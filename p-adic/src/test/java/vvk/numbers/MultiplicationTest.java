@@ -0,0 +1,180 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+public class MultiplicationTest {
+
+    private static final int[] BASES = {2, 5, 257, 65521};
+    private static final int[] LENGTHS = {1, 2, 7, 33, 95, 96, 128, 129, 1500, 2048};
+
+    @Test
+    public void testAlgorithmsAgree() {
+        final Random random = new Random(42);
+
+        for (final int base : BASES) {
+            for (final int len : LENGTHS) {
+                final int[] first = randomDigits(random, base, len);
+                final int[] second = randomDigits(random, base, len);
+                final int[] expected = reference(first, second, base, len);
+
+                final long[] workspace = new long[Math.max(Multiplication.workspaceSize(len), Multiplication.workspaceSize(Multiplication.CONVOLUTION_THRESHOLD + len))];
+                final int[] result = new int[len];
+
+                Multiplication.schoolbook(first, second, len, workspace);
+                Multiplication.normalize(workspace, base, len, result);
+                Assert.assertArrayEquals(expected, result);
+
+                Multiplication.karatsuba(first, second, len, workspace);
+                Multiplication.normalize(workspace, base, len, result);
+                Assert.assertArrayEquals(expected, result);
+
+                Multiplication.convolution(first, second, len, workspace);
+                Multiplication.normalize(workspace, base, len, result);
+                Assert.assertArrayEquals(expected, result);
+
+                Assert.assertArrayEquals(expected, Multiplication.multiply(first, second, base, len));
+            }
+        }
+    }
+
+    @Test
+    public void testLargestDigits() {
+        for (final int base : BASES) {
+            for (final int len : LENGTHS) {
+                final int[] digits = new int[len];
+                Arrays.fill(digits, base - 1);
+
+                // (p^len - 1)^2 = 1 (mod p^len)
+                final int[] expected = new int[len];
+                expected[0] = 1;
+
+                Assert.assertArrayEquals(expected, Multiplication.multiply(digits, digits, base, len));
+            }
+        }
+    }
+
+    @Test
+    public void testPackedColumns() {
+        final Random random = new Random(43);
+
+        Assert.assertEquals(20, Multiplication.digitsPerColumn(2));
+        Assert.assertEquals(12, Multiplication.digitsPerColumn(3));
+        Assert.assertEquals(2, Multiplication.digitsPerColumn(1021));
+        Assert.assertEquals(1, Multiplication.digitsPerColumn(1031));
+
+        for (final int base : new int[] {3, 1021}) {
+            // The longest sequences that are still multiplied in packed columns.
+            final int len = Multiplication.digitsPerColumn(base) * (Multiplication.CONVOLUTION_THRESHOLD - 1);
+            final int[] largest = new int[len];
+            Arrays.fill(largest, base - 1);
+
+            final int[] expected = new int[len];
+            expected[0] = 1;
+
+            Assert.assertArrayEquals(expected, Multiplication.multiply(largest, largest, base, len));
+
+            final int[] first = randomDigits(random, base, len);
+            final int[] second = randomDigits(random, base, len);
+
+            Assert.assertArrayEquals(reference(first, second, base, len), Multiplication.multiply(first, second, base, len));
+        }
+    }
+
+    @Test
+    public void testCarry() {
+        final Random random = new Random(47);
+        final long radix = Multiplication.columnRadix(3, Multiplication.digitsPerColumn(3));
+        final int n = 50;
+        final long[] columns = new long[n];
+        BigInteger expected = BigInteger.ZERO;
+
+        for (int i = n - 1; i >= 0; --i) {
+            columns[i] = random.nextLong() >>> 1;
+            expected = expected.multiply(BigInteger.valueOf(radix)).add(BigInteger.valueOf(columns[i]));
+        }
+
+        Multiplication.carry(columns, radix, n);
+
+        BigInteger actual = BigInteger.ZERO;
+
+        for (int i = n - 1; i >= 0; --i) {
+            Assert.assertTrue(0 <= columns[i] && columns[i] < radix);
+            actual = actual.multiply(BigInteger.valueOf(radix)).add(BigInteger.valueOf(columns[i]));
+        }
+
+        Assert.assertEquals(expected.mod(BigInteger.valueOf(radix).pow(n)), actual);
+    }
+
+    @Test
+    public void testLargeBase() {
+        final int base = 65521;
+        final PAdic a = new PAdic(new BigInteger("65520"), base);
+        final PAdic b = new PAdic(new BigInteger("65519"), base);
+
+        Assert.assertEquals(new PAdic(new BigInteger("65520").multiply(new BigInteger("65519")), base), a.multiply(b));
+    }
+
+    private static int[] randomDigits(final Random random, final int base, final int len) {
+        final int[] digits = new int[len];
+
+        for (int i = 0; i < len; ++i) {
+            digits[i] = random.nextInt(base);
+        }
+
+        return digits;
+    }
+
+    private static int[] reference(final int[] first, final int[] second, final int base, final int len) {
+        final BigInteger bigBase = BigInteger.valueOf(base);
+        final BigInteger product = toBigInteger(first, bigBase).multiply(toBigInteger(second, bigBase)).mod(bigBase.pow(len));
+        final int[] result = new int[len];
+        BigInteger current = product;
+
+        for (int i = 0; i < len; ++i) {
+            final BigInteger[] qr = current.divideAndRemainder(bigBase);
+            result[i] = qr[1].intValue();
+            current = qr[0];
+        }
+
+        return result;
+    }
+
+    private static BigInteger toBigInteger(final int[] digits, final BigInteger base) {
+        BigInteger result = BigInteger.ZERO;
+
+        for (int i = digits.length - 1; i >= 0; --i) {
+            result = result.multiply(base).add(BigInteger.valueOf(digits[i]));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class PAdicAccumulatorTest {
+
+    @Test
+    public void testOperations() {
+        final int base = 5;
+        final PAdic a = new PAdic("1231.0012", base);
+        final PAdic b = new PAdic("13200", base);
+        final PAdic c = new PAdic(new BigInteger("-7"), new BigInteger("25"), base);
+
+        Assert.assertEquals(a.add(b), new PAdicAccumulator(a).addInPlace(b).toPAdic());
+        Assert.assertEquals(b.add(a), new PAdicAccumulator(b).addInPlace(a).toPAdic());
+        Assert.assertEquals(a.subtract(c), new PAdicAccumulator(a).subtractInPlace(c).toPAdic());
+        Assert.assertEquals(c.subtract(a), new PAdicAccumulator(c).subtractInPlace(a).toPAdic());
+        Assert.assertEquals(a.multiply(b), new PAdicAccumulator(a).multiplyInPlace(b).toPAdic());
+        Assert.assertEquals(c.add(a.multiply(b)), new PAdicAccumulator(c).multiplyAddInPlace(a, b).toPAdic());
+        Assert.assertEquals(new PAdic("0", base), new PAdicAccumulator(a).clear().toPAdic());
+    }
+
+    @Test
+    public void testRandomSequences() {
+        final Random random = new Random(11);
+        final int[] bases = {2, 3, 7, 257};
+
+        for (int test = 0; test < 200; ++test) {
+            final int base = bases[random.nextInt(bases.length)];
+            final int precision = 1 + random.nextInt(200);
+            PAdic expected = RandomPAdics.number(random, base, precision);
+            final PAdicAccumulator accumulator = new PAdicAccumulator(expected);
+
+            for (int step = 0; step < 10; ++step) {
+                final PAdic operand = RandomPAdics.number(random, base, precision);
+
+                switch (random.nextInt(4)) {
+                    case 0:
+                        expected = expected.add(operand);
+                        accumulator.addInPlace(operand);
+                        break;
+                    case 1:
+                        expected = expected.subtract(operand);
+                        accumulator.subtractInPlace(operand);
+                        break;
+                    case 2:
+                        expected = expected.multiply(operand);
+                        accumulator.multiplyInPlace(operand);
+                        break;
+                    default:
+                        final PAdic other = RandomPAdics.number(random, base, precision);
+                        expected = expected.add(operand.multiply(other));
+                        accumulator.multiplyAddInPlace(operand, other);
+                        break;
+                }
+
+                Assert.assertEquals(expected, accumulator.toPAdic());
+                Assert.assertEquals(expected.getOrder(), accumulator.getOrder());
+            }
+        }
+    }
+
+    @Test
+    public void testFrozenNumberDoesNotChange() {
+        final int base = 7;
+        final PAdicAccumulator accumulator = new PAdicAccumulator(base, 20);
+        accumulator.addInPlace(new PAdic("123", base));
+
+        final PAdic frozen = accumulator.toPAdic();
+        accumulator.addInPlace(new PAdic("1", base)).multiplyInPlace(new PAdic("2", base));
+
+        Assert.assertEquals(new PAdic("123", base, 20), frozen);
+        Assert.assertEquals(new PAdic("251", base, 20), accumulator.toPAdic());
+    }
+
+    @Test
+    public void testPrecision() {
+        final int base = 3;
+        final PAdicAccumulator accumulator = new PAdicAccumulator(base, 30);
+        accumulator.addInPlace(new PAdic(new BigInteger("5"), base, 100));
+        Assert.assertEquals(30, accumulator.getPrecision());
+
+        accumulator.addInPlace(new PAdic(new BigInteger("5"), base, 10));
+        Assert.assertEquals(10, accumulator.getPrecision());
+        Assert.assertEquals(new PAdic(new BigInteger("10"), base, 10), accumulator.toPAdic());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class PAdicBatchTest {
+
+    private static final int[] BASES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41, 43, 47, 53, 257, 65521};
+
+    @Test
+    public void testIntegers() {
+        final Random random = new Random(16);
+
+        for (final int precision : new int[] {1, 20, 128, 1000}) {
+            final PAdicBatch batch = new PAdicBatch(BASES, precision);
+
+            for (final BigInteger value : new BigInteger[] {BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(-1),
+                    BigInteger.valueOf(2 * 3 * 5 * 7), new BigInteger(200, random), new BigInteger(20000, random).negate()}) {
+                final PAdic[] expansions = batch.expand(value);
+
+                for (int i = 0; i < BASES.length; ++i) {
+                    assertSame(new PAdic(value, BASES[i], precision), expansions[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFractions() {
+        final Random random = new Random(17);
+        final PAdicBatch batch = new PAdicBatch(BASES, 200);
+
+        for (int test = 0; test < 20; ++test) {
+            final BigInteger numerator = new BigInteger(300, random).subtract(BigInteger.ONE.shiftLeft(299));
+            final BigInteger denominator = new BigInteger(100, random).add(BigInteger.ONE).multiply(BigInteger.valueOf(BASES[test % BASES.length]));
+            final PAdic[] expansions = batch.expand(numerator, denominator);
+
+            for (int i = 0; i < BASES.length; ++i) {
+                assertSame(new PAdic(numerator, denominator, BASES[i], 200), expansions[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testFractionsWithPowerOfBaseInDenominator() {
+        final Random random = new Random(19);
+
+        for (int precision = 1; precision < 8; ++precision) {
+            final PAdicBatch batch = new PAdicBatch(BASES, precision);
+
+            for (int test = 0; test < 20; ++test) {
+                final int base = BASES[test % BASES.length];
+                // Power of the base is below, equal to or above the precision.
+                final BigInteger power = BigInteger.valueOf(base).pow(random.nextInt(2 * precision + 2));
+                final BigInteger numerator = new BigInteger(100, random).subtract(BigInteger.ONE.shiftLeft(99));
+                final BigInteger denominator = new BigInteger(60, random).add(BigInteger.ONE).multiply(power);
+                final PAdic[] expansions = batch.expand(numerator, denominator);
+
+                for (int i = 0; i < BASES.length; ++i) {
+                    assertSame(new PAdic(numerator, denominator, BASES[i], precision), expansions[i]);
+                }
+            }
+        }
+
+        // 617/412 = 617/103 * 2^-2, and 617/103 = 7 (mod 8).
+        final PAdic expansion = new PAdicBatch(new int[] {2, 3}, 3).expand(BigInteger.valueOf(617), BigInteger.valueOf(412))[0];
+
+        assertSame(new PAdic(BigInteger.valueOf(617), BigInteger.valueOf(412), 2, 3), expansion);
+        Assert.assertEquals(-2, expansion.getOrder());
+        Assert.assertEquals(1, expansion.getDigit(-2));
+        Assert.assertEquals(1, expansion.getDigit(-1));
+        Assert.assertEquals(1, expansion.getDigit(0));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testZeroDenominator() {
+        new PAdicBatch(new int[] {2, 3}).expand(BigInteger.ONE, BigInteger.ZERO);
+    }
+
+    @Test
+    public void testSingleBase() {
+        final PAdic[] expansions = new PAdicBatch(new int[] {5}).expand(BigInteger.valueOf(-7));
+
+        Assert.assertEquals(1, expansions.length);
+        assertSame(new PAdic(BigInteger.valueOf(-7), 5), expansions[0]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNotPrimeBase() {
+        new PAdicBatch(new int[] {3, 9});
+    }
+
+    private static void assertSame(final PAdic expected, final PAdic actual) {
+        Assert.assertEquals(expected.getBase(), actual.getBase());
+        Assert.assertEquals(expected.getPrecision(), actual.getPrecision());
+        Assert.assertEquals(expected.getOrder(), actual.getOrder());
+
+        for (int i = 0; i < expected.getPrecision(); ++i) {
+            final int position = i + Math.min(expected.getOrder(), 0);
+            Assert.assertEquals(expected.getDigit(position), actual.getDigit(position));
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class PAdicConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 400;
+
+    @Test
+    public void testSharedNumbers() throws Exception {
+        final int[] bases = {2, 3, 7, 257};
+
+        for (final int base : bases) {
+            final PAdic[] shared = sharedNumbers(base);
+            final String[] before = snapshot(shared);
+            final PAdic[][][] expected = allResults(shared);
+
+            final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+            final CountDownLatch start = new CountDownLatch(1);
+
+            for (int thread = 0; thread < THREADS; ++thread) {
+                final long seed = 31L * base + thread;
+
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        final Random random = new Random(seed);
+                        start.await();
+
+                        for (int round = 0; round < ROUNDS; ++round) {
+                            final int i = random.nextInt(shared.length);
+                            final int j = random.nextInt(shared.length);
+                            final int operation = random.nextInt(4);
+                            final PAdic actual = apply(operation, shared[i], shared[j]);
+
+                            Assert.assertEquals(expected[operation][i][j], actual);
+                        }
+
+                        return null;
+                    }
+                });
+            }
+
+            runConcurrently(tasks, start);
+
+            Assert.assertArrayEquals(before, snapshot(shared));
+        }
+    }
+
+    @Test
+    public void testSharedLazyNumber() throws Exception {
+        final int base = 3;
+        final LazyPAdic shared = LazyPAdic.valueOf(BigInteger.valueOf(-17), BigInteger.valueOf(20), base)
+                .multiply(LazyPAdic.valueOf(BigInteger.valueOf(1234567), base));
+        final PAdic expected = new PAdic(new BigInteger("-20987639"), new BigInteger("20"), base, 500);
+
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        for (int thread = 0; thread < THREADS; ++thread) {
+            final long seed = thread;
+
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    final Random random = new Random(seed);
+                    start.await();
+
+                    for (int round = 0; round < ROUNDS; ++round) {
+                        final int position = random.nextInt(500);
+                        Assert.assertEquals(expected.getDigit(position), shared.getDigit(position));
+                    }
+
+                    return null;
+                }
+            });
+        }
+
+        runConcurrently(tasks, start);
+    }
+
+    @Test
+    public void testFirstUseOfPAdicLong() throws Exception {
+        final int[] bases = freshBases(20000, 200);
+        final PAdicLong[][] results = new PAdicLong[THREADS][bases.length];
+        final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        for (int thread = 0; thread < THREADS; ++thread) {
+            final PAdicLong[] created = results[thread];
+
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+
+                    // All threads are the first users of every base.
+                    for (int i = 0; i < bases.length; ++i) {
+                        barrier.await();
+                        created[i] = new PAdicLong(5, bases[i], 2);
+                    }
+
+                    return null;
+                }
+            });
+        }
+
+        runConcurrently(tasks, start);
+
+        for (int thread = 1; thread < THREADS; ++thread) {
+            for (int i = 0; i < bases.length; ++i) {
+                Assert.assertEquals(results[0][i], results[thread][i]);
+                Assert.assertEquals(results[0][i].hashCode(), results[thread][i].hashCode());
+            }
+        }
+    }
+
+    @Test
+    public void testFirstUseOfContext() throws Exception {
+        final int[] bases = freshBases(40000, 200);
+        final PAdicContext[][] contexts = new PAdicContext[THREADS][bases.length];
+        final PAdicLong.Modulus[][] moduli = new PAdicLong.Modulus[THREADS][bases.length];
+        final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        for (int thread = 0; thread < THREADS; ++thread) {
+            final PAdicContext[] created = contexts[thread];
+            final PAdicLong.Modulus[] createdModuli = moduli[thread];
+
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+
+                    for (int i = 0; i < bases.length; ++i) {
+                        barrier.await();
+                        created[i] = PAdicContext.of(bases[i]);
+                        createdModuli[i] = created[i].modulus(2);
+                    }
+
+                    return null;
+                }
+            });
+        }
+
+        runConcurrently(tasks, start);
+
+        for (int thread = 0; thread < THREADS; ++thread) {
+            for (int i = 0; i < bases.length; ++i) {
+                Assert.assertSame(PAdicContext.of(bases[i]), contexts[thread][i]);
+                Assert.assertSame(PAdicContext.of(bases[i]).modulus(2), moduli[thread][i]);
+            }
+        }
+    }
+
+    // Primes from given one on that no other test uses.
+    private static int[] freshBases(final int from, final int count) {
+        final int[] bases = new int[count];
+        int candidate = from;
+
+        for (int i = 0; i < count; ++i) {
+            while (!BigInteger.valueOf(candidate).isProbablePrime(40)) {
+                ++candidate;
+            }
+
+            bases[i] = candidate++;
+        }
+
+        return bases;
+    }
+
+    private static void runConcurrently(final List<Callable<Void>> tasks, final CountDownLatch start) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+
+            for (final Callable<Void> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+
+            start.countDown();
+
+            // Rethrows assertion failures of the worker threads.
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static PAdic apply(final int operation, final PAdic first, final PAdic second) {
+        switch (operation) {
+            case 0:
+                return first.add(second);
+            case 1:
+                return first.subtract(second);
+            case 2:
+                return first.multiply(second);
+            default:
+                return first.divide(second);
+        }
+    }
+
+    private static PAdic[][][] allResults(final PAdic[] numbers) {
+        final PAdic[][][] results = new PAdic[4][numbers.length][numbers.length];
+
+        for (int operation = 0; operation < 4; ++operation) {
+            for (int i = 0; i < numbers.length; ++i) {
+                for (int j = 0; j < numbers.length; ++j) {
+                    results[operation][i][j] = apply(operation, numbers[i], numbers[j]);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    // Numbers with borrows across the whole precision, negative orders and different precisions,
+    // so that every operation touches shifted and truncated digits.
+    private static PAdic[] sharedNumbers(final int base) {
+        final BigInteger p = BigInteger.valueOf(base);
+
+        return new PAdic[] {
+                new PAdic(BigInteger.ONE, base),
+                new PAdic(p.pow(40), base),
+                new PAdic(BigInteger.valueOf(-1), base),
+                new PAdic(BigInteger.valueOf(1000003), base),
+                new PAdic(BigInteger.valueOf(-7), p.pow(3).multiply(BigInteger.valueOf(base == 2 ? 5 : 2)), base),
+                new PAdic(BigInteger.valueOf(123456789), p.pow(11), base),
+                new PAdic(BigInteger.valueOf(-98765), BigInteger.valueOf(base == 3 ? 11 : 3), base, 90),
+                new PAdic(p.pow(5).negate(), base, 150)
+        };
+    }
+
+    private static String[] snapshot(final PAdic[] numbers) {
+        final String[] result = new String[numbers.length];
+
+        for (int i = 0; i < numbers.length; ++i) {
+            final StringBuilder digits = new StringBuilder();
+
+            final int lowest = Math.min(numbers[i].getOrder(), 0);
+
+            for (int position = lowest; position < lowest + numbers[i].getPrecision(); ++position) {
+                digits.append(numbers[i].getDigit(position)).append(' ');
+            }
+
+            result[i] = numbers[i].getOrder() + ": " + digits;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+public class PAdicContextTest {
+
+    private static final int[] BASES = {2, 3, 5, 7, 257, 65521};
+
+    @Test
+    public void testSameContextForSameBase() {
+        for (final int base : BASES) {
+            Assert.assertSame(PAdicContext.of(base), PAdicContext.of(base));
+            Assert.assertEquals(base, PAdicContext.of(base).getBase());
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNotPrimeBase() {
+        PAdicContext.of(9);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testTooLargeBase() {
+        PAdicContext.of(1 << 16);
+    }
+
+    @Test
+    public void testZeroAndOne() {
+        for (final int base : BASES) {
+            final PAdicContext context = PAdicContext.of(base);
+
+            Assert.assertEquals(new PAdic(BigInteger.ZERO, base), context.zero());
+            Assert.assertEquals(new PAdic(BigInteger.ONE, base), context.one());
+            Assert.assertEquals(new PAdic(BigInteger.ZERO, base, 5), context.zero(5));
+            Assert.assertEquals(new PAdic(BigInteger.ONE, base, 5), context.one(5));
+            Assert.assertEquals(context.one(), context.one().multiply(context.one()));
+        }
+    }
+
+    @Test
+    public void testValueOf() {
+        for (final int base : BASES) {
+            final PAdicContext context = PAdicContext.of(base);
+
+            for (final long value : new long[] {0, 1, -1, base, -7L * base * base, Long.MIN_VALUE, Long.MAX_VALUE}) {
+                Assert.assertEquals(new PAdic(BigInteger.valueOf(value), base), context.valueOf(value));
+                Assert.assertEquals(new PAdic(BigInteger.valueOf(value), base, 300), context.valueOf(value, 300));
+            }
+
+            final BigInteger numerator = BigInteger.valueOf(-14);
+            final BigInteger denominator = BigInteger.valueOf(6L * base);
+
+            Assert.assertEquals(new PAdic(numerator, denominator, base), context.valueOf(numerator, denominator));
+            Assert.assertEquals(new PAdic(numerator, denominator, base, 40), context.valueOf(numerator, denominator, 40));
+        }
+    }
+
+    @Test
+    public void testTables() {
+        for (final int base : BASES) {
+            final PAdicContext context = PAdicContext.of(base);
+            final int[] inverses = context.inverses();
+
+            for (int x = 1; x < base; ++x) {
+                Assert.assertEquals(1L, (long) x * inverses[x] % base);
+            }
+
+            for (int i = 0; i <= 70; ++i) {
+                final BigInteger power = BigInteger.valueOf(base).pow(i);
+
+                Assert.assertEquals(power, context.power(i));
+
+                if (power.bitLength() < 32) {
+                    Assert.assertEquals(power.intValue(), context.intPower(i));
+                }
+
+                if (power.bitLength() < 64) {
+                    Assert.assertEquals(power.longValue(), context.longPower(i));
+                }
+            }
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testTooLargeModulus() {
+        PAdicContext.of(3).modulus(40);
+    }
+}
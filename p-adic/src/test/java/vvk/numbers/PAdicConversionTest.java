@@ -0,0 +1,130 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class PAdicConversionTest {
+
+    private static final int[] BASES = {2, 3, 7, 257, 65521};
+    private static final int[] PRECISIONS = {1, 5, 128, 1000, 5000};
+
+    @Test
+    public void testRoundTrip() {
+        final Random random = new Random(13);
+
+        for (final int base : BASES) {
+            for (final int precision : PRECISIONS) {
+                final BigInteger modulus = BigInteger.valueOf(base).pow(precision);
+
+                for (final int bits : new int[] {1, 64, modulus.bitLength() / 2, modulus.bitLength() + 100}) {
+                    final BigInteger value = new BigInteger(bits, random);
+                    final PAdic number = new PAdic(value, base, precision);
+
+                    Assert.assertEquals(value.mod(modulus), number.toBigInteger());
+                    Assert.assertEquals(value.negate().mod(modulus), number.negative().toBigInteger());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDigits() {
+        final Random random = new Random(14);
+
+        for (final int base : BASES) {
+            final BigInteger value = new BigInteger(20000, random);
+            final PAdic number = new PAdic(value, base, 3000);
+            final BigInteger bigBase = BigInteger.valueOf(base);
+            BigInteger current = value;
+
+            for (int i = 0; i < 3000; ++i) {
+                Assert.assertEquals(current.mod(bigBase).intValue(), number.getDigit(i));
+                current = current.divide(bigBase);
+            }
+
+            Assert.assertEquals(value.mod(bigBase.pow(1234)), number.toBigInteger(1234));
+        }
+    }
+
+    @Test
+    public void testNegativeInteger() {
+        final PAdic number = new PAdic(BigInteger.valueOf(-1), 5, 10);
+
+        Assert.assertEquals(BigInteger.valueOf(5).pow(10).subtract(BigInteger.ONE), number.toBigInteger());
+        Assert.assertEquals(BigInteger.valueOf(24), number.toBigInteger(2));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testFraction() {
+        new PAdic(BigInteger.ONE, BigInteger.valueOf(5), 5).toBigInteger();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testTooManyDigits() {
+        new PAdic(BigInteger.ONE, 5, 10).toBigInteger(11);
+    }
+
+    @Test
+    public void testToRational() {
+        final Random random = new Random(15);
+
+        for (final int base : BASES) {
+            for (int test = 0; test < 100; ++test) {
+                final BigInteger numerator = new BigInteger(100, random).subtract(BigInteger.ONE.shiftLeft(99));
+                final BigInteger denominator = new BigInteger(100, random).add(BigInteger.ONE)
+                        .multiply(BigInteger.valueOf(base).pow(random.nextInt(3)));
+                final BigInteger gcd = numerator.gcd(denominator);
+                final BigInteger[] fraction = new PAdic(numerator, denominator, base, 1000).toRational();
+
+                Assert.assertEquals(numerator.divide(gcd), fraction[0]);
+                Assert.assertEquals(denominator.divide(gcd), fraction[1]);
+            }
+        }
+    }
+
+    @Test
+    public void testIntegerToRational() {
+        final BigInteger[] fraction = new PAdic(BigInteger.valueOf(-1234), 7).toRational();
+
+        Assert.assertEquals(BigInteger.valueOf(-1234), fraction[0]);
+        Assert.assertEquals(BigInteger.ONE, fraction[1]);
+
+        final BigInteger[] zero = new PAdic(BigInteger.ZERO, 7).toRational();
+
+        Assert.assertEquals(BigInteger.ZERO, zero[0]);
+        Assert.assertEquals(BigInteger.ONE, zero[1]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNoSmallRational() {
+        // 84 digits are compared, and denominator 5^42 + 1 is above sqrt(5^84 / 2).
+        new PAdic(BigInteger.ONE, BigInteger.valueOf(5).pow(42).add(BigInteger.ONE), 5).toRational();
+    }
+}
@@ -136,4 +136,15 @@ public class PAdicDivisionTest {
 
         Assert.assertEquals(result, a.divide(a));
     }
+
+    @Test
+    public void testShiftLongerThanHalfOfPrecision() {
+        // 100.1 / 0.00001 = 1001000 in base 2, but only six digits are kept.
+        final PAdic x = new PAdic("100.1", 2, 6);
+        final PAdic y = new PAdic("0.00001", 2, 6);
+        final PAdic result = new PAdic("10000", 2, 6);
+
+        Assert.assertEquals(result, x.divide(y));
+        Assert.assertEquals(0, x.divide(y).getDigit(3));
+    }
 }
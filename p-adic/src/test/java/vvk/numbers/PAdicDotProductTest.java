@@ -0,0 +1,150 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class PAdicDotProductTest {
+
+    @Test
+    public void testMultiplyAdd() {
+        final PAdic a = new PAdic("11", 7);
+        final PAdic b = new PAdic("2.3", 7);
+        final PAdic c = new PAdic("6.01", 7);
+
+        Assert.assertEquals(a.multiply(b).add(c), a.multiplyAdd(b, c));
+        Assert.assertEquals(c, a.multiplyAdd(new PAdic("0", 7), c));
+        Assert.assertEquals(new PAdic("0", 7), a.multiplyAdd(b, a.multiply(b).negative()));
+    }
+
+    @Test
+    public void testRandomMultiplyAdd() {
+        final Random random = new Random(53);
+
+        for (int test = 0; test < 2000; ++test) {
+            final int base = RandomPAdics.BASES[test % RandomPAdics.BASES.length];
+            final int precision = 10 + random.nextInt(300);
+            final PAdic a = RandomPAdics.number(random, base, precision);
+            final PAdic b = RandomPAdics.number(random, base, precision);
+            final PAdic c = RandomPAdics.number(random, base, precision);
+            final PAdic expected = a.multiply(b).add(c);
+            final PAdic actual = a.multiplyAdd(b, c);
+
+            Assert.assertEquals(expected, actual);
+            Assert.assertEquals(expected.getOrder(), actual.getOrder());
+            Assert.assertEquals(expected.getPrecision(), actual.getPrecision());
+        }
+    }
+
+    @Test
+    public void testRandomDot() {
+        final Random random = new Random(59);
+
+        for (int test = 0; test < 300; ++test) {
+            final int base = RandomPAdics.BASES[test % RandomPAdics.BASES.length];
+            final int count = 1 + random.nextInt(20);
+            final int precision = 10 + random.nextInt(300);
+            final PAdic[] first = new PAdic[count];
+            final PAdic[] second = new PAdic[count];
+
+            for (int i = 0; i < count; ++i) {
+                first[i] = RandomPAdics.number(random, base, precision);
+                second[i] = RandomPAdics.number(random, base, precision);
+            }
+
+            PAdic expected = first[0].multiply(second[0]);
+
+            for (int i = 1; i < count; ++i) {
+                expected = expected.add(first[i].multiply(second[i]));
+            }
+
+            final PAdic actual = PAdic.dot(first, second);
+
+            Assert.assertEquals(expected, actual);
+            Assert.assertEquals(expected.getOrder(), actual.getOrder());
+        }
+    }
+
+    @Test
+    public void testLongNumbers() {
+        final Random random = new Random(61);
+
+        // Column sums are packed for the first base and computed by transforms for the others.
+        for (final int[] parameters : new int[][] {{3, 4000}, {3, 30000}, {65521, 3000}}) {
+            final int base = parameters[0];
+            final int precision = parameters[1];
+            final PAdic[] first = new PAdic[3];
+            final PAdic[] second = new PAdic[3];
+
+            for (int i = 0; i < first.length; ++i) {
+                first[i] = RandomPAdics.number(random, base, precision);
+                second[i] = RandomPAdics.number(random, base, precision);
+            }
+
+            final PAdic expected = first[0].multiply(second[0]).add(first[1].multiply(second[1])).add(first[2].multiply(second[2]));
+
+            Assert.assertEquals(expected, PAdic.dot(first, second));
+        }
+    }
+
+    @Test
+    public void testIntegers() {
+        final int base = 5;
+        final BigInteger modulus = BigInteger.valueOf(base).pow(40);
+        final Random random = new Random(67);
+        final PAdic[] first = new PAdic[100];
+        final PAdic[] second = new PAdic[100];
+        BigInteger sum = BigInteger.ZERO;
+
+        for (int i = 0; i < first.length; ++i) {
+            final BigInteger x = new BigInteger(100, random).subtract(BigInteger.ONE.shiftLeft(99));
+            final BigInteger y = new BigInteger(100, random);
+            first[i] = new PAdic(x, base, 40);
+            second[i] = new PAdic(y, base, 40);
+            sum = sum.add(x.multiply(y));
+        }
+
+        Assert.assertEquals(sum.mod(modulus), PAdic.dot(first, second).toBigInteger());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDifferentLengths() {
+        PAdic.dot(new PAdic[] {new PAdic("1", 3)}, new PAdic[0]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testEmpty() {
+        PAdic.dot(new PAdic[0], new PAdic[0]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDifferentBases() {
+        new PAdic("1", 3).multiplyAdd(new PAdic("1", 3), new PAdic("1", 5));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class PAdicLongTest {
+
+    private static final int[] BASES = {2, 3, 5, 7, 257, 65521};
+
+    @Test
+    public void testMaxPrecision() {
+        Assert.assertEquals(62, PAdicLong.maxPrecision(2));
+        Assert.assertEquals(39, PAdicLong.maxPrecision(3));
+        Assert.assertEquals(22, PAdicLong.maxPrecision(7));
+        Assert.assertEquals(3, PAdicLong.maxPrecision(65521));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testTooLargePrecision() {
+        new PAdicLong(1, 3, 40);
+    }
+
+    @Test
+    public void testConstruction() {
+        for (final int base : BASES) {
+            final int precision = PAdicLong.maxPrecision(base);
+
+            for (final long value : new long[] {0, 1, -1, base, -3L * base, 1234567891011L, Long.MIN_VALUE, Long.MAX_VALUE}) {
+                assertSame(new PAdic(BigInteger.valueOf(value), base, precision), new PAdicLong(value, base, precision));
+            }
+
+            assertSame(new PAdic(BigInteger.valueOf(-14), BigInteger.valueOf(6L * base), base, precision),
+                    new PAdicLong(-14, 6L * base, base, precision));
+        }
+    }
+
+    @Test
+    public void testOperationsAgreeWithDigits() {
+        final Random random = new Random(13);
+
+        for (int test = 0; test < 3000; ++test) {
+            final int base = BASES[random.nextInt(BASES.length)];
+            final PAdic x = randomNumber(random, base);
+            final PAdic y = randomNumber(random, base);
+            final PAdicLong longX = new PAdicLong(x);
+            final PAdicLong longY = new PAdicLong(y);
+
+            assertSame(x, longX);
+            assertSame(x.negative(), longX.negative());
+            assertSame(x.add(y), longX.add(longY));
+            assertSame(x.subtract(y), longX.subtract(longY));
+            assertSame(x.multiply(y), longX.multiply(longY));
+
+            PAdic quotient = null;
+            String error = null;
+
+            try {
+                quotient = x.divide(y);
+            } catch (RuntimeException e) {
+                error = e.getMessage();
+            }
+
+            try {
+                assertSame(quotient, longX.divide(longY));
+            } catch (RuntimeException e) {
+                Assert.assertEquals(error, e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testObjectMethods() {
+        final PAdicLong a = new PAdicLong(-13, 25, 5, 27);
+        final PAdicLong b = new PAdicLong(new PAdic(BigInteger.valueOf(-13), BigInteger.valueOf(25), 5, 27));
+
+        Assert.assertEquals(a, b);
+        Assert.assertEquals(a.hashCode(), b.hashCode());
+        Assert.assertEquals(a.toPAdic().toString(), a.toString());
+        Assert.assertEquals(a.toPAdic().getDigit(-2), a.getDigit(-2));
+        Assert.assertEquals(a.toPAdic().getDigit(10), a.getDigit(10));
+        Assert.assertFalse(a.equals(new PAdicLong(-13, 25, 5, 26)));
+    }
+
+    private static void assertSame(final PAdic expected, final PAdicLong actual) {
+        Assert.assertEquals(expected.getOrder(), actual.getOrder());
+        Assert.assertEquals(expected.getPrecision(), actual.getPrecision());
+        Assert.assertArrayEquals(expected.digits(), actual.toPAdic().digits());
+    }
+
+    private static PAdic randomNumber(final Random random, final int base) {
+        final int precision = 1 + random.nextInt(PAdicLong.maxPrecision(base));
+        final int[] sequence = new int[1 + random.nextInt(precision + 2)];
+
+        for (int i = 0; i < sequence.length; ++i) {
+            sequence[i] = random.nextInt(10) < 3 ? 0 : random.nextInt(base);
+        }
+
+        return new PAdic(sequence, random.nextInt(11) - 5, base, precision);
+    }
+}
@@ -0,0 +1,276 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class PAdicMatrixTest {
+
+    private static final int[] BASES = {2, 3, 5, 7, 257, 1031};
+
+    @Test
+    public void testConversion() {
+        final Random random = new Random(11);
+        final PAdic[][] entries = randomEntries(random, 3, 4, 5, 20, -3);
+        final PAdicMatrix matrix = new PAdicMatrix(entries);
+
+        Assert.assertEquals(3, matrix.getRows());
+        Assert.assertEquals(4, matrix.getColumns());
+        Assert.assertEquals(5, matrix.getBase());
+        Assert.assertEquals(20, matrix.getPrecision());
+
+        final PAdic[][] array = matrix.toArray();
+
+        for (int i = 0; i < 3; ++i) {
+            for (int j = 0; j < 4; ++j) {
+                Assert.assertEquals(entries[i][j], array[i][j]);
+                Assert.assertEquals(entries[i][j].getOrder(), array[i][j].getOrder());
+            }
+        }
+
+        final PAdicMatrix identity = PAdicMatrix.identity(3, 7, 10);
+
+        Assert.assertEquals(new PAdic(BigInteger.ONE, 7, 10), identity.get(1, 1));
+        Assert.assertEquals(new PAdic(BigInteger.ZERO, 7, 10), identity.get(1, 2));
+    }
+
+    @Test
+    public void testMultiply() {
+        final Random random = new Random(23);
+
+        for (int test = 0; test < 60; ++test) {
+            final int base = BASES[test % BASES.length];
+            // The last operands are long enough to be multiplied by Karatsuba algorithm.
+            final int precision = test < 54 ? 5 + random.nextInt(60) : 200 + random.nextInt(100);
+            final int rows = 1 + random.nextInt(20);
+            final int inner = 1 + random.nextInt(20);
+            final int columns = 1 + random.nextInt(20);
+            final PAdic[][] first = randomEntries(random, rows, inner, base, precision, 0);
+            final PAdic[][] second = randomEntries(random, inner, columns, base, precision, 0);
+            final PAdicMatrix product = new PAdicMatrix(first).multiply(new PAdicMatrix(second));
+
+            Assert.assertEquals(rows, product.getRows());
+            Assert.assertEquals(columns, product.getColumns());
+
+            for (int i = 0; i < rows; ++i) {
+                for (int j = 0; j < columns; ++j) {
+                    PAdic expected = new PAdic(BigInteger.ZERO, base, precision);
+
+                    for (int k = 0; k < inner; ++k) {
+                        expected = expected.add(first[i][k].multiply(second[k][j]));
+                    }
+
+                    Assert.assertEquals(expected, product.get(i, j));
+                    Assert.assertEquals(expected.getOrder(), product.get(i, j).getOrder());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMultiplyFractions() {
+        final Random random = new Random(29);
+
+        for (int test = 0; test < 60; ++test) {
+            final int base = BASES[test % BASES.length];
+            final int precision = 30 + random.nextInt(60);
+            final int size = 1 + random.nextInt(10);
+            final PAdic[][] first = randomEntries(random, size, size, base, precision, -2);
+            final PAdic[][] second = randomEntries(random, size, size, base, precision, -2);
+            final PAdicMatrix product = new PAdicMatrix(first).multiply(new PAdicMatrix(second));
+
+            for (int i = 0; i < size; ++i) {
+                for (int j = 0; j < size; ++j) {
+                    PAdic expected = new PAdic(BigInteger.ZERO, base, precision);
+
+                    for (int k = 0; k < size; ++k) {
+                        expected = expected.add(first[i][k].multiply(second[k][j]));
+                    }
+
+                    Assert.assertEquals(expected, product.get(i, j));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMultiply() {
+        final Random random = new Random(31);
+        final PAdicMatrix first = new PAdicMatrix(randomEntries(random, 40, 30, 7, 40, -1));
+        final PAdicMatrix second = new PAdicMatrix(randomEntries(random, 30, 50, 7, 40, -1));
+        final PAdicMatrix sequential = first.multiply(second, new ForkJoinPool(1));
+        final PAdicMatrix parallel = first.multiply(second, new ForkJoinPool(4));
+
+        for (int i = 0; i < 40; ++i) {
+            for (int j = 0; j < 50; ++j) {
+                Assert.assertEquals(sequential.get(i, j), parallel.get(i, j));
+                Assert.assertEquals(sequential.get(i, j).getOrder(), parallel.get(i, j).getOrder());
+            }
+        }
+    }
+
+    @Test
+    public void testDeterminant() {
+        final Random random = new Random(37);
+
+        for (int test = 0; test < 120; ++test) {
+            final int base = BASES[test % BASES.length];
+            final int precision = 20 + random.nextInt(60);
+            final PAdic[][] a = randomEntries(random, 3, 3, base, precision, test % 2 == 0 ? 0 : -2);
+            final PAdic expected = a[0][0].multiply(a[1][1].multiply(a[2][2]).subtract(a[1][2].multiply(a[2][1])))
+                    .subtract(a[0][1].multiply(a[1][0].multiply(a[2][2]).subtract(a[1][2].multiply(a[2][0]))))
+                    .add(a[0][2].multiply(a[1][0].multiply(a[2][1]).subtract(a[1][1].multiply(a[2][0]))));
+            final PAdic actual = new PAdicMatrix(a).determinant();
+
+            Assert.assertEquals(expected.getOrder(), actual.getOrder());
+            Assert.assertEquals(expected, actual);
+        }
+
+        Assert.assertEquals(new PAdic(BigInteger.ONE, 5, 20), PAdicMatrix.identity(6, 5, 20).determinant());
+    }
+
+    @Test
+    public void testDeterminantOfProduct() {
+        final Random random = new Random(41);
+
+        for (int test = 0; test < 30; ++test) {
+            final int base = BASES[test % BASES.length];
+            final int precision = 40 + random.nextInt(60);
+            final int size = 1 + random.nextInt(12);
+            final PAdicMatrix first = new PAdicMatrix(randomEntries(random, size, size, base, precision, 0));
+            final PAdicMatrix second = new PAdicMatrix(randomEntries(random, size, size, base, precision, 0));
+            final PAdic expected = first.determinant().multiply(second.determinant());
+            final PAdic actual = first.multiply(second).determinant();
+
+            Assert.assertEquals(expected.getOrder(), actual.getOrder());
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testSingularDeterminant() {
+        final PAdic one = new PAdic(BigInteger.ONE, 3, 20);
+        final PAdic two = new PAdic(BigInteger.valueOf(2), 3, 20);
+        final PAdicMatrix matrix = new PAdicMatrix(new PAdic[][] {{one, two}, {two, two.add(two)}});
+
+        Assert.assertEquals(new PAdic(BigInteger.ZERO, 3, 20), matrix.determinant());
+    }
+
+    @Test
+    public void testInverse() {
+        final Random random = new Random(43);
+
+        for (int test = 0; test < 60; ++test) {
+            final int base = BASES[test % BASES.length];
+            final int precision = 40 + random.nextInt(60);
+            final int size = 1 + random.nextInt(12);
+            final PAdicMatrix matrix = new PAdicMatrix(randomEntries(random, size, size, base, precision, test % 2 == 0 ? 0 : -2));
+            final PAdicMatrix inverse = matrix.inverse();
+            final PAdicMatrix identity = PAdicMatrix.identity(size, base, precision);
+            final PAdicMatrix left = inverse.multiply(matrix);
+            final PAdicMatrix right = matrix.multiply(inverse);
+
+            for (int i = 0; i < size; ++i) {
+                for (int j = 0; j < size; ++j) {
+                    Assert.assertEquals(identity.get(i, j), left.get(i, j));
+                    Assert.assertEquals(identity.get(i, j), right.get(i, j));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInverseWithPivoting() {
+        // Leading entry is divisible by p, so the rows must be swapped.
+        final PAdicMatrix matrix = new PAdicMatrix(new PAdic[][] {
+                {new PAdic(BigInteger.valueOf(5), 5, 20), new PAdic(BigInteger.ONE, 5, 20)},
+                {new PAdic(BigInteger.ONE, 5, 20), new PAdic(BigInteger.ONE, 5, 20)}
+        });
+        final PAdicMatrix inverse = matrix.inverse();
+        final PAdic quarter = new PAdic(BigInteger.ONE, 5, 20).divide(new PAdic(BigInteger.valueOf(4), 5, 20));
+
+        Assert.assertEquals(quarter, inverse.get(0, 0));
+        Assert.assertEquals(new PAdic(BigInteger.ZERO, 5, 20).subtract(quarter), inverse.get(0, 1));
+        Assert.assertEquals(new PAdic(BigInteger.ZERO, 5, 20).subtract(quarter), inverse.get(1, 0));
+        Assert.assertEquals(quarter.multiply(new PAdic(BigInteger.valueOf(5), 5, 20)), inverse.get(1, 1));
+        Assert.assertEquals(new PAdic(BigInteger.valueOf(4), 5, 20), matrix.determinant());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testSingularInverse() {
+        final PAdic one = new PAdic(BigInteger.ONE, 3, 20);
+
+        new PAdicMatrix(new PAdic[][] {{one, one}, {one, one}}).inverse();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testMultiplyMismatchedSizes() {
+        PAdicMatrix.identity(2, 3, 10).multiply(PAdicMatrix.identity(3, 3, 10));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testMultiplyDifferentBases() {
+        PAdicMatrix.identity(2, 3, 10).multiply(PAdicMatrix.identity(2, 5, 10));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testRaggedRows() {
+        final PAdic one = new PAdic(BigInteger.ONE, 3, 20);
+
+        new PAdicMatrix(new PAdic[][] {{one, one}, {one}});
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDeterminantOfRectangularMatrix() {
+        final PAdic one = new PAdic(BigInteger.ONE, 3, 20);
+
+        new PAdicMatrix(new PAdic[][] {{one, one}}).determinant();
+    }
+
+    private static PAdic[][] randomEntries(final Random random, final int rows, final int columns,
+                                           final int base, final int precision, final int leastOrder) {
+        final PAdic[][] entries = new PAdic[rows][columns];
+
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                final int[] sequence = new int[1 + random.nextInt(precision)];
+
+                for (int k = 0; k < sequence.length; ++k) {
+                    sequence[k] = random.nextInt(base);
+                }
+
+                final int order = leastOrder + random.nextInt(3);
+                entries[i][j] = new PAdic(sequence, order, base, precision).add(new PAdic(BigInteger.ZERO, base, precision + 10));
+            }
+        }
+
+        return entries;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class PAdicPolynomialTest {
+
+    private static final int[] BASES = {2, 3, 5, 7, 257, 1031};
+
+    @Test
+    public void testEvaluate() {
+        final Random random = new Random(97);
+
+        for (int test = 0; test < 300; ++test) {
+            final int base = BASES[test % BASES.length];
+            final int precision = 10 + random.nextInt(100);
+            final PAdic[] coefficients = new PAdic[1 + random.nextInt(8)];
+
+            for (int i = 0; i < coefficients.length; ++i) {
+                coefficients[i] = RandomPAdics.canonicalNumber(random, base, precision);
+            }
+
+            final PAdic point = RandomPAdics.canonicalNumber(random, base, precision);
+            PAdic expected = coefficients[coefficients.length - 1];
+
+            for (int i = coefficients.length - 2; i >= 0; --i) {
+                expected = expected.multiply(point).add(coefficients[i]);
+            }
+
+            final PAdic actual = new PAdicPolynomial(coefficients).evaluate(point);
+
+            Assert.assertEquals(expected, actual);
+            Assert.assertEquals(expected.getOrder(), actual.getOrder());
+        }
+    }
+
+    @Test
+    public void testDerivative() {
+        // 1 + 2x + 3x^2 + 4x^3
+        final PAdicPolynomial polynomial = polynomial(5, 20, 1, 2, 3, 4);
+        final PAdicPolynomial derivative = polynomial.derivative();
+
+        Assert.assertEquals(2, derivative.getDegree());
+        Assert.assertEquals(new PAdic(BigInteger.valueOf(2), 5, 20), derivative.getCoefficient(0));
+        Assert.assertEquals(new PAdic(BigInteger.valueOf(6), 5, 20), derivative.getCoefficient(1));
+        Assert.assertEquals(new PAdic(BigInteger.valueOf(12), 5, 20), derivative.getCoefficient(2));
+        Assert.assertEquals(0, polynomial(5, 20, 7).derivative().getDegree());
+    }
+
+    @Test
+    public void testRoots() {
+        // (x - 1)(x - 2)(x - 3) = x^3 - 6x^2 + 11x - 6
+        final PAdic[] roots = polynomial(7, 30, -6, 11, -6, 1).roots();
+
+        Assert.assertEquals(3, roots.length);
+
+        for (int i = 0; i < roots.length; ++i) {
+            Assert.assertEquals(new PAdic(BigInteger.valueOf(i + 1), 7, 30), roots[i]);
+        }
+
+        // x^2 - 2 has the same roots as square root of 2.
+        final PAdic[] squareRoots = polynomial(7, 30, -2, 0, 1).roots();
+        final PAdic[] expected = new PAdic(BigInteger.valueOf(2), 7, 30).sqrt();
+
+        Assert.assertEquals(2, squareRoots.length);
+        Assert.assertTrue(squareRoots[0].equals(expected[0]) || squareRoots[0].equals(expected[1]));
+        Assert.assertTrue(squareRoots[1].equals(expected[0]) || squareRoots[1].equals(expected[1]));
+    }
+
+    @Test
+    public void testRandomRoots() {
+        final Random random = new Random(101);
+
+        for (int test = 0; test < 300; ++test) {
+            final int base = BASES[test % BASES.length];
+            final int precision = 10 + random.nextInt(100);
+            final PAdic[] coefficients = new PAdic[2 + random.nextInt(6)];
+
+            for (int i = 0; i < coefficients.length; ++i) {
+                coefficients[i] = RandomPAdics.canonicalNumber(random, base, precision);
+            }
+
+            final PAdicPolynomial polynomial = new PAdicPolynomial(coefficients);
+            final PAdic zero = new PAdic(BigInteger.ZERO, base, precision);
+
+            for (final PAdic root : polynomial.roots()) {
+                // Coefficients may have negative orders, so the value is compared as a multiple of their least order.
+                final PAdic value = polynomial.evaluate(root);
+
+                Assert.assertTrue(value.equals(zero) || value.getOrder() >= precision / 2);
+            }
+        }
+    }
+
+    @Test
+    public void testMultipleRoots() {
+        // (x - 1)^2 (x - 3) has only one simple root.
+        final PAdic[] roots = polynomial(5, 20, -3, 7, -5, 1).roots();
+
+        Assert.assertEquals(1, roots.length);
+        Assert.assertEquals(new PAdic(BigInteger.valueOf(3), 5, 20), roots[0]);
+        Assert.assertEquals(0, polynomial(5, 20, 0, 0).roots().length);
+    }
+
+    @Test
+    public void testNonIntegralCoefficients() {
+        // (x - 1)(x - 2) / 5
+        final PAdic fifth = new PAdic(BigInteger.ONE, BigInteger.valueOf(5), 5, 20);
+        final PAdicPolynomial polynomial = new PAdicPolynomial(new PAdic[] {
+                fifth.multiply(new PAdic(BigInteger.valueOf(2), 5, 20)),
+                fifth.multiply(new PAdic(BigInteger.valueOf(-3), 5, 20)),
+                fifth});
+        final PAdic[] roots = polynomial.roots();
+
+        Assert.assertEquals(2, roots.length);
+        Assert.assertEquals(new PAdic(BigInteger.ONE, 5, 20), roots[0]);
+        Assert.assertEquals(new PAdic(BigInteger.valueOf(2), 5, 20), roots[1]);
+    }
+
+    @Test
+    public void testBatchRoots() {
+        final Random random = new Random(103);
+        final PAdicPolynomial[] polynomials = new PAdicPolynomial[200];
+
+        for (int i = 0; i < polynomials.length; ++i) {
+            final int base = BASES[i % BASES.length];
+            final PAdic[] coefficients = new PAdic[2 + random.nextInt(4)];
+
+            for (int j = 0; j < coefficients.length; ++j) {
+                coefficients[j] = new PAdic(BigInteger.valueOf(random.nextInt(1000) - 500), base, 40);
+            }
+
+            polynomials[i] = new PAdicPolynomial(coefficients);
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            final PAdic[][] roots = PAdicPolynomial.roots(polynomials, pool);
+
+            for (int i = 0; i < polynomials.length; ++i) {
+                Assert.assertArrayEquals(polynomials[i].roots(), roots[i]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDifferentBases() {
+        new PAdicPolynomial(new PAdic[] {new PAdic(BigInteger.ONE, 5, 20), new PAdic(BigInteger.ONE, 7, 20)});
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNoCoefficients() {
+        new PAdicPolynomial(new PAdic[0]);
+    }
+
+    private static PAdicPolynomial polynomial(final int base, final int precision, final int... coefficients) {
+        final PAdic[] numbers = new PAdic[coefficients.length];
+
+        for (int i = 0; i < coefficients.length; ++i) {
+            numbers[i] = new PAdic(BigInteger.valueOf(coefficients[i]), base, precision);
+        }
+
+        return new PAdicPolynomial(numbers);
+    }
+
+}
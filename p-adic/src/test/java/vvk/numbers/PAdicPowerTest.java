@@ -0,0 +1,123 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class PAdicPowerTest {
+
+    @Test
+    public void testPower() {
+        final PAdic a = new PAdic("2.3", 7);
+
+        Assert.assertEquals(a.multiply(a).multiply(a), a.pow(3));
+        Assert.assertEquals(a, a.pow(1));
+        Assert.assertEquals(new PAdic("1", 7), a.pow(0));
+        Assert.assertEquals(new PAdic("1", 7).divide(a.multiply(a)), a.pow(-2));
+        Assert.assertEquals(new PAdic("1", 7), new PAdic("0", 7).pow(0));
+        Assert.assertEquals(new PAdic("0", 7), new PAdic("0", 7).pow(5));
+    }
+
+    @Test
+    public void testRandomPowers() {
+        final Random random = new Random(79);
+
+        for (int test = 0; test < 600; ++test) {
+            final int base = RandomPAdics.BASES[test % RandomPAdics.BASES.length];
+            final PAdic number = RandomPAdics.number(random, base, 10 + random.nextInt(200));
+            final int exponent = 1 + random.nextInt(12);
+            // Folding starts from one, so that order of the first power was calculated as any product does.
+            PAdic expected = new PAdic(BigInteger.ONE, base, number.getPrecision());
+
+            for (int i = 0; i < exponent; ++i) {
+                expected = expected.multiply(number);
+            }
+
+            final PAdic actual = number.pow(exponent);
+
+            Assert.assertEquals(expected, actual);
+            Assert.assertEquals(expected.getOrder(), actual.getOrder());
+
+            // Power of a number of positive order has fewer known digits than the number,
+            // so its inverse is compared only with inverses of the other powers.
+            if (number.getOrder() <= 0 && number.getDigit(number.getOrder()) != 0) {
+                final PAdic inverse = new PAdic(BigInteger.ONE, base, number.getPrecision()).divide(expected);
+
+                Assert.assertEquals(inverse, number.pow(-exponent));
+                Assert.assertEquals(inverse.getOrder(), number.pow(-exponent).getOrder());
+            }
+        }
+    }
+
+    @Test
+    public void testLargeExponents() {
+        final Random random = new Random(83);
+
+        for (final int base : RandomPAdics.BASES) {
+            final int precision = 100;
+            final BigInteger modulus = BigInteger.valueOf(base).pow(precision);
+            BigInteger value = new BigInteger(200, random).mod(modulus);
+
+            if (value.mod(BigInteger.valueOf(base)).signum() == 0) {
+                value = value.add(BigInteger.ONE);
+            }
+
+            final PAdic number = new PAdic(value, base, precision);
+            final BigInteger exponent = new BigInteger(300, random);
+
+            Assert.assertEquals(value.modPow(exponent, modulus), number.pow(exponent).toBigInteger());
+            Assert.assertEquals(value.modPow(exponent.negate(), modulus), number.pow(exponent.negate()).toBigInteger());
+
+            // Order of the group of units modulo p^precision.
+            final BigInteger order = modulus.divide(BigInteger.valueOf(base)).multiply(BigInteger.valueOf(base - 1));
+
+            Assert.assertEquals(BigInteger.ONE, number.pow(order).toBigInteger());
+        }
+    }
+
+    @Test
+    public void testOrders() {
+        final PAdic number = new PAdic(BigInteger.valueOf(3), BigInteger.valueOf(25), 5, 20);
+
+        Assert.assertEquals(-6, number.pow(3).getOrder());
+        Assert.assertEquals(6, number.pow(-3).getOrder());
+        Assert.assertEquals(new PAdic(BigInteger.valueOf(27), BigInteger.valueOf(25 * 25 * 25), 5, 20), number.pow(3));
+        Assert.assertEquals(new PAdic(BigInteger.ZERO, 5, 20), number.pow(-10));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testZeroToNegativePower() {
+        new PAdic("0", 7).pow(-1);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testTooLargeOrder() {
+        new PAdic("0.1", 7).pow(BigInteger.ONE.shiftLeft(40));
+    }
+}
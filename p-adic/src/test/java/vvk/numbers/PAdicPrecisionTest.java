@@ -0,0 +1,150 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+public class PAdicPrecisionTest {
+
+    @Test
+    public void testDefaultPrecision() {
+        Assert.assertEquals(PAdic.DEFAULT_PRECISION, new PAdic("12.3", 5).getPrecision());
+        Assert.assertEquals(PAdic.DEFAULT_PRECISION, new PAdic(new BigInteger("123"), 5).getPrecision());
+        Assert.assertEquals(PAdic.DEFAULT_PRECISION, new PAdic(BigInteger.ONE, new BigInteger("3"), 5).getPrecision());
+        Assert.assertEquals(PAdic.DEFAULT_PRECISION, new PAdic(new int[] {1, 2}, 0, 5).getPrecision());
+    }
+
+    @Test
+    public void testResultPrecision() {
+        final int base = 3;
+        final PAdic a = new PAdic(new BigInteger("-7"), base, 10);
+        final PAdic b = new PAdic(new BigInteger("5"), base, 2000);
+
+        Assert.assertEquals(10, a.add(b).getPrecision());
+        Assert.assertEquals(10, b.subtract(a).getPrecision());
+        Assert.assertEquals(10, a.multiply(b).getPrecision());
+        Assert.assertEquals(10, b.divide(a).getPrecision());
+        Assert.assertEquals(10, a.negative().getPrecision());
+
+        Assert.assertEquals(new PAdic(new BigInteger("-2"), base, 10), a.add(b));
+        Assert.assertEquals(new PAdic(new BigInteger("12"), base, 10), b.subtract(a));
+        Assert.assertEquals(new PAdic(new BigInteger("-35"), base, 10), a.multiply(b));
+        Assert.assertEquals(new PAdic(new BigInteger("5"), new BigInteger("-7"), base, 10), b.divide(a));
+    }
+
+    @Test
+    public void testHighPrecision() {
+        final int base = 7;
+        final int precision = 2000;
+        final PAdic one = new PAdic(BigInteger.ONE, base, precision);
+        final PAdic third = new PAdic(BigInteger.ONE, new BigInteger("3"), base, precision);
+        final PAdic three = new PAdic(new BigInteger("3"), base, precision);
+
+        Assert.assertEquals(one, third.multiply(three));
+        Assert.assertEquals(third, one.divide(three));
+
+        final BigInteger big = new BigInteger("7").pow(1500).add(BigInteger.ONE);
+        final PAdic bigNumber = new PAdic(big, base, precision);
+        Assert.assertEquals(new PAdic(big.multiply(big), base, precision), bigNumber.multiply(bigNumber));
+    }
+
+    @Test
+    public void testWithPrecision() {
+        final int base = 5;
+        final PAdic a = new PAdic("1234.1", base, 20);
+
+        Assert.assertSame(a, a.withPrecision(20));
+        Assert.assertEquals(new PAdic("34.1", base, 3), a.withPrecision(3));
+        Assert.assertEquals(new PAdic("1234.1", base, 40), a.withPrecision(40));
+        Assert.assertEquals(-1, a.withPrecision(1).getOrder());
+
+        final PAdic b = new PAdic("1000", base, 20);
+        Assert.assertEquals(3, b.withPrecision(4).getOrder());
+        Assert.assertEquals(new PAdic("0", base, 3), b.withPrecision(3));
+    }
+
+    @Test
+    public void testFractionsWithSmallPrecision() {
+        final PAdic third = new PAdic(BigInteger.ONE, new BigInteger("3"), 3, 1);
+
+        Assert.assertEquals(-1, third.getOrder());
+        Assert.assertEquals(1, third.getDigit(-1));
+
+        // 7/50 = 7/2 * 5^-2, and 7/2 = 16 = 31 (mod 25).
+        final PAdic fraction = new PAdic(new BigInteger("7"), new BigInteger("50"), 5, 2);
+
+        Assert.assertEquals(-2, fraction.getOrder());
+        Assert.assertEquals(1, fraction.getDigit(-2));
+        Assert.assertEquals(3, fraction.getDigit(-1));
+
+        final PAdic full = new PAdic(new BigInteger("-7"), new BigInteger("250"), 5);
+
+        for (int precision = 1; precision < 6; ++precision) {
+            final PAdic truncated = new PAdic(new BigInteger("-7"), new BigInteger("250"), 5, precision);
+
+            Assert.assertEquals(-3, truncated.getOrder());
+
+            for (int position = -3; position < precision - 3; ++position) {
+                Assert.assertEquals(full.getDigit(position), truncated.getDigit(position));
+            }
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testZeroDenominator() {
+        new PAdic(BigInteger.ONE, BigInteger.ZERO, 5);
+    }
+
+    @Test
+    public void testToStringOfFractionLongerThanPrecision() {
+        Assert.assertEquals("0.01", new PAdic("0.01", 2, 1).toString());
+        Assert.assertEquals("0.01", new PAdic(BigInteger.ONE, BigInteger.valueOf(9), 3, 1).toString());
+        Assert.assertEquals("0.0012", new PAdic(BigInteger.valueOf(7), BigInteger.valueOf(625), 5, 2).toString());
+        Assert.assertEquals("0.01", new PAdic(BigInteger.ONE, BigInteger.valueOf(9), 3, 3).toString());
+    }
+
+    @Test
+    public void testTruncation() {
+        final int base = 2;
+
+        Assert.assertEquals(new PAdic("011", base, 3), new PAdic("1011", base, 3));
+        Assert.assertEquals(new PAdic(new BigInteger("3"), base, 3), new PAdic(new BigInteger("11"), base, 3));
+        Assert.assertEquals(new PAdic(new int[] {1, 1}, 0, base, 2), new PAdic(new int[] {1, 1, 0, 1}, 0, base, 2));
+        Assert.assertEquals(new PAdic("0", base, 3), new PAdic("1000", base, 3));
+    }
+
+    @Test
+    public void testDifferentPrecisionsAreNotEqual() {
+        Assert.assertFalse(new PAdic("12", 3, 10).equals(new PAdic("12", 3, 11)));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNonPositivePrecision() {
+        new PAdic(BigInteger.ONE, 3, 0);
+    }
+}
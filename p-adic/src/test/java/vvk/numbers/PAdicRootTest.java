@@ -0,0 +1,168 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class PAdicRootTest {
+
+    private static final int[] BASES = {2, 3, 5, 7, 257, 1031, 65521};
+
+    @Test
+    public void testSquareRoot() {
+        final PAdic[] roots = new PAdic(BigInteger.valueOf(2), 7, 20).sqrt();
+
+        Assert.assertEquals(2, roots.length);
+
+        for (final PAdic root : roots) {
+            Assert.assertEquals(new PAdic(BigInteger.valueOf(2), 7, 20), root.multiply(root));
+        }
+
+        Assert.assertEquals(new PAdic(BigInteger.ZERO, 7, 20), roots[0].add(roots[1]));
+    }
+
+    @Test
+    public void testRandomRoots() {
+        final Random random = new Random(89);
+
+        for (int test = 0; test < 700; ++test) {
+            final int base = BASES[test % BASES.length];
+            final int precision = 10 + random.nextInt(150);
+            final PAdic number = randomUnit(random, base, precision);
+            final int degree = 1 + random.nextInt(12);
+            final PAdic power = number.pow(degree);
+            final PAdic[] roots = power.root(degree);
+            boolean found = false;
+
+            for (final PAdic root : roots) {
+                Assert.assertEquals(power, root.pow(degree));
+                found |= root.equals(number);
+            }
+
+            Assert.assertTrue(found);
+
+            if (degree % base != 0) {
+                Assert.assertEquals(gcd(degree, base - 1), roots.length);
+            }
+        }
+    }
+
+    @Test
+    public void testOrders() {
+        final PAdic number = new PAdic(BigInteger.valueOf(4), BigInteger.valueOf(25 * 25), 5, 20);
+
+        for (final PAdic root : number.sqrt()) {
+            Assert.assertEquals(-2, root.getOrder());
+            Assert.assertEquals(number, root.multiply(root));
+        }
+
+        final PAdic multiple = new PAdic(BigInteger.valueOf(8 * 125 * 125 * 125), 5, 20);
+
+        for (final PAdic root : multiple.root(3)) {
+            Assert.assertEquals(3, root.getOrder());
+            Assert.assertEquals(multiple, root.pow(3));
+        }
+    }
+
+    @Test
+    public void testTwoAdicSquareRoots() {
+        // 17 = 1 (mod 8) has two square roots, which are opposite.
+        final PAdic[] roots = new PAdic(BigInteger.valueOf(17), 2, 64).sqrt();
+
+        Assert.assertEquals(2, roots.length);
+        Assert.assertEquals(new PAdic(BigInteger.valueOf(17), 2, 64), roots[0].multiply(roots[0]));
+        Assert.assertEquals(new PAdic(BigInteger.valueOf(17), 2, 64), roots[1].multiply(roots[1]));
+        Assert.assertEquals(new PAdic(BigInteger.ZERO, 2, 64), roots[0].add(roots[1]));
+        // Square roots of -9 do not exist, so 81 has only two roots of degree four, 3 and -3.
+        Assert.assertEquals(2, new PAdic(BigInteger.valueOf(81), 2, 64).root(4).length);
+    }
+
+    @Test
+    public void testWildRoots() {
+        // Cube of a unit is 1 (mod 9), and it has the only cube root in 3-adic numbers.
+        final PAdic number = new PAdic(BigInteger.valueOf(10), 3, 40);
+        final PAdic[] roots = number.root(3);
+
+        Assert.assertEquals(1, roots.length);
+        Assert.assertEquals(number, roots[0].pow(3));
+        Assert.assertEquals(new PAdic(BigInteger.valueOf(64), 3, 40).root(3)[0], new PAdic(BigInteger.valueOf(4), 3, 40));
+    }
+
+    @Test
+    public void testZero() {
+        final PAdic[] roots = new PAdic(BigInteger.ZERO, 5, 20).root(3);
+
+        Assert.assertEquals(1, roots.length);
+        Assert.assertEquals(new PAdic(BigInteger.ZERO, 5, 20), roots[0]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNonResidue() {
+        // 3 is not a square modulo 7.
+        new PAdic(BigInteger.valueOf(3), 7, 20).sqrt();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testOddOrder() {
+        new PAdic(BigInteger.valueOf(7 * 2), 7, 20).sqrt();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testTwoAdicNonSquare() {
+        // 5 is a square modulo 4, but not modulo 8.
+        new PAdic(BigInteger.valueOf(5), 2, 64).sqrt();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testWildNonResidue() {
+        // 2 is a cube modulo 3, but not modulo 9.
+        new PAdic(BigInteger.valueOf(2), 3, 20).root(3);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNonPositiveDegree() {
+        new PAdic(BigInteger.valueOf(2), 7, 20).root(0);
+    }
+
+    private static PAdic randomUnit(final Random random, final int base, final int precision) {
+        final int[] sequence = new int[precision];
+
+        for (int i = 0; i < sequence.length; ++i) {
+            sequence[i] = random.nextInt(base);
+        }
+
+        sequence[0] = 1 + random.nextInt(base - 1);
+
+        return new PAdic(sequence, 0, base, precision);
+    }
+
+    private static int gcd(final int a, final int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class PAdicSeriesTest {
+
+    private static final int[] BASES = {2, 3, 5, 7, 257, 65521};
+
+    @Test
+    public void testExponentBySeries() {
+        final Random random = new Random(107);
+
+        for (int test = 0; test < 120; ++test) {
+            final int base = BASES[test % BASES.length];
+            final int precision = 5 + random.nextInt(60);
+            final BigInteger value = randomMultiple(random, base, (base == 2 ? 2 : 1) + random.nextInt(3));
+
+            // Terms of the series are divided one by one with enough extra digits.
+            final int extended = precision + 40;
+            final PAdic x = new PAdic(value, base, extended);
+            PAdic term = new PAdic(BigInteger.ONE, base, extended);
+            PAdic expected = term;
+
+            for (int n = 1; n < 3 * precision + 10; ++n) {
+                term = term.multiply(x).divide(new PAdic(BigInteger.valueOf(n), base, extended));
+                expected = expected.add(term);
+            }
+
+            final BigInteger modulus = BigInteger.valueOf(base).pow(precision);
+
+            Assert.assertEquals(expected.toBigInteger().mod(modulus), new PAdic(value, base, precision).exp().toBigInteger().mod(modulus));
+        }
+    }
+
+    @Test
+    public void testLogarithmOfExponent() {
+        final Random random = new Random(109);
+
+        for (int test = 0; test < 300; ++test) {
+            final int base = BASES[test % BASES.length];
+            final int precision = 5 + random.nextInt(150);
+            final PAdic x = new PAdic(randomMultiple(random, base, (base == 2 ? 2 : 1) + random.nextInt(4)), base, precision);
+
+            Assert.assertEquals(x, x.exp().log());
+        }
+    }
+
+    @Test
+    public void testHomomorphisms() {
+        final Random random = new Random(113);
+
+        for (int test = 0; test < 300; ++test) {
+            final int base = BASES[test % BASES.length];
+            final int precision = 10 + random.nextInt(150);
+            final int least = base == 2 ? 2 : 1;
+            final PAdic x = new PAdic(randomMultiple(random, base, least + random.nextInt(3)), base, precision);
+            final PAdic y = new PAdic(randomMultiple(random, base, least + random.nextInt(3)), base, precision);
+
+            Assert.assertEquals(x.exp().multiply(y.exp()), x.add(y).exp());
+
+            final PAdic u = new PAdic(randomMultiple(random, base, 0).multiply(BigInteger.valueOf(base)).add(BigInteger.valueOf(1 + random.nextInt(base - 1))), base, precision);
+            final PAdic w = new PAdic(randomMultiple(random, base, 0).multiply(BigInteger.valueOf(base)).add(BigInteger.valueOf(1 + random.nextInt(base - 1))), base, precision);
+
+            Assert.assertEquals(u.log().add(w.log()), u.multiply(w).log());
+        }
+    }
+
+    @Test
+    public void testRootsOfUnity() {
+        for (final int base : BASES) {
+            final PAdic zero = new PAdic(BigInteger.ZERO, base, 40);
+
+            Assert.assertEquals(zero, new PAdic(BigInteger.ONE, base, 40).log());
+            Assert.assertEquals(zero, new PAdic(BigInteger.valueOf(-1), base, 40).log());
+
+            // Teichmuller representative of 2 is a root of unity of degree p - 1.
+            if (base > 3) {
+                final PAdic root = new PAdic(BigInteger.valueOf(2), base, 40).pow(BigInteger.valueOf(base).pow(40));
+
+                Assert.assertEquals(zero, root.log());
+            }
+        }
+    }
+
+    @Test
+    public void testExponentOfZero() {
+        Assert.assertEquals(new PAdic(BigInteger.ONE, 5, 20), new PAdic(BigInteger.ZERO, 5, 20).exp());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testExponentOfUnit() {
+        new PAdic(BigInteger.ONE, 5, 20).exp();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testTwoAdicExponentOfOrderOne() {
+        new PAdic(BigInteger.valueOf(2), 2, 20).exp();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testLogarithmOfNonUnit() {
+        new PAdic(BigInteger.valueOf(5), 5, 20).log();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testLogarithmOfZero() {
+        new PAdic(BigInteger.ZERO, 5, 20).log();
+    }
+
+    // Random positive integer divisible by p^order.
+    private static BigInteger randomMultiple(final Random random, final int base, final int order) {
+        return new BigInteger(100, random).add(BigInteger.ONE).multiply(BigInteger.valueOf(base).pow(order));
+    }
+}
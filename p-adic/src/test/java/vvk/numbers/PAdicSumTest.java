@@ -0,0 +1,131 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class PAdicSumTest {
+
+    @Test
+    public void testSum() {
+        final PAdic a = new PAdic("11", 7);
+        final PAdic b = new PAdic("2.3", 7);
+        final PAdic c = new PAdic("6.01", 7);
+
+        Assert.assertEquals(a.add(b).add(c), PAdic.sum(new PAdic[] {a, b, c}));
+        Assert.assertEquals(a, PAdic.sum(new PAdic[] {a}));
+        Assert.assertEquals(new PAdic("0", 7), PAdic.sum(Arrays.asList(c, a, c.negative(), a.negative())));
+    }
+
+    @Test
+    public void testRandomSums() {
+        final Random random = new Random(71);
+
+        for (int test = 0; test < 1000; ++test) {
+            final int base = RandomPAdics.BASES[test % RandomPAdics.BASES.length];
+            final int precision = 10 + random.nextInt(300);
+            final PAdic[] terms = new PAdic[1 + random.nextInt(30)];
+
+            for (int i = 0; i < terms.length; ++i) {
+                terms[i] = RandomPAdics.number(random, base, precision + random.nextInt(10));
+            }
+
+            // Folding starts from zero, so that a single term got its order calculated as any sum does.
+            PAdic expected = new PAdic(BigInteger.ZERO, base, precision + 10);
+
+            for (int i = 0; i < terms.length; ++i) {
+                expected = expected.add(terms[i]);
+            }
+
+            final PAdic actual = PAdic.sum(terms);
+
+            Assert.assertEquals(expected, actual);
+            Assert.assertEquals(expected.getOrder(), actual.getOrder());
+            Assert.assertEquals(expected.getPrecision(), actual.getPrecision());
+        }
+    }
+
+    @Test
+    public void testCarries() {
+        for (final int base : RandomPAdics.BASES) {
+            final int precision = 100;
+            final BigInteger modulus = BigInteger.valueOf(base).pow(precision);
+            final List<PAdic> terms = new ArrayList<PAdic>();
+            BigInteger expected = BigInteger.ZERO;
+
+            // Every digit of -1 is p - 1, so every column carries into the next one.
+            for (int i = 0; i < 5000; ++i) {
+                final BigInteger value = BigInteger.valueOf(i % 3 == 0 ? -1 : i);
+                terms.add(new PAdic(value, base, precision));
+                expected = expected.add(value);
+            }
+
+            Assert.assertEquals(expected.mod(modulus), PAdic.sum(terms).toBigInteger());
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        final Random random = new Random(73);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (final int base : RandomPAdics.BASES) {
+                final PAdic[] terms = new PAdic[10000];
+
+                for (int i = 0; i < terms.length; ++i) {
+                    terms[i] = RandomPAdics.number(random, base, 64);
+                }
+
+                final PAdic expected = PAdic.sum(terms);
+                final PAdic actual = PAdic.sum(terms, pool);
+
+                Assert.assertEquals(expected, actual);
+                Assert.assertEquals(expected.getOrder(), actual.getOrder());
+                Assert.assertArrayEquals(expected.digits(), actual.digits());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testEmpty() {
+        PAdic.sum(new PAdic[0]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDifferentBases() {
+        PAdic.sum(new PAdic[] {new PAdic("1", 3), new PAdic("1", 5)});
+    }
+}
@@ -0,0 +1,134 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class PAdicVectorTest {
+
+    private static final int[] BASES = {2, 3, 5, 7, 257, 1031};
+
+    @Test
+    public void testConversion() {
+        final Random random = new Random(13);
+        final PAdic[] numbers = randomNumbers(random, 50, 7, 30);
+        final PAdicVector vector = new PAdicVector(numbers);
+
+        Assert.assertEquals(50, vector.size());
+        Assert.assertEquals(7, vector.getBase());
+        Assert.assertEquals(30, vector.getPrecision());
+
+        final PAdic[] array = vector.toArray();
+
+        for (int i = 0; i < numbers.length; ++i) {
+            Assert.assertEquals(numbers[i], array[i]);
+            Assert.assertEquals(numbers[i].getOrder(), array[i].getOrder());
+            Assert.assertEquals(numbers[i], vector.get(i));
+        }
+    }
+
+    @Test
+    public void testArithmetic() {
+        final Random random = new Random(17);
+
+        for (int test = 0; test < 60; ++test) {
+            final int base = BASES[test % BASES.length];
+            // Some vectors are longer than one chunk, and the last ones are multiplied by Karatsuba algorithm.
+            final int size = 1 + random.nextInt(test % 10 == 0 ? 3000 : 100);
+            final int precision = test < 54 ? 1 + random.nextInt(150) : 1200 + random.nextInt(300);
+            final PAdic[] first = randomNumbers(random, size, base, precision);
+            final PAdic[] second = randomNumbers(random, size, base, precision - random.nextInt(precision));
+            final PAdicVector firstVector = new PAdicVector(first);
+            final PAdicVector secondVector = new PAdicVector(second);
+            final PAdic[] sums = firstVector.add(secondVector).toArray();
+            final PAdic[] differences = firstVector.subtract(secondVector).toArray();
+            final PAdic[] products = firstVector.multiply(secondVector).toArray();
+
+            for (int i = 0; i < size; ++i) {
+                assertSame(first[i].add(second[i]), sums[i]);
+                assertSame(first[i].subtract(second[i]), differences[i]);
+                assertSame(first[i].multiply(second[i]), products[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testZeros() {
+        final PAdic zero = new PAdic(BigInteger.ZERO, 5, 20);
+        final PAdic one = new PAdic(BigInteger.ONE, 5, 20);
+        final PAdicVector vector = new PAdicVector(new PAdic[] {zero, one, one});
+        final PAdicVector other = new PAdicVector(new PAdic[] {one, zero, one});
+
+        assertSame(zero, vector.multiply(other).get(0));
+        assertSame(zero, vector.subtract(vector).get(2));
+        assertSame(new PAdic(BigInteger.valueOf(2), 5, 20), vector.add(other).get(2));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDifferentSizes() {
+        final PAdic one = new PAdic(BigInteger.ONE, 5, 20);
+
+        new PAdicVector(new PAdic[] {one}).add(new PAdicVector(new PAdic[] {one, one}));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDifferentBases() {
+        new PAdicVector(new PAdic[] {new PAdic(BigInteger.ONE, 5, 20)})
+                .multiply(new PAdicVector(new PAdic[] {new PAdic(BigInteger.ONE, 7, 20)}));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testEmptyVector() {
+        new PAdicVector(new PAdic[0]);
+    }
+
+    private static void assertSame(final PAdic expected, final PAdic actual) {
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(expected.getOrder(), actual.getOrder());
+        Assert.assertEquals(expected.getPrecision(), actual.getPrecision());
+    }
+
+    private static PAdic[] randomNumbers(final Random random, final int size, final int base, final int precision) {
+        final PAdic[] numbers = new PAdic[size];
+
+        for (int i = 0; i < size; ++i) {
+            final int[] sequence = new int[1 + random.nextInt(precision)];
+
+            for (int k = 0; k < sequence.length; ++k) {
+                sequence[k] = random.nextInt(base);
+            }
+
+            // Most of the numbers are integral, as in the common case.
+            final int order = random.nextInt(8) == 0 ? -1 - random.nextInt(3) : random.nextInt(3);
+            numbers[i] = new PAdic(sequence, order, base, precision).add(new PAdic(BigInteger.ZERO, base, precision));
+        }
+
+        return numbers;
+    }
+}
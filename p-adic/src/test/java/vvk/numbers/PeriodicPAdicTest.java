@@ -0,0 +1,128 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class PeriodicPAdicTest {
+
+    private static final int[] BASES = {2, 3, 5, 7, 257};
+    private static final int PRECISION = 300;
+
+    @Test
+    public void testDigits() {
+        final Random random = new Random(14);
+
+        for (final int base : BASES) {
+            for (int test = 0; test < 50; ++test) {
+                final BigInteger numerator = BigInteger.valueOf(random.nextInt(2001) - 1000);
+                final BigInteger denominator = BigInteger.valueOf(random.nextInt(1000) + 1).multiply(BigInteger.valueOf(base).pow(random.nextInt(3)));
+                final PeriodicPAdic periodic = new PeriodicPAdic(numerator, denominator, base);
+                final PAdic truncated = new PAdic(numerator, denominator, base, PRECISION);
+
+                Assert.assertEquals(truncated, periodic.toPAdic(PRECISION));
+                Assert.assertEquals(truncated.getOrder(), periodic.getOrder());
+
+                for (int position = truncated.getOrder() - 3; position < truncated.getOrder() + 150; ++position) {
+                    Assert.assertEquals(truncated.getDigit(position), periodic.getDigit(position));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testArithmetic() {
+        final Random random = new Random(15);
+
+        for (final int base : BASES) {
+            for (int test = 0; test < 30; ++test) {
+                final BigInteger a = BigInteger.valueOf(random.nextInt(201) - 100);
+                final BigInteger b = BigInteger.valueOf(random.nextInt(100) + 1);
+                final BigInteger c = BigInteger.valueOf(random.nextInt(201) - 100);
+                final BigInteger d = BigInteger.valueOf(random.nextInt(100) + 1);
+                final PeriodicPAdic x = new PeriodicPAdic(a, b, base);
+                final PeriodicPAdic y = new PeriodicPAdic(c, d, base);
+
+                Assert.assertEquals(new PeriodicPAdic(a.multiply(d).add(c.multiply(b)), b.multiply(d), base), x.add(y));
+                Assert.assertEquals(new PeriodicPAdic(a.multiply(d).subtract(c.multiply(b)), b.multiply(d), base), x.subtract(y));
+                Assert.assertEquals(new PeriodicPAdic(a.multiply(c), b.multiply(d), base), x.multiply(y));
+                Assert.assertEquals(new PeriodicPAdic(a.negate(), b, base), x.negative());
+
+                if (c.signum() != 0) {
+                    Assert.assertEquals(new PeriodicPAdic(a.multiply(d), b.multiply(c), base), x.divide(y));
+                }
+
+                Assert.assertEquals(x.toPAdic(PRECISION).add(y.toPAdic(PRECISION)), x.add(y).toPAdic(PRECISION));
+                Assert.assertEquals(x.toPAdic(PRECISION).multiply(y.toPAdic(PRECISION)), x.multiply(y).toPAdic(PRECISION));
+            }
+        }
+    }
+
+    @Test
+    public void testFraction() {
+        final PeriodicPAdic x = new PeriodicPAdic(BigInteger.valueOf(-6), BigInteger.valueOf(-20), 5);
+
+        Assert.assertEquals(BigInteger.valueOf(3), x.getNumerator());
+        Assert.assertEquals(BigInteger.valueOf(10), x.getDenominator());
+        Assert.assertEquals(-1, x.getOrder());
+    }
+
+    @Test
+    public void testLongPeriod() {
+        // Multiplicative order of 2 modulo 1000003 is longer than the stored period limit.
+        final BigInteger numerator = BigInteger.valueOf(-12345);
+        final BigInteger denominator = BigInteger.valueOf(1000003);
+        final PeriodicPAdic periodic = new PeriodicPAdic(numerator, denominator, 2);
+        final PAdic truncated = new PAdic(numerator, denominator, 2, 9000);
+
+        Assert.assertEquals(truncated, periodic.toPAdic(9000));
+
+        for (int position = 0; position < 6000; position += 7) {
+            Assert.assertEquals(truncated.getDigit(position), periodic.getDigit(position));
+        }
+    }
+
+    @Test
+    public void testToString() {
+        Assert.assertEquals("0", new PeriodicPAdic(BigInteger.ZERO, 5).toString());
+        Assert.assertEquals("12", new PeriodicPAdic(BigInteger.valueOf(5), 3).toString());
+        Assert.assertEquals("(4)", new PeriodicPAdic(BigInteger.valueOf(-1), 5).toString());
+        Assert.assertEquals("(4)0", new PeriodicPAdic(BigInteger.valueOf(-5), 5).toString());
+        Assert.assertEquals("0.01", new PeriodicPAdic(BigInteger.ONE, BigInteger.valueOf(25), 5).toString());
+        Assert.assertEquals("(13)2", new PeriodicPAdic(BigInteger.ONE, BigInteger.valueOf(3), 5).toString());
+        Assert.assertEquals("(13).2", new PeriodicPAdic(BigInteger.ONE, BigInteger.valueOf(15), 5).toString());
+        Assert.assertEquals("(256)2", new PeriodicPAdic(BigInteger.valueOf(-255), 257).toString());
+        Assert.assertEquals("1_1", new PeriodicPAdic(BigInteger.valueOf(258), 257).toString());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDivisionByZero() {
+        new PeriodicPAdic(BigInteger.ONE, 5).divide(new PeriodicPAdic(BigInteger.ZERO, 5));
+    }
+}
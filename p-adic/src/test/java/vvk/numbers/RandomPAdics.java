@@ -0,0 +1,61 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Random operands of the randomized tests.
+ */
+final class RandomPAdics {
+
+    // Bases of every packing: bits, several digits per column, two digits per column and one digit per column.
+    static final int[] BASES = {2, 3, 5, 257, 1031, 65521};
+
+    private RandomPAdics() {
+    }
+
+    /**
+     * Returns number of up to <code>precision</code> random digits and order from -3 to 3.
+     * Its lowest digits may be zeros, so it is not necessarily in canonical form.
+     */
+    static PAdic number(final Random random, final int base, final int precision) {
+        final int[] sequence = new int[1 + random.nextInt(precision)];
+
+        for (int i = 0; i < sequence.length; ++i) {
+            sequence[i] = random.nextInt(base);
+        }
+
+        return new PAdic(sequence, random.nextInt(7) - 3, base, precision);
+    }
+
+    /**
+     * Returns random number as {@link #number(Random, int, int)} does, brought to canonical form.
+     */
+    static PAdic canonicalNumber(final Random random, final int base, final int precision) {
+        return RandomPAdics.number(random, base, precision).add(new PAdic(BigInteger.ZERO, base, precision + 10));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+The MIT License (MIT)
+
+Copyright (c) 2014 Vladislav Kaverin
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in
+all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+THE SOFTWARE.
+*/
+
+package vvk.numbers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class TwoAdicTest {
+
+    private static final int[] LENGTHS = {1, 2, 63, 64, 65, 127, 128, 129, 1000, 4100};
+
+    @Test
+    public void testMultiplyHigh() {
+        final Random random = new Random(1);
+        final long[] special = {0, 1, -1, Long.MAX_VALUE, Long.MIN_VALUE, 0xFFFFFFFFL, 1L << 32};
+        final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+        for (int test = 0; test < 1000; ++test) {
+            final long x = test < special.length ? special[test] : random.nextLong();
+            final long y = test < special.length ? special[special.length - 1 - test] : random.nextLong();
+            final BigInteger product = unsigned(x).multiply(unsigned(y));
+
+            Assert.assertEquals(product.shiftRight(64).longValue(), TwoAdic.multiplyHigh(x, y));
+            Assert.assertEquals(product.and(mask).longValue(), x * y);
+        }
+    }
+
+    @Test
+    public void testConversions() {
+        final Random random = new Random(2);
+
+        for (final int len : LENGTHS) {
+            final BigInteger value = new BigInteger(len, random);
+            final long[] words = TwoAdic.fromBigInteger(value, len);
+
+            Assert.assertEquals(TwoAdic.wordCount(len), words.length);
+            Assert.assertEquals(value, TwoAdic.toBigInteger(words, len));
+            Assert.assertEquals(value.getLowestSetBit() < 0 ? len : value.getLowestSetBit(), TwoAdic.valuation(words, len));
+
+            for (int i = 0; i < len; i += 1 + len / 10) {
+                Assert.assertEquals(value.testBit(i) ? 1 : 0, TwoAdic.digit(words, i));
+            }
+        }
+    }
+
+    @Test
+    public void testArithmetic() {
+        final Random random = new Random(3);
+
+        for (final int len : LENGTHS) {
+            final BigInteger modulus = BigInteger.ONE.shiftLeft(len);
+            final BigInteger x = new BigInteger(len, random);
+            final BigInteger y = new BigInteger(len, random).setBit(0);
+            final long[] first = TwoAdic.fromBigInteger(x, len);
+            final long[] second = TwoAdic.fromBigInteger(y, len);
+            final long[] result = new long[first.length];
+
+            TwoAdic.add(first, second, len, result);
+            Assert.assertEquals(x.add(y).mod(modulus), TwoAdic.toBigInteger(result, len));
+
+            TwoAdic.subtract(first, second, len, result);
+            Assert.assertEquals(x.subtract(y).mod(modulus), TwoAdic.toBigInteger(result, len));
+
+            TwoAdic.negate(first, len, result);
+            Assert.assertEquals(x.negate().mod(modulus), TwoAdic.toBigInteger(result, len));
+
+            TwoAdic.multiply(first, second, len, result);
+            Assert.assertEquals(x.multiply(y).mod(modulus), TwoAdic.toBigInteger(result, len));
+
+            Assert.assertEquals(y.modInverse(modulus), TwoAdic.toBigInteger(TwoAdic.inverse(second, len), len));
+            Assert.assertEquals(x.multiply(y.modInverse(modulus)).mod(modulus), TwoAdic.toBigInteger(TwoAdic.divide(first, second, len), len));
+
+            for (final int count : new int[] {0, 1, 64, len / 2, len - 1}) {
+                TwoAdic.shiftUp(first, len, count, result);
+                Assert.assertEquals(x.shiftLeft(count).mod(modulus), TwoAdic.toBigInteger(result, len));
+
+                TwoAdic.shiftDown(first, len, count, result);
+                Assert.assertEquals(x.shiftRight(count), TwoAdic.toBigInteger(result, len));
+            }
+        }
+    }
+
+    @Test
+    public void testLargestWords() {
+        for (final int len : LENGTHS) {
+            final BigInteger modulus = BigInteger.ONE.shiftLeft(len);
+            final BigInteger x = modulus.subtract(BigInteger.ONE);
+            final long[] words = TwoAdic.fromBigInteger(x, len);
+            final long[] result = new long[words.length];
+
+            TwoAdic.multiply(words, words, len, result);
+            Assert.assertEquals(BigInteger.ONE, TwoAdic.toBigInteger(result, len));
+
+            TwoAdic.add(words, words, len, result);
+            Assert.assertEquals(x.shiftLeft(1).mod(modulus), TwoAdic.toBigInteger(result, len));
+        }
+    }
+
+    @Test
+    public void testPAdicFastPathAgreesWithDigits() {
+        final Random random = new Random(4);
+
+        for (int test = 0; test < 300; ++test) {
+            final int precision = 1 + random.nextInt(300);
+            final PAdic x = randomNumber(random, precision);
+            final PAdic y = randomNumber(random, precision);
+            final int len = Math.min(x.getPrecision(), y.getPrecision());
+
+            final int[] product = new int[len];
+            final long[] workspace = new long[Multiplication.workspaceSize(len)];
+            final int order = PAdic.multiply(x.digits(), x.getOrder(), y.digits(), y.getOrder(), 2, len, workspace, product);
+
+            Assert.assertEquals(PAdic.valueOf(product, order, 2, len), x.multiply(y));
+            Assert.assertArrayEquals(product, x.multiply(y).digits());
+        }
+    }
+
+    private static PAdic randomNumber(final Random random, final int precision) {
+        final int[] sequence = new int[1 + random.nextInt(precision)];
+
+        for (int i = 0; i < sequence.length; ++i) {
+            sequence[i] = random.nextInt(2);
+        }
+
+        return new PAdic(sequence, random.nextInt(21) - 10, 2, random.nextBoolean() ? precision : precision + random.nextInt(100));
+    }
+
+    private static BigInteger unsigned(final long x) {
+        return BigInteger.valueOf(x).and(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE));
+    }
+}